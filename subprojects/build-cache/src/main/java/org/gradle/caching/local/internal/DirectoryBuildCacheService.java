@@ -20,6 +20,7 @@ import com.google.common.io.Closer;
 import org.gradle.api.Action;
 import org.gradle.api.UncheckedIOException;
 import org.gradle.cache.PersistentCache;
+import org.gradle.cache.internal.CacheUsageJournal;
 import org.gradle.caching.BuildCacheEntryReader;
 import org.gradle.caching.BuildCacheEntryWriter;
 import org.gradle.caching.BuildCacheException;
@@ -35,8 +36,6 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.attribute.FileTime;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -45,13 +44,15 @@ public class DirectoryBuildCacheService implements LocalBuildCacheService, Build
     private final PathKeyFileStore fileStore;
     private final PersistentCache persistentCache;
     private final BuildCacheTempFileStore tempFileStore;
+    private final CacheUsageJournal usageJournal;
     private final String failedFileSuffix;
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
 
-    public DirectoryBuildCacheService(PathKeyFileStore fileStore, PersistentCache persistentCache, BuildCacheTempFileStore tempFileStore, String failedFileSuffix) {
+    public DirectoryBuildCacheService(PathKeyFileStore fileStore, PersistentCache persistentCache, BuildCacheTempFileStore tempFileStore, CacheUsageJournal usageJournal, String failedFileSuffix) {
         this.fileStore = fileStore;
         this.persistentCache = persistentCache;
         this.tempFileStore = tempFileStore;
+        this.usageJournal = usageJournal;
         this.failedFileSuffix = failedFileSuffix;
     }
 
@@ -66,9 +67,6 @@ public class DirectoryBuildCacheService implements LocalBuildCacheService, Build
         @Override
         public void execute(@Nonnull File file) {
             try {
-                // Mark as recently used
-                GFileUtils.touchExisting(file);
-
                 Closer closer = Closer.create();
                 FileInputStream stream = closer.register(new FileInputStream(file));
                 try {
@@ -113,7 +111,8 @@ public class DirectoryBuildCacheService implements LocalBuildCacheService, Build
         }
 
         File file = resource.getFile();
-        touch(file);
+        // Mark as recently used
+        usageJournal.recordUsage(key.getHashCode(), System.currentTimeMillis());
 
         try {
             reader.execute(file);
@@ -169,6 +168,7 @@ public class DirectoryBuildCacheService implements LocalBuildCacheService, Build
 
     private void storeInsideLock(BuildCacheKey key, File file) {
         fileStore.move(key.getHashCode(), file);
+        usageJournal.recordUsage(key.getHashCode(), System.currentTimeMillis());
     }
 
     @Override
@@ -183,15 +183,13 @@ public class DirectoryBuildCacheService implements LocalBuildCacheService, Build
 
     @Override
     public void close() {
+        // Cleanup runs when the cache is closed, and reads the journal
+        persistentCache.withFileLock(new Runnable() {
+            @Override
+            public void run() {
+                usageJournal.flush();
+            }
+        });
         persistentCache.close();
     }
-
-    @SuppressWarnings("Since15")
-    private static void touch(File file) {
-        try {
-            Files.setLastModifiedTime(file.toPath(), FileTime.fromMillis(System.currentTimeMillis()));
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
-        }
-    }
 }
@@ -21,6 +21,7 @@ import org.gradle.cache.CacheBuilder;
 import org.gradle.cache.CacheRepository;
 import org.gradle.cache.PersistentCache;
 import org.gradle.cache.internal.CacheScopeMapping;
+import org.gradle.cache.internal.CacheUsageJournal;
 import org.gradle.cache.internal.CleanupActionFactory;
 import org.gradle.cache.internal.FixedAgeOldestCacheCleanup;
 import org.gradle.cache.internal.VersionStrategy;
@@ -42,6 +43,7 @@ public class DirectoryBuildCacheServiceFactory implements BuildCacheServiceFacto
     private static final String BUILD_CACHE_VERSION = "1";
     private static final String BUILD_CACHE_KEY = "build-cache-" + BUILD_CACHE_VERSION;
     private static final String DIRECTORY_BUILD_CACHE_TYPE = "directory";
+    private static final String USAGE_JOURNAL_FILE_NAME = "usage.journal";
 
     private final CacheRepository cacheRepository;
     private final CacheScopeMapping cacheScopeMapping;
@@ -75,16 +77,23 @@ public class DirectoryBuildCacheServiceFactory implements BuildCacheServiceFacto
             config("removeUnusedEntriesAfter", String.valueOf(removeUnusedEntriesAfterDays) + " days");
 
         PathKeyFileStore fileStore = fileStoreFactory.createFileStore(target);
+        final CacheUsageJournal usageJournal = new CacheUsageJournal(new File(target, USAGE_JOURNAL_FILE_NAME));
         PersistentCache persistentCache = cacheRepository
             .cache(target)
-            .withCleanup(cleanupActionFactory.create(new FixedAgeOldestCacheCleanup(removeUnusedEntriesAfterDays)))
+            .withCleanup(cleanupActionFactory.create(new FixedAgeOldestCacheCleanup(removeUnusedEntriesAfterDays, usageJournal)))
             .withDisplayName("Build cache")
             .withLockOptions(mode(None))
             .withCrossVersionCache(CacheBuilder.LockTarget.DefaultTarget)
             .open();
+        persistentCache.withFileLock(new Runnable() {
+            @Override
+            public void run() {
+                usageJournal.createIfMissing();
+            }
+        });
         BuildCacheTempFileStore tempFileStore = new DefaultBuildCacheTempFileStore(target);
 
-        return new DirectoryBuildCacheService(fileStore, persistentCache, tempFileStore, FAILED_READ_SUFFIX);
+        return new DirectoryBuildCacheService(fileStore, persistentCache, tempFileStore, usageJournal, FAILED_READ_SUFFIX);
     }
 
     private static void checkDirectory(File directory) {
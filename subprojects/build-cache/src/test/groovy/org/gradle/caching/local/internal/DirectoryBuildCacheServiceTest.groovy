@@ -16,9 +16,12 @@
 
 package org.gradle.caching.local.internal
 
+import org.gradle.api.Action
 import org.gradle.cache.PersistentCache
+import org.gradle.cache.internal.CacheUsageJournal
 import org.gradle.caching.BuildCacheEntryWriter
 import org.gradle.caching.BuildCacheKey
+import org.gradle.internal.resource.local.LocallyAvailableResource
 import org.gradle.internal.resource.local.PathKeyFileStore
 import org.gradle.test.fixtures.file.CleanupTestDirectory
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
@@ -36,7 +39,8 @@ class DirectoryBuildCacheServiceTest extends Specification {
         getBaseDir() >> cacheDir
     }
     def tempFileStore = new DefaultBuildCacheTempFileStore(cacheDir)
-    def service = new DirectoryBuildCacheService(fileStore, persistentCache, tempFileStore, ".failed")
+    def usageJournal = new CacheUsageJournal(cacheDir.file("usage.journal"))
+    def service = new DirectoryBuildCacheService(fileStore, persistentCache, tempFileStore, usageJournal, ".failed")
     def key = Mock(BuildCacheKey)
 
     def "does not store partial result"() {
@@ -68,4 +72,24 @@ class DirectoryBuildCacheServiceTest extends Specification {
         cacheDir.listFiles() as List == []
         1 * key.getHashCode() >> hashCode
     }
+
+    def "records use of loaded entry in the usage journal when closed"() {
+        def hashCode = "1234abcd"
+        def entry = cacheDir.file(hashCode).createFile()
+        entry.lastModified = 1000
+        usageJournal.createIfMissing()
+
+        when:
+        service.loadLocally(key, Mock(Action))
+        service.close()
+
+        then:
+        entry.lastModified() == 1000
+        usageJournal.read().lastUsed.keySet() == [hashCode] as Set
+        _ * key.getHashCode() >> hashCode
+        1 * fileStore.get(hashCode) >> Stub(LocallyAvailableResource) {
+            getFile() >> entry
+        }
+        2 * persistentCache.withFileLock(_ as Runnable) >> { Runnable action -> action.run() }
+    }
 }
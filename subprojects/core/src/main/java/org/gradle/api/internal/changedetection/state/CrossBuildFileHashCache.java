@@ -16,43 +16,128 @@
 
 package org.gradle.api.internal.changedetection.state;
 
+import org.gradle.api.Transformer;
 import org.gradle.cache.CacheBuilder;
 import org.gradle.cache.CacheRepository;
 import org.gradle.cache.FileLockManager;
 import org.gradle.cache.PersistentCache;
 import org.gradle.cache.PersistentIndexedCache;
 import org.gradle.cache.PersistentIndexedCacheParameters;
+import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.serialize.Serializer;
 
 import javax.annotation.Nullable;
 import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
 
+/**
+ * Stores file hashes across builds.
+ *
+ * <p>The entries are spread over a fixed number of shards by the hash of their key. Each shard is a separate persistent cache
+ * with its own cross-process lock and its own in-memory cache, so concurrent builds sharing a Gradle user home only contend for
+ * the lock when they happen to access the same shard. The first shard uses the unsharded cache directory and each other shard has a cache
+ * directory of its own next to it, so a single shard is the unsharded layout. The cache is not sharded unless the {@value #SHARD_COUNT_PROPERTY}
+ * system property is set.</p>
+ */
 public class CrossBuildFileHashCache implements Closeable, TaskHistoryStore {
-    private final PersistentCache cache;
+    public static final String SHARD_COUNT_PROPERTY = "org.gradle.internal.filehashes.shards";
+    public static final int DEFAULT_SHARD_COUNT = 1;
+
+    private final List<PersistentCache> shards;
     private final InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory;
 
     public CrossBuildFileHashCache(@Nullable File cacheDir, CacheRepository repository, InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory) {
+        this(cacheDir, repository, inMemoryCacheDecoratorFactory, Integer.getInteger(SHARD_COUNT_PROPERTY, DEFAULT_SHARD_COUNT));
+    }
+
+    public CrossBuildFileHashCache(@Nullable File cacheDir, CacheRepository repository, InMemoryCacheDecoratorFactory inMemoryCacheDecoratorFactory, int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("The number of file hash cache shards must be positive, found " + shardCount + ".");
+        }
         this.inMemoryCacheDecoratorFactory = inMemoryCacheDecoratorFactory;
-        CacheBuilder cacheBuilder = cacheDir != null ? repository.cache(cacheDir) : repository.cache("fileHashes");
-        cache = cacheBuilder
-            .withDisplayName("file hash cache")
+        this.shards = new ArrayList<PersistentCache>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(openShard(cacheDir, repository, i));
+        }
+    }
+
+    private static PersistentCache openShard(@Nullable File cacheDir, CacheRepository repository, int shard) {
+        // The first shard keeps the unsharded location, so that its entries and its lock are shared with the unsharded layout
+        String shardName = shard == 0 ? null : "shard-" + shard;
+        CacheBuilder cacheBuilder;
+        if (cacheDir != null) {
+            cacheBuilder = repository.cache(shardName != null ? new File(cacheDir.getParentFile(), cacheDir.getName() + "-" + shardName) : cacheDir);
+        } else {
+            cacheBuilder = repository.cache(shardName != null ? "fileHashes-" + shardName : "fileHashes");
+        }
+        return cacheBuilder
+            .withDisplayName(shardName != null ? "file hash cache " + shardName : "file hash cache")
             .withLockOptions(mode(FileLockManager.LockMode.None)) // Lock on demand
             .open();
     }
 
+    static int shardIndex(Object key, int shardCount) {
+        int hash = key.hashCode();
+        // Spread the bits, as String hashes of paths with a common prefix differ mostly in the low bits
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % shardCount;
+    }
+
     @Override
     public <K, V> PersistentIndexedCache<K, V> createCache(String cacheName, Class<K> keyType, Serializer<V> valueSerializer, int maxEntriesToKeepInMemory, boolean cacheInMemoryForShortLivedProcesses) {
-        PersistentIndexedCacheParameters<K, V> parameters = new PersistentIndexedCacheParameters<K, V>(cacheName, keyType, valueSerializer)
-                .cacheDecorator(inMemoryCacheDecoratorFactory.decorator(maxEntriesToKeepInMemory, cacheInMemoryForShortLivedProcesses));
-        return cache.createCache(parameters);
+        int maxEntriesPerShard = Math.max(1, maxEntriesToKeepInMemory / shards.size());
+        List<PersistentIndexedCache<K, V>> shardCaches = new ArrayList<PersistentIndexedCache<K, V>>(shards.size());
+        for (PersistentCache shard : shards) {
+            PersistentIndexedCacheParameters<K, V> parameters = new PersistentIndexedCacheParameters<K, V>(cacheName, keyType, valueSerializer)
+                .cacheDecorator(inMemoryCacheDecoratorFactory.decorator(maxEntriesPerShard, cacheInMemoryForShortLivedProcesses));
+            shardCaches.add(shard.createCache(parameters));
+        }
+        if (shardCaches.size() == 1) {
+            return shardCaches.get(0);
+        }
+        return new ShardedIndexedCache<K, V>(shardCaches);
     }
 
     @Override
     public void close() throws IOException {
-        cache.close();
+        CompositeStoppable.stoppable(shards).stop();
+    }
+
+    private static class ShardedIndexedCache<K, V> implements PersistentIndexedCache<K, V> {
+        private final List<PersistentIndexedCache<K, V>> shards;
+
+        ShardedIndexedCache(List<PersistentIndexedCache<K, V>> shards) {
+            this.shards = shards;
+        }
+
+        private PersistentIndexedCache<K, V> shardFor(K key) {
+            return shards.get(shardIndex(key, shards.size()));
+        }
+
+        @Nullable
+        @Override
+        public V get(K key) {
+            return shardFor(key).get(key);
+        }
+
+        @Override
+        public V get(K key, Transformer<? extends V, ? super K> producer) {
+            return shardFor(key).get(key, producer);
+        }
+
+        @Override
+        public void put(K key, V value) {
+            shardFor(key).put(key, value);
+        }
+
+        @Override
+        public void remove(K key) {
+            shardFor(key).remove(key);
+        }
     }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.cache.internal;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.cache.FileLockWaitStatistics;
+import org.gradle.initialization.RootBuildLifecycleListener;
+
+/**
+ * Logs, at the end of each build, how often the locks acquired during the build were held by another process and how long the build waited for them.
+ * Locks that were never contended are only logged at debug level.
+ */
+public class FileLockWaitStatisticsReporter implements RootBuildLifecycleListener {
+    private static final Logger LOGGER = Logging.getLogger(FileLockWaitStatisticsReporter.class);
+
+    private final FileLockWaitStatistics statistics;
+
+    public FileLockWaitStatisticsReporter(FileLockWaitStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public void afterStart() {
+        // Forget the locks acquired between builds
+        statistics.drain();
+    }
+
+    @Override
+    public void beforeComplete() {
+        for (FileLockWaitStatistics.LockWaits lockWaits : statistics.drain()) {
+            if (lockWaits.getContendedAcquisitions() > 0) {
+                LOGGER.info("Waited {} ms for {}, which was held by another process for {} of {} acquisitions.",
+                    lockWaits.getWaitTimeMillis(), lockWaits.getLockDisplayName(), lockWaits.getContendedAcquisitions(), lockWaits.getAcquisitions());
+            } else {
+                LOGGER.debug("Acquired {} {} times without contention.", lockWaits.getLockDisplayName(), lockWaits.getAcquisitions());
+            }
+        }
+    }
+}
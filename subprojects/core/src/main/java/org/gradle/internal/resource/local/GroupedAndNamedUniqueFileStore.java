@@ -24,7 +24,7 @@ import java.io.File;
 import java.util.Set;
 
 /**
- * A file store that stores items grouped by some provided function over the key and an SHA1 hash of the value. This means that files are only ever added and never modified once added, so a resource from this store can be used without locking. Locking is required to add entries.
+ * A file store that stores items grouped by some provided function over the key and an SHA1 hash of the value. This means that files are only ever added and never modified once added, so a resource from this store can be used without locking. Entries can also be added without locking when the delegate, such as {@link UniquePathKeyFileStore}, adds them atomically.
  */
 public class GroupedAndNamedUniqueFileStore<K> implements FileStore<K>, FileStoreSearcher<K> {
 
@@ -19,13 +19,21 @@ package org.gradle.internal.resource.local;
 import org.apache.commons.io.FileUtils;
 import org.gradle.api.Action;
 import org.gradle.api.NonNullApi;
+import org.gradle.util.GFileUtils;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 
 /**
  * Assumes that files do not need to be replaced in the filestore.
  *
  * Can be used as an optimisation if path contains a checksum of the file, as there is no point to perform the replace in that circumstance.
+ * <p>
+ * Files are moved into the store without requiring external locking: the file is first written next to its destination and then atomically renamed,
+ * so that the destination is either missing or complete. When several processes or threads move the same path concurrently, they all move the same content
+ * and any of them can win.
  */
 @NonNullApi
 public class UniquePathKeyFileStore extends DefaultPathKeyFileStore {
@@ -34,8 +42,14 @@ public class UniquePathKeyFileStore extends DefaultPathKeyFileStore {
         super(baseDir);
     }
 
+    private static final String TEMP_FILE_PREFIX = "filestore-";
+    private static final String TEMP_FILE_SUFFIX = ".part";
+
     @Override
     public LocallyAvailableResource move(String path, File source) {
+        if (source.isFile()) {
+            return moveFile(path, source);
+        }
         LocallyAvailableResource entry = super.move(path, source);
         if (source.exists()) {
             FileUtils.deleteQuietly(source);
@@ -43,6 +57,35 @@ public class UniquePathKeyFileStore extends DefaultPathKeyFileStore {
         return entry;
     }
 
+    private LocallyAvailableResource moveFile(String path, File source) {
+        File destination = new File(getBaseDir(), path);
+        if (!destination.exists()) {
+            GFileUtils.parentMkdirs(destination);
+            File tempFile = null;
+            try {
+                // Moving across file systems copies the file, so do it under a name that readers never look for
+                tempFile = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX, destination.getParentFile());
+                Files.move(source.toPath(), tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                try {
+                    Files.move(tempFile.toPath(), destination.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    // Some file systems do not replace an existing file: the destination was added concurrently with the same content
+                    if (!destination.exists()) {
+                        throw e;
+                    }
+                }
+            } catch (IOException e) {
+                throw new FileStoreException(String.format("Failed to move file '%s' into filestore at '%s' ", source, path), e);
+            } finally {
+                if (tempFile != null) {
+                    FileUtils.deleteQuietly(tempFile);
+                }
+            }
+        }
+        FileUtils.deleteQuietly(source);
+        return entryAt(path);
+    }
+
     @Override
     protected void doAdd(File destination, Action<File> action) {
         if (!destination.exists()) {
@@ -52,6 +52,7 @@ import org.gradle.cache.FileLockManager;
 import org.gradle.cache.internal.CacheFactory;
 import org.gradle.cache.internal.CrossBuildInMemoryCacheFactory;
 import org.gradle.cache.internal.DefaultCacheFactory;
+import org.gradle.cache.internal.FileLockWaitStatisticsReporter;
 import org.gradle.cli.CommandLineConverter;
 import org.gradle.configuration.DefaultImportsReader;
 import org.gradle.configuration.ImportsReader;
@@ -205,7 +206,8 @@ public class GlobalScopeServices extends BasicGlobalScopeServices {
         return buildProgressLogger;
     }
 
-    protected CacheFactory createCacheFactory(FileLockManager fileLockManager, ExecutorFactory executorFactory) {
+    protected CacheFactory createCacheFactory(FileLockManager fileLockManager, ExecutorFactory executorFactory, ListenerManager listenerManager) {
+        listenerManager.addListener(new FileLockWaitStatisticsReporter(fileLockManager.getWaitStatistics()));
         return new DefaultCacheFactory(fileLockManager, executorFactory);
     }
 
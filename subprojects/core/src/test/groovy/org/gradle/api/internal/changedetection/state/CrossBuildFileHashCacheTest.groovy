@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.changedetection.state
+
+import org.gradle.cache.CacheBuilder
+import org.gradle.cache.CacheRepository
+import org.gradle.cache.PersistentCache
+import spock.lang.Specification
+
+class CrossBuildFileHashCacheTest extends Specification {
+    final CacheRepository cacheRepository = Mock()
+    final InMemoryCacheDecoratorFactory decoratorFactory = Stub()
+
+    def "opens the unsharded cache when there is a single shard"() {
+        when:
+        new CrossBuildFileHashCache(null, cacheRepository, decoratorFactory, 1)
+
+        then:
+        1 * cacheRepository.cache("fileHashes") >> cacheBuilder()
+        0 * cacheRepository._
+    }
+
+    def "opens the first shard in the unsharded location and every other shard in a cache directory of its own"() {
+        when:
+        new CrossBuildFileHashCache(null, cacheRepository, decoratorFactory, 3)
+
+        then:
+        1 * cacheRepository.cache("fileHashes") >> cacheBuilder()
+        1 * cacheRepository.cache("fileHashes-shard-1") >> cacheBuilder()
+        1 * cacheRepository.cache("fileHashes-shard-2") >> cacheBuilder()
+        0 * cacheRepository._
+    }
+
+    def "opens shards of a cache in a given directory next to that directory"() {
+        def cacheDir = new File("project/.gradle/fileHashes")
+
+        when:
+        new CrossBuildFileHashCache(cacheDir, cacheRepository, decoratorFactory, 2)
+
+        then:
+        1 * cacheRepository.cache(cacheDir) >> cacheBuilder()
+        1 * cacheRepository.cache(new File("project/.gradle/fileHashes-shard-1")) >> cacheBuilder()
+        0 * cacheRepository._
+    }
+
+    def "spreads the paths of a directory over all shards"() {
+        def paths = (0..<100).collect { "/project/src/main/java/org/gradle/File${it}.java" }
+
+        expect:
+        paths.collect { CrossBuildFileHashCache.shardIndex(it, 8) } as Set == (0..<8) as Set
+        paths.every { CrossBuildFileHashCache.shardIndex(it, 8) == CrossBuildFileHashCache.shardIndex(new String(it), 8) }
+    }
+
+    private CacheBuilder cacheBuilder() {
+        CacheBuilder builder = Mock()
+        _ * builder.withDisplayName(_) >> builder
+        _ * builder.withLockOptions(_) >> builder
+        _ * builder.open() >> Stub(PersistentCache)
+        return builder
+    }
+}
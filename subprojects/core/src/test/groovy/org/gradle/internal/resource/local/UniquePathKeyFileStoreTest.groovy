@@ -84,4 +84,31 @@ class UniquePathKeyFileStoreTest extends Specification {
         fileInStore.file == file
         !source.exists()
     }
+
+    def "move leaves no temporary file next to the added file"() {
+        setup:
+        def source = temporaryFolder.createFile("some-file")
+        source.text = 'content'
+
+        when:
+        def fileInStore = uniquePathKeyFileStore.move("a/a", source)
+
+        then:
+        fileInStore.file.text == 'content'
+        fileInStore.file.parentFile.list() as List == ['a']
+    }
+
+    def "move adds directory if it does not exist"() {
+        setup:
+        def source = temporaryFolder.createDir("some-dir")
+        source.file("child").text = 'content'
+
+        when:
+        def fileInStore = uniquePathKeyFileStore.move("a/a", source)
+
+        then:
+        fileInStore.file.directory
+        new File(fileInStore.file, "child").text == 'content'
+        !source.exists()
+    }
 }
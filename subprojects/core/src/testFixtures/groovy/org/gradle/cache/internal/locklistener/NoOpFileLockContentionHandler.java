@@ -22,6 +22,8 @@ public class NoOpFileLockContentionHandler implements FileLockContentionHandler
 
     public void stop(long lockId) {}
 
+    public void released(long lockId) {}
+
     public int reservePort() {
         return -1;
     }
@@ -29,4 +31,9 @@ public class NoOpFileLockContentionHandler implements FileLockContentionHandler
     public boolean maybePingOwner(int port, long lockId, String displayName, long timeElapsed) {
         return false;
     }
+
+    public boolean awaitRelease(long lockId, long timeoutMs) throws InterruptedException {
+        Thread.sleep(timeoutMs);
+        return false;
+    }
 }
@@ -56,3 +56,9 @@ testFilesCleanup {
 val classpathManifest by tasks.getting(ClasspathManifest::class) {
     additionalProjects = listOf(project(":runtimeApiInfo"))
 }
+
+jmh {
+    withGroovyBuilder {
+        setProperty("include", listOf("PomParserBenchmark", "ModuleMetadataSerializerBenchmark", "ModuleExclusionsBenchmark", "DependencyGraphBuilderBenchmark", "VersionedComponentChooserBenchmark", "ResolutionResultBuilderBenchmark"))
+    }
+}
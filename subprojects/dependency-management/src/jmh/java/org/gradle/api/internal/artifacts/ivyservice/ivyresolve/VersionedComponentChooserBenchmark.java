@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve;
+
+import org.gradle.api.artifacts.ComponentMetadataSupplier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.internal.FeaturePreviews;
+import org.gradle.api.internal.artifacts.DefaultImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionSelectorScheme;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.Version;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionParser;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelector;
+import org.gradle.api.internal.artifacts.ivyservice.resolutionstrategy.DefaultComponentSelectionRules;
+import org.gradle.api.internal.artifacts.repositories.metadata.MavenMutableModuleMetadataFactory;
+import org.gradle.api.internal.attributes.DefaultImmutableAttributesFactory;
+import org.gradle.api.internal.changedetection.state.ValueSnapshotter;
+import org.gradle.api.internal.model.NamedObjectInstantiator;
+import org.gradle.internal.classloader.ClassLoaderHierarchyHasher;
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.resolve.ModuleVersionResolveException;
+import org.gradle.internal.resolve.result.BuildableModuleComponentMetaDataResolveResult;
+import org.gradle.internal.resolve.result.ComponentSelectionContext;
+import org.gradle.internal.resolve.result.DefaultBuildableModuleComponentMetaDataResolveResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures how long it takes {@link DefaultVersionedComponentChooser} to select a version of a module among its published versions, including the parsing
+ * of the listed versions that the {@link DynamicVersionResolver} does for each resolution.
+ *
+ * The versions are {@code 0.0.0} to {@code 9.9.9}: {@code latest.release} and {@code 9.+} select one of the first candidates, while the range selects a
+ * version that comes after most of the candidates.
+ */
+@Fork(2)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class VersionedComponentChooserBenchmark {
+    @Param({"100", "1000"})
+    int versions;
+
+    @Param({"latest.release", "9.+", "[2.0,3.0)"})
+    String selector;
+
+    private final ImmutableModuleIdentifierFactory moduleIdentifierFactory = new DefaultImmutableModuleIdentifierFactory();
+    private DefaultVersionedComponentChooser chooser;
+    private VersionSelector requested;
+    private String[] listedVersions;
+    private ModuleComponentIdentifier[] ids;
+    private BuildableModuleComponentMetaDataResolveResult[] metadata;
+
+    @Setup
+    public void setup() {
+        DefaultVersionComparator versionComparator = new DefaultVersionComparator();
+        chooser = new DefaultVersionedComponentChooser(versionComparator, new DefaultComponentSelectionRules(moduleIdentifierFactory));
+        requested = new DefaultVersionSelectorScheme(versionComparator).parseSelector(selector);
+
+        MavenMutableModuleMetadataFactory metadataFactory = new MavenMutableModuleMetadataFactory(moduleIdentifierFactory, new DefaultImmutableAttributesFactory(new ValueSnapshotter(new ClassLoaderHierarchyHasher() {
+            @Override
+            public HashCode getClassLoaderHash(ClassLoader classLoader) {
+                return HashCode.fromInt(classLoader.hashCode());
+            }
+        }, NamedObjectInstantiator.INSTANCE), NamedObjectInstantiator.INSTANCE), NamedObjectInstantiator.INSTANCE, new FeaturePreviews());
+        listedVersions = new String[versions];
+        ids = new ModuleComponentIdentifier[versions];
+        metadata = new BuildableModuleComponentMetaDataResolveResult[versions];
+        int step = 1000 / versions;
+        for (int i = 0; i < versions; i++) {
+            int version = i * step;
+            listedVersions[i] = (version / 100) + "." + (version / 10 % 10) + "." + (version % 10);
+            ids[i] = DefaultModuleComponentIdentifier.newId("org.test", "module", listedVersions[i]);
+            metadata[i] = new DefaultBuildableModuleComponentMetaDataResolveResult();
+            metadata[i].resolved(metadataFactory.create(ids[i]).asImmutable());
+        }
+    }
+
+    @Benchmark
+    public ModuleComponentIdentifier selectNewestMatchingComponent() {
+        List<Candidate> candidates = new ArrayList<Candidate>(versions);
+        for (int i = 0; i < versions; i++) {
+            candidates.add(new Candidate(ids[i], VersionParser.INSTANCE.transform(listedVersions[i]), metadata[i]));
+        }
+        Selection selection = new Selection();
+        chooser.selectNewestMatchingComponent(candidates, selection, requested, null);
+        return selection.matched;
+    }
+
+    private static class Candidate implements ModuleComponentResolveState {
+        private final ModuleComponentIdentifier id;
+        private final Version version;
+        private final BuildableModuleComponentMetaDataResolveResult metadata;
+
+        Candidate(ModuleComponentIdentifier id, Version version, BuildableModuleComponentMetaDataResolveResult metadata) {
+            this.id = id;
+            this.version = version;
+            this.metadata = metadata;
+        }
+
+        @Override
+        public ModuleComponentIdentifier getId() {
+            return id;
+        }
+
+        @Override
+        public Version getVersion() {
+            return version;
+        }
+
+        @Override
+        public BuildableModuleComponentMetaDataResolveResult resolve() {
+            return metadata;
+        }
+
+        @Override
+        public ComponentMetadataSupplier getComponentMetadataSupplier() {
+            return null;
+        }
+    }
+
+    private static class Selection implements ComponentSelectionContext {
+        private ModuleComponentIdentifier matched;
+
+        @Override
+        public void matches(ModuleComponentIdentifier moduleComponentIdentifier) {
+            matched = moduleComponentIdentifier;
+        }
+
+        @Override
+        public void failed(ModuleVersionResolveException failure) {
+            throw failure;
+        }
+
+        @Override
+        public void noMatchFound() {
+        }
+
+        @Override
+        public void notMatched(ModuleComponentIdentifier id) {
+        }
+
+        @Override
+        public void rejectedByRule(ModuleComponentIdentifier id) {
+        }
+
+        @Override
+        public void rejectedByConstraint(ModuleComponentIdentifier id) {
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import org.apache.commons.io.IOUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.w3c.dom.Document;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * Compares reading the POMs of the corpus in {@code src/jmh/resources} into a DOM, as {@link PomReader} used to do, with {@link StreamingPomParser}.
+ *
+ * Run with the {@code gc} profiler to compare the bytes allocated per POM.
+ */
+@Fork(2)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class PomParserBenchmark {
+    private static final String SYSTEM_ID = "file:/benchmark/pom.xml";
+
+    @Param({"junit-4.12.pom", "ant-parent-1.10.13.pom", "ant-1.10.13.pom", "ant-junit-1.10.13.pom"})
+    String pom;
+
+    private byte[] content;
+    private byte[] m2Entities;
+    private DocumentBuilderFactory documentBuilderFactory;
+
+    @Setup
+    public void setup() throws Exception {
+        content = readResource(PomParserBenchmark.class, "poms/" + pom);
+        m2Entities = readResource(org.apache.ivy.plugins.parser.m2.PomReader.class, "m2-entities.ent");
+        documentBuilderFactory = DocumentBuilderFactory.newInstance();
+        documentBuilderFactory.setValidating(false);
+    }
+
+    @Benchmark
+    public Document dom() throws Exception {
+        DocumentBuilder documentBuilder = documentBuilderFactory.newDocumentBuilder();
+        documentBuilder.setEntityResolver(new EntityResolver() {
+            public InputSource resolveEntity(String publicId, String systemId) {
+                if ((systemId != null) && systemId.endsWith("m2-entities.ent")) {
+                    return new InputSource(new ByteArrayInputStream(m2Entities));
+                }
+                return null;
+            }
+        });
+        return documentBuilder.parse(new PomDomParser.AddDTDFilterInputStream(new ByteArrayInputStream(content)), SYSTEM_ID);
+    }
+
+    @Benchmark
+    public PomElement streaming() throws Exception {
+        return StreamingPomParser.parse(new ByteArrayInputStream(content), SYSTEM_ID);
+    }
+
+    private static byte[] readResource(Class<?> type, String name) throws Exception {
+        InputStream inputStream = type.getResourceAsStream(name);
+        try {
+            return IOUtils.toByteArray(inputStream);
+        } finally {
+            inputStream.close();
+        }
+    }
+}
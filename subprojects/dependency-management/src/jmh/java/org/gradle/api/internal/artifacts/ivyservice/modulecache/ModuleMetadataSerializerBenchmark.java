@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.modulecache;
+
+import org.gradle.api.internal.FeaturePreviews;
+import org.gradle.api.internal.artifacts.DefaultImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.dependencies.DefaultImmutableVersionConstraint;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.AttributeContainerSerializer;
+import org.gradle.api.internal.artifacts.repositories.metadata.IvyMutableModuleMetadataFactory;
+import org.gradle.api.internal.artifacts.repositories.metadata.MavenMutableModuleMetadataFactory;
+import org.gradle.api.internal.attributes.DefaultImmutableAttributesFactory;
+import org.gradle.api.internal.attributes.ImmutableAttributes;
+import org.gradle.api.internal.attributes.ImmutableAttributesFactory;
+import org.gradle.api.internal.changedetection.state.ValueSnapshotter;
+import org.gradle.api.internal.model.NamedObjectInstantiator;
+import org.gradle.internal.classloader.ClassLoaderHierarchyHasher;
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
+import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata;
+import org.gradle.internal.component.external.model.MutableComponentVariant;
+import org.gradle.internal.component.external.model.MutableMavenModuleResolveMetadata;
+import org.gradle.internal.component.external.model.MutableModuleComponentResolveMetadata;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
+import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Collections;
+
+/**
+ * Measures how long it takes to decode the cached metadata of a platform, that is a module with a large number of dependency constraints.
+ */
+@Fork(2)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class ModuleMetadataSerializerBenchmark {
+    private static final int GROUPS = 40;
+
+    @Param({"1000", "5000"})
+    int constraints;
+
+    private final ImmutableModuleIdentifierFactory moduleIdentifierFactory = new DefaultImmutableModuleIdentifierFactory();
+    private ModuleMetadataSerializer serializer;
+    private ModuleComponentResolveMetadata metadata;
+    private byte[] serializedMetadata;
+
+    @Setup
+    public void setup() throws Exception {
+        ImmutableAttributesFactory attributesFactory = new DefaultImmutableAttributesFactory(new ValueSnapshotter(new ClassLoaderHierarchyHasher() {
+            @Override
+            public HashCode getClassLoaderHash(ClassLoader classLoader) {
+                return HashCode.fromInt(classLoader.hashCode());
+            }
+        }, NamedObjectInstantiator.INSTANCE), NamedObjectInstantiator.INSTANCE);
+        MavenMutableModuleMetadataFactory mavenMetadataFactory = new MavenMutableModuleMetadataFactory(moduleIdentifierFactory, attributesFactory, NamedObjectInstantiator.INSTANCE, new FeaturePreviews());
+        IvyMutableModuleMetadataFactory ivyMetadataFactory = new IvyMutableModuleMetadataFactory(moduleIdentifierFactory, attributesFactory);
+        serializer = new ModuleMetadataSerializer(new AttributeContainerSerializer(attributesFactory, NamedObjectInstantiator.INSTANCE), mavenMetadataFactory, ivyMetadataFactory);
+
+        MutableMavenModuleResolveMetadata platform = mavenMetadataFactory.create(DefaultModuleComponentIdentifier.newId("org.test", "platform", "1.0"));
+        for (String variantName : new String[]{"api", "runtime"}) {
+            MutableComponentVariant variant = platform.addVariant(variantName, ImmutableAttributes.EMPTY);
+            for (int i = 0; i < constraints; i++) {
+                variant.addDependencyConstraint("org.test.group" + (i % GROUPS), "module-" + i, new DefaultImmutableVersionConstraint("1." + (i % 10), Collections.<String>emptyList()), null);
+            }
+        }
+        metadata = platform.asImmutable();
+        serializedMetadata = write();
+    }
+
+    @Benchmark
+    public MutableModuleComponentResolveMetadata read() throws Exception {
+        KryoBackedDecoder decoder = new KryoBackedDecoder(new ByteArrayInputStream(serializedMetadata));
+        try {
+            return serializer.read(decoder, moduleIdentifierFactory);
+        } finally {
+            decoder.close();
+        }
+    }
+
+    @Benchmark
+    public byte[] write() throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        KryoBackedEncoder encoder = new KryoBackedEncoder(outputStream);
+        try {
+            serializer.write(encoder, metadata);
+        } finally {
+            encoder.close();
+        }
+        return outputStream.toByteArray();
+    }
+}
@@ -0,0 +1,502 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine;
+
+import org.gradle.api.Action;
+import org.gradle.api.artifacts.ComponentMetadataSupplier;
+import org.gradle.api.artifacts.DependencySubstitution;
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.component.ComponentArtifactIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentSelector;
+import org.gradle.api.internal.AsmBackedClassGenerator;
+import org.gradle.api.internal.DefaultInstantiatorFactory;
+import org.gradle.api.internal.FeaturePreviews;
+import org.gradle.api.internal.artifacts.DefaultComponentSelectorConverter;
+import org.gradle.api.internal.artifacts.DefaultImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.ResolveContext;
+import org.gradle.api.internal.artifacts.configurations.ResolutionStrategyInternal;
+import org.gradle.api.internal.artifacts.dsl.ModuleReplacementsData;
+import org.gradle.api.internal.artifacts.ivyservice.dependencysubstitution.CachingDependencySubstitutionApplicator;
+import org.gradle.api.internal.artifacts.ivyservice.dependencysubstitution.DefaultDependencySubstitutionApplicator;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ModuleComponentRepository;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.ModuleComponentRepositoryAccess;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.RepositoryGroupRouting;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.UserResolverChain;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionSelectorScheme;
+import org.gradle.api.internal.artifacts.ivyservice.resolutionstrategy.DefaultComponentSelectionRules;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.ResolvableArtifact;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.ModuleExclusions;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphEdge;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphNode;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphSelector;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphVisitor;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.RootGraphNode;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder.DependencyGraphBuilder;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.conflicts.DefaultCapabilitiesConflictHandler;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.conflicts.DefaultConflictHandler;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.conflicts.LastCandidateCapabilityResolver;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.conflicts.UpgradeCapabilityResolver;
+import org.gradle.api.internal.artifacts.repositories.metadata.MavenMutableModuleMetadataFactory;
+import org.gradle.api.internal.artifacts.repositories.resolver.MetadataFetchingCost;
+import org.gradle.api.internal.attributes.DefaultAttributesSchema;
+import org.gradle.api.internal.attributes.DefaultImmutableAttributesFactory;
+import org.gradle.api.internal.attributes.ImmutableAttributes;
+import org.gradle.api.internal.attributes.ImmutableAttributesFactory;
+import org.gradle.api.internal.changedetection.state.ValueSnapshotter;
+import org.gradle.api.internal.component.ArtifactType;
+import org.gradle.api.internal.model.NamedObjectInstantiator;
+import org.gradle.api.specs.Specs;
+import org.gradle.cache.internal.CrossBuildInMemoryCacheFactory;
+import org.gradle.internal.Actions;
+import org.gradle.internal.classloader.ClassLoaderHierarchyHasher;
+import org.gradle.internal.component.external.descriptor.DefaultExclude;
+import org.gradle.internal.component.external.descriptor.MavenScope;
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
+import org.gradle.internal.component.external.model.DefaultModuleComponentSelector;
+import org.gradle.internal.component.external.model.ImmutableCapabilities;
+import org.gradle.internal.component.external.model.MavenDependencyDescriptor;
+import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata;
+import org.gradle.internal.component.external.model.ModuleDependencyMetadata;
+import org.gradle.internal.component.local.model.BuildableLocalConfigurationMetadata;
+import org.gradle.internal.component.local.model.RootLocalComponentMetadata;
+import org.gradle.internal.component.model.ComponentArtifactMetadata;
+import org.gradle.internal.component.model.ComponentAttributeMatcher;
+import org.gradle.internal.component.model.ComponentOverrideMetadata;
+import org.gradle.internal.component.model.ComponentResolveMetadata;
+import org.gradle.internal.component.model.ExcludeMetadata;
+import org.gradle.internal.component.model.IvyArtifactName;
+import org.gradle.internal.component.model.LocalComponentDependencyMetadata;
+import org.gradle.internal.component.model.ModuleSource;
+import org.gradle.internal.event.DefaultListenerManager;
+import org.gradle.internal.hash.HashCode;
+import org.gradle.internal.locking.NoOpDependencyLockingProvider;
+import org.gradle.internal.operations.BuildOperation;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.BuildOperationRef;
+import org.gradle.internal.operations.BuildOperationWorker;
+import org.gradle.internal.operations.CallableBuildOperation;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resolve.resolver.ResolveContextToComponentResolver;
+import org.gradle.internal.resolve.result.BuildableArtifactResolveResult;
+import org.gradle.internal.resolve.result.BuildableArtifactSetResolveResult;
+import org.gradle.internal.resolve.result.BuildableComponentArtifactsResolveResult;
+import org.gradle.internal.resolve.result.BuildableComponentResolveResult;
+import org.gradle.internal.resolve.result.BuildableModuleComponentMetaDataResolveResult;
+import org.gradle.internal.resolve.result.BuildableModuleVersionListingResolveResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Measures how long it takes {@link DependencyGraphBuilder} to resolve a synthetic graph of 2,000 Maven modules, served from an in-memory repository
+ * through the same resolver chain, conflict handlers and exclusions as a build uses. Scores are per resolved module, so that they can be compared
+ * across graph shapes:
+ *
+ * <ul>
+ *     <li>{@code chain}: each module depends on the next one.</li>
+ *     <li>{@code fanOut}: the root depends on every module.</li>
+ *     <li>{@code conflicts}: each module depends on a few of 100 libraries, in one of 5 versions of each library.</li>
+ *     <li>{@code excludes}: 50 modules depend on overlapping ranges of the other modules, and every dependency declares excludes.</li>
+ *     <li>{@code dynamic}: the root depends on every module with a dynamic version, each module having 5 versions.</li>
+ * </ul>
+ *
+ * Run with the {@code gc} profiler to compare the bytes allocated per resolved module.
+ */
+@Fork(2)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class DependencyGraphBuilderBenchmark {
+    private static final int MODULES = 2000;
+    private static final int GROUPS = 50;
+    private static final int VERSIONS = 5;
+    private static final int LIBRARIES = 100;
+    private static final int LIBRARIES_PER_MODULE = 5;
+    private static final int HUBS = 50;
+    private static final int EXCLUDES_PER_DEPENDENCY = 5;
+
+    @Param({"chain", "fanOut", "conflicts", "excludes", "dynamic"})
+    String shape;
+
+    private final ImmutableModuleIdentifierFactory moduleIdentifierFactory = new DefaultImmutableModuleIdentifierFactory();
+    private final InMemoryRepository repository = new InMemoryRepository();
+    private MavenMutableModuleMetadataFactory metadataFactory;
+    private RootLocalComponentMetadata root;
+    private BuildableLocalConfigurationMetadata rootConfiguration;
+    private ResolveContext resolveContext;
+    private DependencyGraphBuilder graphBuilder;
+
+    @Setup
+    public void setup() {
+        ImmutableAttributesFactory attributesFactory = new DefaultImmutableAttributesFactory(new ValueSnapshotter(new ClassLoaderHierarchyHasher() {
+            @Override
+            public HashCode getClassLoaderHash(ClassLoader classLoader) {
+                return HashCode.fromInt(classLoader.hashCode());
+            }
+        }, NamedObjectInstantiator.INSTANCE), NamedObjectInstantiator.INSTANCE);
+        DefaultAttributesSchema attributesSchema = new DefaultAttributesSchema(new ComponentAttributeMatcher(),
+            new DefaultInstantiatorFactory(new AsmBackedClassGenerator(), new CrossBuildInMemoryCacheFactory(new DefaultListenerManager())));
+        metadataFactory = new MavenMutableModuleMetadataFactory(moduleIdentifierFactory, attributesFactory, NamedObjectInstantiator.INSTANCE, new FeaturePreviews());
+
+        ModuleVersionIdentifier rootId = moduleIdentifierFactory.moduleWithVersion("org.test", "root", "1.0");
+        root = new RootLocalComponentMetadata(rootId, DefaultModuleComponentIdentifier.newId(rootId), "integration", attributesSchema, NoOpDependencyLockingProvider.getInstance());
+        rootConfiguration = root.addConfiguration("default", "default", Collections.<String>emptySet(), Collections.singleton("default"), true, true, ImmutableAttributes.EMPTY, true, true, ImmutableCapabilities.EMPTY);
+        resolveContext = new BenchmarkResolveContext(root);
+
+        if (shape.equals("chain")) {
+            chain();
+        } else if (shape.equals("fanOut")) {
+            fanOut();
+        } else if (shape.equals("conflicts")) {
+            conflicts();
+        } else if (shape.equals("excludes")) {
+            excludes();
+        } else if (shape.equals("dynamic")) {
+            dynamic();
+        } else {
+            throw new IllegalArgumentException("Unknown graph shape: " + shape);
+        }
+
+        DefaultVersionComparator versionComparator = new DefaultVersionComparator();
+        DefaultVersionSelectorScheme versionSelectorScheme = new DefaultVersionSelectorScheme(versionComparator);
+        UserResolverChain resolvers = new UserResolverChain(versionSelectorScheme, versionComparator,
+            new DefaultComponentSelectionRules(moduleIdentifierFactory), moduleIdentifierFactory, RepositoryGroupRouting.DISABLED);
+        resolvers.add(repository);
+        DefaultCapabilitiesConflictHandler capabilitiesConflictHandler = new DefaultCapabilitiesConflictHandler();
+        capabilitiesConflictHandler.registerResolver(new UpgradeCapabilityResolver());
+        capabilitiesConflictHandler.registerResolver(new LastCandidateCapabilityResolver());
+        graphBuilder = new DependencyGraphBuilder(resolvers.getComponentIdResolver(), resolvers.getComponentResolver(), new RootComponentResolver(),
+            new DefaultConflictHandler(new VersionSelectionReasonResolver(new LatestModuleConflictResolver(versionComparator)), ModuleReplacementsData.NO_OP),
+            capabilitiesConflictHandler, Specs.satisfyAll(), attributesSchema, new ModuleExclusions(moduleIdentifierFactory), new UnusedBuildOperationExecutor(),
+            ModuleReplacementsData.NO_OP, new CachingDependencySubstitutionApplicator(new DefaultDependencySubstitutionApplicator(Actions.<DependencySubstitution>doNothing())),
+            new DefaultComponentSelectorConverter(moduleIdentifierFactory, null, null), attributesFactory, moduleIdentifierFactory,
+            versionSelectorScheme, false);
+
+        // A graph that does not resolve completely would make the scores meaningless
+        int resolved = resolve();
+        if (resolved != MODULES + 1) {
+            throw new IllegalStateException("Expected " + (MODULES + 1) + " modules in the " + shape + " graph but resolved " + resolved + ".");
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MODULES)
+    public int resolve() {
+        ResolvedModulesVisitor visitor = new ResolvedModulesVisitor();
+        graphBuilder.resolve(resolveContext, visitor);
+        return visitor.modules.size();
+    }
+
+    private void chain() {
+        rootDependsOn(0, "1.0", Collections.<ExcludeMetadata>emptyList());
+        for (int i = 0; i < MODULES; i++) {
+            List<MavenDependencyDescriptor> dependencies = new ArrayList<MavenDependencyDescriptor>();
+            if (i + 1 < MODULES) {
+                dependencies.add(dependency(i + 1, "1.0", Collections.<ExcludeMetadata>emptyList()));
+            }
+            publish(i, "1.0", dependencies);
+        }
+    }
+
+    private void fanOut() {
+        for (int i = 0; i < MODULES; i++) {
+            rootDependsOn(i, "1.0", Collections.<ExcludeMetadata>emptyList());
+            publish(i, "1.0", Collections.<MavenDependencyDescriptor>emptyList());
+        }
+    }
+
+    private void conflicts() {
+        int consumers = MODULES - LIBRARIES;
+        for (int i = 0; i < consumers; i++) {
+            rootDependsOn(i, "1.0", Collections.<ExcludeMetadata>emptyList());
+            List<MavenDependencyDescriptor> dependencies = new ArrayList<MavenDependencyDescriptor>();
+            for (int j = 0; j < LIBRARIES_PER_MODULE; j++) {
+                int library = consumers + (i * LIBRARIES_PER_MODULE + j) % LIBRARIES;
+                dependencies.add(dependency(library, version((i + j) % VERSIONS), Collections.<ExcludeMetadata>emptyList()));
+            }
+            publish(i, "1.0", dependencies);
+        }
+        for (int i = consumers; i < MODULES; i++) {
+            for (int version = 0; version < VERSIONS; version++) {
+                publish(i, version(version), Collections.<MavenDependencyDescriptor>emptyList());
+            }
+        }
+    }
+
+    private void excludes() {
+        int leaves = MODULES - HUBS;
+        int leavesPerHub = 2 * leaves / HUBS;
+        for (int hub = 0; hub < HUBS; hub++) {
+            rootDependsOn(hub, "1.0", excludes(hub));
+            List<MavenDependencyDescriptor> dependencies = new ArrayList<MavenDependencyDescriptor>();
+            for (int j = 0; j < leavesPerHub; j++) {
+                int leaf = HUBS + (hub * leaves / HUBS + j) % leaves;
+                dependencies.add(dependency(leaf, "1.0", excludes(leaf)));
+            }
+            publish(hub, "1.0", dependencies);
+        }
+        for (int i = HUBS; i < MODULES; i++) {
+            publish(i, "1.0", Collections.<MavenDependencyDescriptor>emptyList());
+        }
+    }
+
+    private void dynamic() {
+        for (int i = 0; i < MODULES; i++) {
+            rootDependsOn(i, "1.+", Collections.<ExcludeMetadata>emptyList());
+            for (int version = 0; version < VERSIONS; version++) {
+                publish(i, version(version), Collections.<MavenDependencyDescriptor>emptyList());
+            }
+        }
+    }
+
+    /**
+     * Excludes modules that are not part of the graph, so that the exclusions are evaluated for every edge without changing the result.
+     */
+    private List<ExcludeMetadata> excludes(int module) {
+        List<ExcludeMetadata> excludes = new ArrayList<ExcludeMetadata>(EXCLUDES_PER_DEPENDENCY);
+        for (int i = 0; i < EXCLUDES_PER_DEPENDENCY; i++) {
+            excludes.add(new DefaultExclude(moduleIdentifierFactory.module("org.test.excluded" + (module % GROUPS), "excluded-" + module + "-" + i)));
+        }
+        return excludes;
+    }
+
+    private void rootDependsOn(int module, String version, List<ExcludeMetadata> excludes) {
+        ModuleComponentSelector selector = DefaultModuleComponentSelector.newSelector(group(module), name(module), version);
+        rootConfiguration.addDependency(new LocalComponentDependencyMetadata(root.getId(), selector, "default", null, ImmutableAttributes.EMPTY, "default",
+            Collections.<IvyArtifactName>emptyList(), excludes, false, false, true, false, null));
+    }
+
+    private MavenDependencyDescriptor dependency(int module, String version, List<ExcludeMetadata> excludes) {
+        return new MavenDependencyDescriptor(MavenScope.Compile, false, DefaultModuleComponentSelector.newSelector(group(module), name(module), version), null, excludes);
+    }
+
+    private void publish(int module, String version, List<MavenDependencyDescriptor> dependencies) {
+        repository.publish(metadataFactory.create(DefaultModuleComponentIdentifier.newId(group(module), name(module), version), dependencies).asImmutable());
+    }
+
+    private static String group(int module) {
+        return "org.test.group" + (module % GROUPS);
+    }
+
+    private static String name(int module) {
+        return "module-" + module;
+    }
+
+    private static String version(int version) {
+        return "1." + version;
+    }
+
+    private static class ResolvedModulesVisitor implements DependencyGraphVisitor {
+        private final Set<ModuleVersionIdentifier> modules = new HashSet<ModuleVersionIdentifier>();
+
+        @Override
+        public void start(RootGraphNode root) {
+        }
+
+        @Override
+        public void visitNode(DependencyGraphNode node) {
+            modules.add(node.getOwner().getModuleVersion());
+        }
+
+        @Override
+        public void visitSelector(DependencyGraphSelector selector) {
+        }
+
+        @Override
+        public void visitEdges(DependencyGraphNode node) {
+            for (DependencyGraphEdge edge : node.getOutgoingEdges()) {
+                if (edge.getFailure() != null) {
+                    throw edge.getFailure();
+                }
+            }
+        }
+
+        @Override
+        public void finish(DependencyGraphNode root) {
+        }
+    }
+
+    private static class BenchmarkResolveContext implements ResolveContext {
+        private final ComponentResolveMetadata root;
+
+        BenchmarkResolveContext(ComponentResolveMetadata root) {
+            this.root = root;
+        }
+
+        @Override
+        public String getName() {
+            return "benchmark";
+        }
+
+        @Override
+        public String getDisplayName() {
+            return "benchmark";
+        }
+
+        @Override
+        public ResolutionStrategyInternal getResolutionStrategy() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ComponentResolveMetadata toRootComponentMetaData() {
+            return root;
+        }
+    }
+
+    private static class RootComponentResolver implements ResolveContextToComponentResolver {
+        @Override
+        public void resolve(ResolveContext resolveContext, BuildableComponentResolveResult result) {
+            result.resolved(resolveContext.toRootComponentMetaData());
+        }
+    }
+
+    /**
+     * Serves the published modules, as a repository whose metadata is cached locally would.
+     */
+    private static class InMemoryRepository implements ModuleComponentRepository, ModuleComponentRepositoryAccess {
+        private final Map<ModuleComponentIdentifier, ModuleComponentResolveMetadata> components = new HashMap<ModuleComponentIdentifier, ModuleComponentResolveMetadata>();
+        private final Map<String, List<String>> versions = new HashMap<String, List<String>>();
+
+        void publish(ModuleComponentResolveMetadata metadata) {
+            ModuleComponentIdentifier id = metadata.getId();
+            components.put(id, metadata);
+            String module = id.getGroup() + ":" + id.getModule();
+            List<String> moduleVersions = versions.get(module);
+            if (moduleVersions == null) {
+                moduleVersions = new ArrayList<String>();
+                versions.put(module, moduleVersions);
+            }
+            moduleVersions.add(id.getVersion());
+        }
+
+        @Override
+        public String getId() {
+            return "in-memory";
+        }
+
+        @Override
+        public String getName() {
+            return "in-memory";
+        }
+
+        @Override
+        public ModuleComponentRepositoryAccess getLocalAccess() {
+            return this;
+        }
+
+        @Override
+        public ModuleComponentRepositoryAccess getRemoteAccess() {
+            return this;
+        }
+
+        @Override
+        public ComponentMetadataSupplier createMetadataSupplier() {
+            return null;
+        }
+
+        @Override
+        public Map<ComponentArtifactIdentifier, ResolvableArtifact> getArtifactCache() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void listModuleVersions(ModuleDependencyMetadata dependency, BuildableModuleVersionListingResolveResult result) {
+            ModuleComponentSelector selector = dependency.getSelector();
+            List<String> moduleVersions = versions.get(selector.getGroup() + ":" + selector.getModule());
+            result.listed(moduleVersions == null ? Collections.<String>emptyList() : moduleVersions);
+        }
+
+        @Override
+        public void resolveComponentMetaData(ModuleComponentIdentifier moduleComponentIdentifier, ComponentOverrideMetadata requestMetaData, BuildableModuleComponentMetaDataResolveResult result) {
+            ModuleComponentResolveMetadata metadata = components.get(moduleComponentIdentifier);
+            if (metadata == null) {
+                result.missing();
+            } else {
+                result.resolved(metadata);
+            }
+        }
+
+        @Override
+        public void resolveArtifacts(ComponentResolveMetadata component, BuildableComponentArtifactsResolveResult result) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void resolveArtifactsWithType(ComponentResolveMetadata component, ArtifactType artifactType, BuildableArtifactSetResolveResult result) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void resolveArtifact(ComponentArtifactMetadata artifact, ModuleSource moduleSource, BuildableArtifactResolveResult result) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MetadataFetchingCost estimateMetadataFetchingCost(ModuleComponentIdentifier moduleComponentIdentifier) {
+            return components.containsKey(moduleComponentIdentifier) ? MetadataFetchingCost.FAST : MetadataFetchingCost.CHEAP;
+        }
+    }
+
+    /**
+     * The metadata of all modules is fast to fetch, so the graph builder never downloads metadata in parallel.
+     */
+    private static class UnusedBuildOperationExecutor implements BuildOperationExecutor {
+        @Override
+        public void run(RunnableBuildOperation buildOperation) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <T> T call(CallableBuildOperation<T> buildOperation) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <O extends RunnableBuildOperation> void runAll(Action<BuildOperationQueue<O>> schedulingAction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public <O extends BuildOperation> void runAll(BuildOperationWorker<O> worker, Action<BuildOperationQueue<O>> schedulingAction) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BuildOperationRef getCurrentOperation() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes;
+
+import org.gradle.api.artifacts.ModuleIdentifier;
+import org.gradle.api.internal.artifacts.DefaultImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
+import org.gradle.internal.component.external.descriptor.DefaultExclude;
+import org.gradle.internal.component.model.ExcludeMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Evaluates and merges exclude sets similar to those found on Spring and Hadoop builds: many excludes of logging and servlet modules,
+ * a few excluded groups, and some excludes using an Ivy pattern matcher.
+ */
+@Fork(2)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class ModuleExclusionsBenchmark {
+    private static final String[][] EXCLUDED_MODULES = {
+        {"commons-logging", "commons-logging"}, {"log4j", "log4j"}, {"org.slf4j", "slf4j-log4j12"}, {"javax.servlet", "servlet-api"},
+        {"javax.servlet.jsp", "jsp-api"}, {"tomcat", "jasper-compiler"}, {"tomcat", "jasper-runtime"}, {"org.mortbay.jetty", "jetty"},
+        {"org.mortbay.jetty", "jetty-util"}, {"com.sun.jersey", "jersey-core"}, {"com.sun.jersey", "jersey-server"}, {"com.sun.jersey", "jersey-json"},
+        {"asm", "asm"}, {"org.ow2.asm", "asm"}, {"io.netty", "netty"}, {"jline", "jline"}, {"junit", "junit"}, {"org.codehaus.jackson", "jackson-mapper-asl"},
+        {"org.codehaus.jackson", "jackson-core-asl"}, {"stax", "stax-api"}, {"javax.xml.stream", "stax-api"}, {"xml-apis", "xml-apis"},
+        {"xerces", "xercesImpl"}, {"com.google.code.findbugs", "jsr305"}, {"org.apache.zookeeper", "zookeeper"}, {"commons-beanutils", "commons-beanutils-core"}
+    };
+    private static final String[] EXCLUDED_GROUPS = {"org.eclipse.jetty.orbit", "org.apache.hadoop.contrib", "org.jboss.netty"};
+    private static final String[][] PATTERN_EXCLUDES = {{"org\\.apache\\.hbase", ".*-tests"}, {"org\\.glassfish.*", ".*"}};
+    private static final int MODULES = 5000;
+    private static final int GROUPS = 50;
+
+    private final ImmutableModuleIdentifierFactory moduleIdentifierFactory = new DefaultImmutableModuleIdentifierFactory();
+    private ModuleExclusions moduleExclusions;
+    private ModuleExclusion springExcludes;
+    private ModuleExclusion hadoopModuleExcludes;
+    private ModuleExclusion hadoopExcludes;
+    private ModuleIdentifier[] modules;
+
+    @Setup
+    public void setup() {
+        moduleExclusions = new ModuleExclusions(moduleIdentifierFactory);
+        List<ExcludeMetadata> spring = new ArrayList<ExcludeMetadata>();
+        List<ExcludeMetadata> hadoop = new ArrayList<ExcludeMetadata>();
+        List<ExcludeMetadata> patterns = new ArrayList<ExcludeMetadata>();
+        for (int i = 0; i < EXCLUDED_MODULES.length; i++) {
+            ExcludeMetadata exclude = new DefaultExclude(moduleIdentifierFactory.module(EXCLUDED_MODULES[i][0], EXCLUDED_MODULES[i][1]));
+            // The 2 sets share most, but not all, of their excludes
+            if (i % 5 != 0) {
+                spring.add(exclude);
+            }
+            if (i % 7 != 0) {
+                hadoop.add(exclude);
+            }
+        }
+        for (String group : EXCLUDED_GROUPS) {
+            hadoop.add(new DefaultExclude(moduleIdentifierFactory.module(group, "*")));
+        }
+        for (String[] pattern : PATTERN_EXCLUDES) {
+            patterns.add(new DefaultExclude(moduleIdentifierFactory.module(pattern[0], pattern[1]), new String[0], "regexp"));
+        }
+        springExcludes = moduleExclusions.excludeAny(spring.toArray(new ExcludeMetadata[0]));
+        hadoopModuleExcludes = moduleExclusions.excludeAny(hadoop.toArray(new ExcludeMetadata[0]));
+        hadoopExcludes = moduleExclusions.intersect(hadoopModuleExcludes, moduleExclusions.excludeAny(patterns.toArray(new ExcludeMetadata[0])));
+
+        modules = new ModuleIdentifier[MODULES + EXCLUDED_MODULES.length];
+        for (int i = 0; i < MODULES; i++) {
+            modules[i] = moduleIdentifierFactory.module("org.test.group" + (i % GROUPS), "module-" + i);
+        }
+        for (int i = 0; i < EXCLUDED_MODULES.length; i++) {
+            modules[MODULES + i] = moduleIdentifierFactory.module(EXCLUDED_MODULES[i][0], EXCLUDED_MODULES[i][1]);
+        }
+    }
+
+    @Benchmark
+    public int excludeModule() {
+        int excluded = 0;
+        for (ModuleIdentifier module : modules) {
+            if (hadoopExcludes.excludeModule(module)) {
+                excluded++;
+            }
+        }
+        return excluded;
+    }
+
+    @Benchmark
+    public ModuleExclusion union() {
+        return moduleExclusions.union(springExcludes, hadoopModuleExcludes);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.result;
+
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolutionResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+import org.gradle.api.internal.artifacts.DefaultModuleVersionIdentifier;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.ComponentResult;
+import org.gradle.api.internal.attributes.ImmutableAttributes;
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
+import org.gradle.internal.component.external.model.DefaultModuleComponentSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Measures loading a resolution result with {@link DefaultResolutionResultBuilder} and {@link LazyResolutionResultBuilder}, and then using either the
+ * direct dependencies of the root or the dependencies and dependents of every component, as a dependency report does.
+ *
+ * Run with {@code -prof gc} to compare the memory allocated per result.
+ */
+@Fork(2)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@State(Scope.Benchmark)
+public class ResolutionResultBuilderBenchmark {
+    private static final int DEPENDENCIES_PER_COMPONENT = 5;
+
+    @Param({"eager", "lazy"})
+    String builder;
+
+    @Param({"root", "full"})
+    String traversal;
+
+    @Param({"5000"})
+    int components;
+
+    private List<ComponentResult> componentResults;
+    private List<List<DefaultDependencyResult>> dependencyResults;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        componentResults = new ArrayList<ComponentResult>(components);
+        dependencyResults = new ArrayList<List<DefaultDependencyResult>>(components);
+        for (long id = 0; id < components; id++) {
+            DefaultModuleComponentIdentifier componentId = new DefaultModuleComponentIdentifier("org.test", "module" + id, "1.0");
+            componentResults.add(new DetachedComponentResult(id, DefaultModuleVersionIdentifier.newId(componentId), VersionSelectionReasons.requested(), componentId, "default", ImmutableAttributes.EMPTY));
+            List<DefaultDependencyResult> dependencies = new ArrayList<DefaultDependencyResult>(DEPENDENCIES_PER_COMPONENT);
+            for (int i = 0; i < DEPENDENCIES_PER_COMPONENT && id < components - 1; i++) {
+                // The first dependency links each component to the next one, so that every component is reachable from the root
+                long selected = i == 0 ? id + 1 : id + 1 + random.nextInt((int) (components - id - 1));
+                dependencies.add(new DefaultDependencyResult(DefaultModuleComponentSelector.newSelector("org.test", "module" + selected, "1.0"), selected, null, null));
+            }
+            dependencyResults.add(dependencies);
+        }
+    }
+
+    @Benchmark
+    public Object loadResult() {
+        ResolvedComponentResult root = load().getRoot();
+        if (traversal.equals("root")) {
+            return root.getDependencies();
+        }
+        return visitAll(root);
+    }
+
+    private ResolutionResult load() {
+        if (builder.equals("eager")) {
+            DefaultResolutionResultBuilder resultBuilder = new DefaultResolutionResultBuilder();
+            for (ComponentResult component : componentResults) {
+                resultBuilder.visitComponent(component);
+            }
+            for (int i = 0; i < components; i++) {
+                resultBuilder.visitOutgoingEdges((long) i, dependencyResults.get(i));
+            }
+            return resultBuilder.complete(0L);
+        }
+        LazyResolutionResultBuilder resultBuilder = new LazyResolutionResultBuilder();
+        for (ComponentResult component : componentResults) {
+            resultBuilder.visitComponent(component);
+        }
+        for (int i = 0; i < components; i++) {
+            resultBuilder.visitOutgoingEdges((long) i, dependencyResults.get(i));
+        }
+        return resultBuilder.complete(0L);
+    }
+
+    private static Set<ResolvedComponentResult> visitAll(ResolvedComponentResult root) {
+        Set<ResolvedComponentResult> seen = new HashSet<ResolvedComponentResult>();
+        List<ResolvedComponentResult> queue = new ArrayList<ResolvedComponentResult>(Collections.singleton(root));
+        while (!queue.isEmpty()) {
+            ResolvedComponentResult component = queue.remove(queue.size() - 1);
+            if (!seen.add(component)) {
+                continue;
+            }
+            for (ResolvedDependencyResult dependent : component.getDependents()) {
+                queue.add(dependent.getFrom());
+            }
+            for (DependencyResult dependency : component.getDependencies()) {
+                queue.add(((ResolvedDependencyResult) dependency).getSelected());
+            }
+        }
+        return seen;
+    }
+}
@@ -196,7 +196,8 @@ class DependencyManagementBuildScopeServices {
                 "module-artifact",
                 timeProvider,
                 cacheLockingManager
-            )
+            ),
+            artifactCacheMetadata.getReadOnlyFileStoreDirectory() == null ? null : new ArtifactIdentifierFileStore(artifactCacheMetadata.getReadOnlyFileStoreDirectory(), new TmpDirTemporaryFileProvider())
         );
         ModuleRepositoryCaches inMemoryCaches = new ModuleRepositoryCaches(
             new InMemoryModuleVersionsCache(timeProvider),
@@ -297,7 +298,9 @@ class DependencyManagementBuildScopeServices {
                                                                 ModuleExclusions moduleExclusions,
                                                                 BuildOperationExecutor buildOperationExecutor,
                                                                 ComponentSelectorConverter componentSelectorConverter,
-                                                                ImmutableAttributesFactory attributesFactory) {
+                                                                ImmutableAttributesFactory attributesFactory,
+                                                                VersionSelectorScheme versionSelectorScheme,
+                                                                ImmutableModuleIdentifierFactory moduleIdentifierFactory) {
         return new DefaultArtifactDependencyResolver(
             buildOperationExecutor,
             resolverFactories,
@@ -306,7 +309,9 @@ class DependencyManagementBuildScopeServices {
             versionComparator,
             moduleExclusions,
             componentSelectorConverter,
-            attributesFactory);
+            attributesFactory,
+            versionSelectorScheme,
+            moduleIdentifierFactory);
     }
 
     ProjectPublicationRegistry createProjectPublicationRegistry() {
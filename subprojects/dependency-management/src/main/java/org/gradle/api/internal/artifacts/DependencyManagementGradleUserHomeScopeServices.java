@@ -19,8 +19,11 @@ package org.gradle.api.internal.artifacts;
 import org.gradle.api.internal.artifacts.ivyservice.DefaultArtifactCacheMetadata;
 import org.gradle.cache.internal.CacheScopeMapping;
 
+import java.io.File;
+
 public class DependencyManagementGradleUserHomeScopeServices {
     DefaultArtifactCacheMetadata createArtifactCacheMetaData(CacheScopeMapping cacheScopeMapping) {
-        return new DefaultArtifactCacheMetadata(cacheScopeMapping);
+        String readOnlyCacheRoot = System.getenv(DefaultArtifactCacheMetadata.READ_ONLY_CACHE_ENV_VAR);
+        return new DefaultArtifactCacheMetadata(cacheScopeMapping, readOnlyCacheRoot == null ? null : new File(readOnlyCacheRoot));
     }
 }
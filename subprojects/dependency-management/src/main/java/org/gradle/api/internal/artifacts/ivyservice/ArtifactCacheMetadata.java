@@ -15,6 +15,7 @@
  */
 package org.gradle.api.internal.artifacts.ivyservice;
 
+import javax.annotation.Nullable;
 import java.io.File;
 
 public interface ArtifactCacheMetadata {
@@ -48,4 +49,25 @@ public interface ArtifactCacheMetadata {
      * Returns the root directory for the transforms cache.
      */
     File getTransformsStoreDirectory();
+
+    /**
+     * Returns the root directory of the read-only cache that is layered under this cache, if any.
+     * The read-only cache is never written to and is accessed without any locking.
+     *
+     * @return Read-only cache location, or null when no read-only cache is used
+     */
+    @Nullable
+    File getReadOnlyCacheDir();
+
+    /**
+     * Returns the root directory for the module artifacts file store of the read-only cache, if any.
+     */
+    @Nullable
+    File getReadOnlyFileStoreDirectory();
+
+    /**
+     * Returns the root directory for the meta-data file store of the read-only cache, if any.
+     */
+    @Nullable
+    File getReadOnlyMetaDataStoreDirectory();
 }
@@ -19,20 +19,48 @@ import org.gradle.cache.internal.CacheScopeMapping;
 import org.gradle.cache.internal.VersionStrategy;
 import org.gradle.internal.classpath.CachedJarFileStore;
 import org.gradle.util.VersionNumber;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.Arrays;
 import java.util.List;
 
 public class DefaultArtifactCacheMetadata implements ArtifactCacheMetadata, CachedJarFileStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultArtifactCacheMetadata.class);
+
+    /**
+     * Environment variable pointing to a directory that contains a pre-populated, read-only {@code modules-2} cache.
+     */
+    public static final String READ_ONLY_CACHE_ENV_VAR = "GRADLE_RO_DEP_CACHE";
 
     public static final VersionNumber CACHE_LAYOUT_VERSION = CacheLayout.META_DATA.getVersion();
     private final File cacheDir;
     private final File transformsDir;
+    private final File readOnlyCacheDir;
 
     public DefaultArtifactCacheMetadata(CacheScopeMapping cacheScopeMapping) {
+        this(cacheScopeMapping, null);
+    }
+
+    public DefaultArtifactCacheMetadata(CacheScopeMapping cacheScopeMapping, @Nullable File readOnlyCacheRoot) {
         cacheDir = cacheScopeMapping.getBaseDirectory(null, CacheLayout.ROOT.getKey(), VersionStrategy.SharedCache);
         transformsDir = cacheScopeMapping.getBaseDirectory(null, CacheLayout.TRANSFORMS.getKey(), VersionStrategy.SharedCache);
+        readOnlyCacheDir = determineReadOnlyCacheDir(readOnlyCacheRoot);
+    }
+
+    @Nullable
+    private static File determineReadOnlyCacheDir(@Nullable File readOnlyCacheRoot) {
+        if (readOnlyCacheRoot == null) {
+            return null;
+        }
+        File readOnlyCacheDir = CacheLayout.ROOT.getPath(readOnlyCacheRoot);
+        if (!readOnlyCacheDir.isDirectory()) {
+            LOGGER.warn("The read-only dependency cache is disabled because {} does not contain a '{}' directory.", readOnlyCacheRoot, CacheLayout.ROOT.getKey());
+            return null;
+        }
+        return readOnlyCacheDir;
     }
 
     @Override
@@ -65,6 +93,24 @@ public class DefaultArtifactCacheMetadata implements ArtifactCacheMetadata, Cach
         return new File(createCacheRelativeDir(CacheLayout.META_DATA), "descriptors");
     }
 
+    @Nullable
+    @Override
+    public File getReadOnlyCacheDir() {
+        return readOnlyCacheDir;
+    }
+
+    @Nullable
+    @Override
+    public File getReadOnlyFileStoreDirectory() {
+        return readOnlyCacheDir == null ? null : CacheLayout.FILE_STORE.getPath(readOnlyCacheDir);
+    }
+
+    @Nullable
+    @Override
+    public File getReadOnlyMetaDataStoreDirectory() {
+        return readOnlyCacheDir == null ? null : new File(CacheLayout.META_DATA.getPath(readOnlyCacheDir), "descriptors");
+    }
+
     private File createCacheRelativeDir(CacheLayout cacheLayout) {
         return cacheLayout.getPath(getCacheDir());
     }
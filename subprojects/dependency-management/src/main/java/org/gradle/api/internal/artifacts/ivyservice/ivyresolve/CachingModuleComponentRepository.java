@@ -27,6 +27,7 @@ import org.gradle.api.internal.artifacts.ComponentMetadataProcessor;
 import org.gradle.api.internal.artifacts.DefaultModuleVersionIdentifier;
 import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
 import org.gradle.api.internal.artifacts.configurations.dynamicversion.CachePolicy;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.ModuleComponentAtRepositoryKey;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.ModuleMetadataCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.ModuleRepositoryCaches;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ArtifactAtRepositoryKey;
@@ -34,11 +35,15 @@ import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.Cached
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.CachedArtifacts;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ModuleArtifactCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ModuleArtifactsCache;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.ModuleAtRepositoryKey;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.ModuleVersionsCache;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.ResolvableArtifact;
 import org.gradle.api.internal.artifacts.repositories.resolver.MetadataFetchingCost;
 import org.gradle.api.internal.component.ArtifactType;
+import org.gradle.cache.internal.ProducerGuard;
+import org.gradle.internal.Factory;
 import org.gradle.internal.component.external.model.FixedComponentArtifacts;
+import org.gradle.internal.component.external.model.ModuleComponentArtifactIdentifier;
 import org.gradle.internal.component.external.model.ModuleComponentArtifactMetadata;
 import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata;
 import org.gradle.internal.component.external.model.ModuleDependencyMetadata;
@@ -54,6 +59,10 @@ import org.gradle.internal.resolve.result.BuildableComponentArtifactsResolveResu
 import org.gradle.internal.resolve.result.BuildableModuleComponentMetaDataResolveResult;
 import org.gradle.internal.resolve.result.BuildableModuleVersionListingResolveResult;
 import org.gradle.internal.resolve.result.DefaultBuildableArtifactSetResolveResult;
+import org.gradle.internal.resolve.result.DefaultBuildableModuleComponentMetaDataResolveResult;
+import org.gradle.internal.resolve.result.DefaultBuildableModuleVersionListingResolveResult;
+import org.gradle.internal.resource.local.FileStoreSearcher;
+import org.gradle.internal.resource.local.LocallyAvailableResource;
 import org.gradle.util.BuildCommencedTimeProvider;
 import org.gradle.util.CollectionUtils;
 import org.slf4j.Logger;
@@ -80,6 +89,10 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
     private final ModuleMetadataCache moduleMetadataCache;
     private final ModuleArtifactsCache moduleArtifactsCache;
     private final ModuleArtifactCache moduleArtifactCache;
+    private final FileStoreSearcher<ModuleComponentArtifactIdentifier> readOnlyArtifactFileStore;
+    private final ProducerGuard<ModuleComponentAtRepositoryKey> metadataRequestGuard;
+    private final ProducerGuard<ModuleAtRepositoryKey> listingRequestGuard;
+    private final ProducerGuard<ArtifactAtRepositoryKey> artifactRequestGuard;
 
     private final CachePolicy cachePolicy;
 
@@ -99,6 +112,10 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
         this.moduleVersionsCache = caches.moduleVersionsCache;
         this.moduleArtifactsCache = caches.moduleArtifactsCache;
         this.moduleArtifactCache = caches.moduleArtifactCache;
+        this.readOnlyArtifactFileStore = caches.readOnlyArtifactFileStore;
+        this.metadataRequestGuard = caches.metadataRequestGuard;
+        this.listingRequestGuard = caches.listingRequestGuard;
+        this.artifactRequestGuard = caches.artifactRequestGuard;
         this.timeProvider = timeProvider;
         this.cachePolicy = cachePolicy;
         this.metadataProcessor = metadataProcessor;
@@ -344,6 +361,24 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
                         result.resolved(cachedArtifactFile);
                     }
                 }
+            } else if (readOnlyArtifactFileStore != null && !moduleSource.isChangingModule()) {
+                resolveArtifactFromReadOnlyCache((ModuleComponentArtifactMetadata) artifact, result);
+            }
+        }
+
+        /**
+         * Uses an artifact of a non-changing module from the read-only cache in place. The read-only cache has no usable index, so the artifact is looked up
+         * in its file store, and only used when a single file matches it.
+         */
+        private void resolveArtifactFromReadOnlyCache(ModuleComponentArtifactMetadata artifact, BuildableArtifactResolveResult result) {
+            Set<? extends LocallyAvailableResource> candidates = readOnlyArtifactFileStore.search(artifact.getId());
+            if (candidates.size() != 1) {
+                return;
+            }
+            File file = candidates.iterator().next().getFile();
+            if (!cachePolicy.mustRefreshArtifact(artifact.toArtifactIdentifier(), file, 0, false, true)) {
+                LOGGER.debug("Found artifact '{}' in read-only cache: {}", artifact, file);
+                result.resolved(file);
             }
         }
     }
@@ -355,7 +390,35 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
         }
 
         @Override
-        public void listModuleVersions(ModuleDependencyMetadata dependency, BuildableModuleVersionListingResolveResult result) {
+        public void listModuleVersions(final ModuleDependencyMetadata dependency, final BuildableModuleVersionListingResolveResult result) {
+            // Other resolutions, for example of other projects in a parallel build, may be listing the same module: only one of them hits the repository
+            listingRequestGuard.guardByKey(new ModuleAtRepositoryKey(delegate.getId(), getCacheKey(dependency.getSelector())), new Factory<Void>() {
+                @Override
+                public Void create() {
+                    if (!useVersionsListedConcurrently(dependency, result)) {
+                        doListModuleVersions(dependency, result);
+                    }
+                    return null;
+                }
+            });
+        }
+
+        /**
+         * Uses the listing of a resolution that completed while waiting for the guard, if any.
+         */
+        private boolean useVersionsListedConcurrently(ModuleDependencyMetadata dependency, BuildableModuleVersionListingResolveResult result) {
+            DefaultBuildableModuleVersionListingResolveResult cachedResult = new DefaultBuildableModuleVersionListingResolveResult();
+            locateInCacheRepositoryAccess.listModuleVersionsFromCache(dependency, cachedResult);
+            // Only an authoritative result was verified during this build
+            if (!cachedResult.hasResult() || !cachedResult.isAuthoritative()) {
+                return false;
+            }
+            result.listed(cachedResult.getVersions());
+            result.setAuthoritative(true);
+            return true;
+        }
+
+        private void doListModuleVersions(ModuleDependencyMetadata dependency, BuildableModuleVersionListingResolveResult result) {
             delegate.getRemoteAccess().listModuleVersions(dependency, result);
             switch (result.getState()) {
                 case Listed:
@@ -371,7 +434,44 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
         }
 
         @Override
-        public void resolveComponentMetaData(ModuleComponentIdentifier moduleComponentIdentifier, ComponentOverrideMetadata requestMetaData, BuildableModuleComponentMetaDataResolveResult result) {
+        public void resolveComponentMetaData(final ModuleComponentIdentifier moduleComponentIdentifier, final ComponentOverrideMetadata requestMetaData, final BuildableModuleComponentMetaDataResolveResult result) {
+            // Other resolutions, for example of other projects in a parallel build, may be requesting the same component: only one of them hits the repository
+            metadataRequestGuard.guardByKey(new ModuleComponentAtRepositoryKey(delegate.getId(), moduleComponentIdentifier), new Factory<Void>() {
+                @Override
+                public Void create() {
+                    if (!useMetaDataResolvedConcurrently(moduleComponentIdentifier, requestMetaData, result)) {
+                        doResolveComponentMetaData(moduleComponentIdentifier, requestMetaData, result);
+                    }
+                    return null;
+                }
+            });
+        }
+
+        /**
+         * Uses the result of a resolution that completed while waiting for the guard, if any.
+         */
+        private boolean useMetaDataResolvedConcurrently(ModuleComponentIdentifier moduleComponentIdentifier, ComponentOverrideMetadata requestMetaData, BuildableModuleComponentMetaDataResolveResult result) {
+            DefaultBuildableModuleComponentMetaDataResolveResult cachedResult = new DefaultBuildableModuleComponentMetaDataResolveResult();
+            locateInCacheRepositoryAccess.resolveComponentMetaDataFromCache(moduleComponentIdentifier, requestMetaData, cachedResult);
+            // Only an authoritative result was verified during this build
+            if (!cachedResult.hasResult() || !cachedResult.isAuthoritative()) {
+                return false;
+            }
+            switch (cachedResult.getState()) {
+                case Missing:
+                    result.missing();
+                    break;
+                case Resolved:
+                    result.resolved(cachedResult.getMetaData());
+                    break;
+                default:
+                    return false;
+            }
+            result.setAuthoritative(true);
+            return true;
+        }
+
+        private void doResolveComponentMetaData(ModuleComponentIdentifier moduleComponentIdentifier, ComponentOverrideMetadata requestMetaData, BuildableModuleComponentMetaDataResolveResult result) {
             ComponentOverrideMetadata forced = requestMetaData.withChanging();
 
             delegate.getRemoteAccess().resolveComponentMetaData(moduleComponentIdentifier, forced, result);
@@ -417,7 +517,39 @@ public class CachingModuleComponentRepository implements ModuleComponentReposito
         }
 
         @Override
-        public void resolveArtifact(ComponentArtifactMetadata artifact, ModuleSource moduleSource, BuildableArtifactResolveResult result) {
+        public void resolveArtifact(final ComponentArtifactMetadata artifact, final ModuleSource moduleSource, final BuildableArtifactResolveResult result) {
+            artifactRequestGuard.guardByKey(artifactCacheKey(artifact.getId()), new Factory<Void>() {
+                @Override
+                public Void create() {
+                    if (!useArtifactResolvedConcurrently(artifact, (CachingModuleSource) moduleSource, result)) {
+                        doResolveArtifact(artifact, moduleSource, result);
+                    }
+                    return null;
+                }
+            });
+        }
+
+        /**
+         * Uses the result of a download that completed while waiting for the guard, if any.
+         */
+        private boolean useArtifactResolvedConcurrently(ComponentArtifactMetadata artifact, CachingModuleSource moduleSource, BuildableArtifactResolveResult result) {
+            CachedArtifact cached = moduleArtifactCache.lookup(artifactCacheKey(artifact.getId()));
+            // Only an entry stored during this build is known to be up-to-date
+            if (cached == null || cached.getCachedAt() != timeProvider.getCurrentTime() || !moduleSource.getDescriptorHash().equals(cached.getDescriptorHash())) {
+                return false;
+            }
+            if (cached.isMissing()) {
+                for (String location : cached.attemptedLocations()) {
+                    result.attempted(location);
+                }
+                result.notFound(artifact.getId());
+            } else {
+                result.resolved(cached.getCachedFile());
+            }
+            return true;
+        }
+
+        private void doResolveArtifact(ComponentArtifactMetadata artifact, ModuleSource moduleSource, BuildableArtifactResolveResult result) {
             final CachingModuleSource cachingModuleSource = (CachingModuleSource) moduleSource;
 
             delegate.getRemoteAccess().resolveArtifact(artifact, cachingModuleSource.getDelegate(), result);
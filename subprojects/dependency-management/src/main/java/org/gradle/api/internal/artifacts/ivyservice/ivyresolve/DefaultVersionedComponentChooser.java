@@ -15,6 +15,7 @@
  */
 package org.gradle.api.internal.artifacts.ivyservice.ivyresolve;
 
+import com.google.common.collect.AbstractIterator;
 import org.gradle.api.artifacts.ComponentMetadata;
 import org.gradle.api.artifacts.ComponentSelection;
 import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
@@ -22,6 +23,7 @@ import org.gradle.api.internal.artifacts.ComponentSelectionInternal;
 import org.gradle.api.internal.artifacts.ComponentSelectionRulesInternal;
 import org.gradle.api.internal.artifacts.DefaultComponentSelection;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionComparator;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionRangeSelector;
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelector;
 import org.gradle.internal.component.model.ComponentResolveMetadata;
 import org.gradle.internal.resolve.result.BuildableModuleComponentMetaDataResolveResult;
@@ -29,8 +31,10 @@ import org.gradle.internal.resolve.result.ComponentSelectionContext;
 import org.gradle.internal.rules.SpecRuleAction;
 import org.gradle.util.CollectionUtils;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 class DefaultVersionedComponentChooser implements VersionedComponentChooser {
@@ -68,7 +72,9 @@ class DefaultVersionedComponentChooser implements VersionedComponentChooser {
         Collection<SpecRuleAction<? super ComponentSelection>> rules = componentSelectionRules.getRules();
 
         // Loop over all listed versions, sorted by LATEST first
-        for (ModuleComponentResolveState candidate : sortLatestFirst(versions)) {
+        Iterator<? extends ModuleComponentResolveState> candidates = latestFirst(versions, result, requestedVersionMatcher);
+        while (candidates.hasNext()) {
+            ModuleComponentResolveState candidate = candidates.next();
             MetadataProvider metadataProvider = createMetadataProvider(candidate);
 
             boolean versionMatches = versionMatches(requestedVersionMatcher, candidate, metadataProvider);
@@ -168,7 +174,75 @@ class DefaultVersionedComponentChooser implements VersionedComponentChooser {
         return rejectedVersionSelector != null && rejectedVersionSelector.accept(candidateIdentifier.getVersion());
     }
 
+    /**
+     * Returns the candidates to check, latest first.
+     *
+     * When the selector is a range with an upper bound, the candidates above the upper bound are found with a binary search over the sorted candidates,
+     * and reported as not matched without being checked one by one. Otherwise, only the latest candidate is looked for until more candidates are needed,
+     * as the selector usually matches it.
+     */
+    private Iterator<? extends ModuleComponentResolveState> latestFirst(Collection<? extends ModuleComponentResolveState> listing, ComponentSelectionContext result, VersionSelector requestedVersionMatcher) {
+        if (requestedVersionMatcher instanceof VersionRangeSelector && ((VersionRangeSelector) requestedVersionMatcher).getUpperBound() != null) {
+            List<ModuleComponentResolveState> candidates = sortLatestFirst(listing);
+            int firstBelowUpperBound = firstBelowUpperBound(candidates, (VersionRangeSelector) requestedVersionMatcher);
+            for (int i = 0; i < firstBelowUpperBound; i++) {
+                result.notMatched(candidates.get(i).getId());
+            }
+            return candidates.subList(firstBelowUpperBound, candidates.size()).iterator();
+        }
+        return new LatestFirstIterator(listing);
+    }
+
+    private static int firstBelowUpperBound(List<ModuleComponentResolveState> candidates, VersionRangeSelector range) {
+        int low = 0;
+        int high = candidates.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (range.isAboveUpperBound(candidates.get(middle).getVersion())) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
     private List<ModuleComponentResolveState> sortLatestFirst(Collection<? extends ModuleComponentResolveState> listing) {
         return CollectionUtils.sort(listing, Collections.reverseOrder(versionComparator));
     }
+
+    /**
+     * Iterates over the candidates in the same order as {@link #sortLatestFirst(Collection)}, but only sorts them once the latest candidate has been returned.
+     */
+    private class LatestFirstIterator extends AbstractIterator<ModuleComponentResolveState> {
+        private final List<ModuleComponentResolveState> candidates;
+        private Iterator<ModuleComponentResolveState> remaining;
+
+        LatestFirstIterator(Collection<? extends ModuleComponentResolveState> listing) {
+            this.candidates = new ArrayList<ModuleComponentResolveState>(listing);
+        }
+
+        @Override
+        protected ModuleComponentResolveState computeNext() {
+            if (remaining == null) {
+                if (candidates.isEmpty()) {
+                    return endOfData();
+                }
+                // The first of the latest candidates, as the sort is stable
+                int latest = 0;
+                for (int i = 1; i < candidates.size(); i++) {
+                    if (versionComparator.compare(candidates.get(i), candidates.get(latest)) > 0) {
+                        latest = i;
+                    }
+                }
+                remaining = Collections.<ModuleComponentResolveState>emptyIterator();
+                return candidates.remove(latest);
+            }
+            if (!remaining.hasNext() && !candidates.isEmpty()) {
+                remaining = sortLatestFirst(candidates).iterator();
+                candidates.clear();
+            }
+            return remaining.hasNext() ? remaining.next() : endOfData();
+        }
+    }
 }
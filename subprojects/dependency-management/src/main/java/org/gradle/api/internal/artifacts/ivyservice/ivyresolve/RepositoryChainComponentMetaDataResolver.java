@@ -44,10 +44,12 @@ public class RepositoryChainComponentMetaDataResolver implements ComponentMetaDa
     private final List<String> repositoryNames = new ArrayList<String>();
     private final VersionedComponentChooser versionedComponentChooser;
     private final Transformer<ModuleComponentResolveMetadata, RepositoryChainModuleResolution> metaDataFactory;
+    private final RepositoryGroupRouting groupRouting;
 
-    public RepositoryChainComponentMetaDataResolver(VersionedComponentChooser componentChooser, Transformer<ModuleComponentResolveMetadata, RepositoryChainModuleResolution> metaDataFactory) {
+    public RepositoryChainComponentMetaDataResolver(VersionedComponentChooser componentChooser, Transformer<ModuleComponentResolveMetadata, RepositoryChainModuleResolution> metaDataFactory, RepositoryGroupRouting groupRouting) {
         this.versionedComponentChooser = componentChooser;
         this.metaDataFactory = metaDataFactory;
+        this.groupRouting = groupRouting;
     }
 
     public void add(ModuleComponentRepository repository) {
@@ -89,9 +91,12 @@ public class RepositoryChainComponentMetaDataResolver implements ComponentMetaDa
             resolveStates.add(new ComponentMetaDataResolveState(identifier, componentOverrideMetadata, repository, versionedComponentChooser));
         }
 
-        final RepositoryChainModuleResolution latestResolved = findBestMatch(resolveStates, errors);
+        final RepositoryChainModuleResolution latestResolved = findBestMatch(identifier.getGroup(), resolveStates, errors);
         if (latestResolved != null) {
             LOGGER.debug("Using {} from {}", latestResolved.module.getModuleVersionId(), latestResolved.repository);
+            if (!latestResolved.module.isMissing()) {
+                groupRouting.hosted(latestResolved.repository.getId(), identifier.getGroup());
+            }
             for (Throwable error : errors) {
                 LOGGER.debug("Discarding resolve failure.", error);
             }
@@ -109,7 +114,7 @@ public class RepositoryChainComponentMetaDataResolver implements ComponentMetaDa
         }
     }
 
-    private RepositoryChainModuleResolution findBestMatch(List<ComponentMetaDataResolveState> resolveStates, Collection<Throwable> failures) {
+    private RepositoryChainModuleResolution findBestMatch(String group, List<ComponentMetaDataResolveState> resolveStates, Collection<Throwable> failures) {
         LinkedList<ComponentMetaDataResolveState> queue = new LinkedList<ComponentMetaDataResolveState>();
         queue.addAll(resolveStates);
 
@@ -125,11 +130,31 @@ public class RepositoryChainComponentMetaDataResolver implements ComponentMetaDa
         }
 
         // Nothing found locally - try a remote search for all resolve states that were not yet searched remotely
-        queue.addAll(missing);
+        queue.addAll(routeByGroup(group, missing));
         missing.clear();
         return findBestMatch(queue, failures, missing);
     }
 
+    /**
+     * Moves the repositories where modules of the given group were found before to the front, keeping the declared order otherwise.
+     */
+    private List<ComponentMetaDataResolveState> routeByGroup(String group, List<ComponentMetaDataResolveState> resolveStates) {
+        if (!groupRouting.isEnabled() || resolveStates.size() < 2) {
+            return resolveStates;
+        }
+        List<ComponentMetaDataResolveState> routed = new ArrayList<ComponentMetaDataResolveState>(resolveStates.size());
+        List<ComponentMetaDataResolveState> others = new ArrayList<ComponentMetaDataResolveState>(resolveStates.size());
+        for (ComponentMetaDataResolveState resolveState : resolveStates) {
+            if (groupRouting.mayHost(resolveState.repository.getId(), group)) {
+                routed.add(resolveState);
+            } else {
+                others.add(resolveState);
+            }
+        }
+        routed.addAll(others);
+        return routed;
+    }
+
     private RepositoryChainModuleResolution findBestMatch(LinkedList<ComponentMetaDataResolveState> queue, Collection<Throwable> failures, Collection<ComponentMetaDataResolveState> missing) {
         RepositoryChainModuleResolution best = null;
         while (!queue.isEmpty()) {
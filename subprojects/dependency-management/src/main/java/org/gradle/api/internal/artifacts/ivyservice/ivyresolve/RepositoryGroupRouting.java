@@ -0,0 +1,196 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve;
+
+import com.google.common.base.Charsets;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import org.gradle.api.internal.artifacts.ivyservice.CacheLockingManager;
+import org.gradle.cache.PersistentIndexedCache;
+import org.gradle.internal.Factory;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.concurrent.Stoppable;
+import org.gradle.internal.serialize.BaseSerializerFactory;
+import org.gradle.util.BuildCommencedTimeProvider;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers, for each repository, the groups of the modules that were found in that repository, so that a module whose group is known to be
+ * hosted by a repository can be looked up in that repository first, instead of in each of the repositories declared before it.
+ *
+ * <p>The groups are kept in a bloom filter per repository, persisted in the module cache. A bloom filter never misses a group that was added to it,
+ * so a repository that may host a group is always tried first. Filters are started over once they are {@value #MAX_AGE_DAYS} days old, which drops
+ * groups that moved to another repository and keeps the rate of false positives low. The groups found during a build are written back to the
+ * module cache once, when the build finishes.</p>
+ *
+ * <p>This changes which repository a module is taken from when it is published to several repositories, so it is disabled unless the
+ * {@value #ENABLED_PROPERTY} system property is set.</p>
+ */
+public class RepositoryGroupRouting implements Stoppable {
+    public static final String ENABLED_PROPERTY = "org.gradle.internal.repository.group.routing";
+
+    public static final RepositoryGroupRouting DISABLED = new RepositoryGroupRouting(null, null, false);
+
+    private static final int MAX_AGE_DAYS = 30;
+    private static final int EXPECTED_GROUPS = 10000;
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private final CacheLockingManager cacheLockingManager;
+    private final BuildCommencedTimeProvider timeProvider;
+    private final boolean enabled;
+    private final ConcurrentMap<String, GroupFilter> filters = new ConcurrentHashMap<String, GroupFilter>();
+    private PersistentIndexedCache<String, byte[]> cache;
+
+    public RepositoryGroupRouting(CacheLockingManager cacheLockingManager, BuildCommencedTimeProvider timeProvider, boolean enabled) {
+        this.cacheLockingManager = cacheLockingManager;
+        this.timeProvider = timeProvider;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns true when a module of the given group may have been found in the given repository before.
+     */
+    public boolean mayHost(String repositoryId, String group) {
+        if (!enabled) {
+            return false;
+        }
+        GroupFilter filter = getFilter(repositoryId);
+        synchronized (filter) {
+            return filter.groups.mightContain(group);
+        }
+    }
+
+    /**
+     * Records that a module of the given group was found in the given repository.
+     */
+    public void hosted(String repositoryId, String group) {
+        if (!enabled) {
+            return;
+        }
+        GroupFilter filter = getFilter(repositoryId);
+        synchronized (filter) {
+            if (filter.groups.put(group)) {
+                filter.changed = true;
+            }
+        }
+    }
+
+    /**
+     * Writes the filters that changed during this build to the module cache.
+     */
+    @Override
+    public void stop() {
+        final Map<String, byte[]> changed = new LinkedHashMap<String, byte[]>();
+        for (Map.Entry<String, GroupFilter> entry : filters.entrySet()) {
+            GroupFilter filter = entry.getValue();
+            synchronized (filter) {
+                if (filter.changed) {
+                    changed.put(entry.getKey(), filter.serialize());
+                    filter.changed = false;
+                }
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        cacheLockingManager.useCache(new Runnable() {
+            @Override
+            public void run() {
+                PersistentIndexedCache<String, byte[]> cache = getCache();
+                for (Map.Entry<String, byte[]> entry : changed.entrySet()) {
+                    cache.put(entry.getKey(), entry.getValue());
+                }
+            }
+        });
+    }
+
+    private GroupFilter getFilter(final String repositoryId) {
+        GroupFilter filter = filters.get(repositoryId);
+        if (filter != null) {
+            return filter;
+        }
+        // Load outside of any monitor held by this instance, as taking the cache lock may block
+        byte[] serialized = cacheLockingManager.useCache(new Factory<byte[]>() {
+            @Override
+            public byte[] create() {
+                return getCache().get(repositoryId);
+            }
+        });
+        filter = serialized == null ? null : GroupFilter.deserialize(serialized);
+        long now = timeProvider.getCurrentTime();
+        if (filter == null || now - filter.createdAt > TimeUnit.DAYS.toMillis(MAX_AGE_DAYS)) {
+            filter = new GroupFilter(now, BloomFilter.create(Funnels.stringFunnel(Charsets.UTF_8), EXPECTED_GROUPS, FALSE_POSITIVE_PROBABILITY));
+        }
+        GroupFilter existing = filters.putIfAbsent(repositoryId, filter);
+        return existing != null ? existing : filter;
+    }
+
+    private synchronized PersistentIndexedCache<String, byte[]> getCache() {
+        if (cache == null) {
+            cache = cacheLockingManager.createCache("repository-groups", BaseSerializerFactory.STRING_SERIALIZER, BaseSerializerFactory.BYTE_ARRAY_SERIALIZER);
+        }
+        return cache;
+    }
+
+    private static class GroupFilter {
+        private final long createdAt;
+        private final BloomFilter<CharSequence> groups;
+        private boolean changed;
+
+        GroupFilter(long createdAt, BloomFilter<CharSequence> groups) {
+            this.createdAt = createdAt;
+            this.groups = groups;
+        }
+
+        byte[] serialize() {
+            try {
+                ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                DataOutputStream dataOutputStream = new DataOutputStream(outputStream);
+                dataOutputStream.writeLong(createdAt);
+                groups.writeTo(dataOutputStream);
+                dataOutputStream.flush();
+                return outputStream.toByteArray();
+            } catch (IOException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+
+        static GroupFilter deserialize(byte[] serialized) {
+            try {
+                DataInputStream inputStream = new DataInputStream(new ByteArrayInputStream(serialized));
+                long createdAt = inputStream.readLong();
+                return new GroupFilter(createdAt, BloomFilter.readFrom(inputStream, Funnels.stringFunnel(Charsets.UTF_8)));
+            } catch (IOException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
+    }
+}
@@ -36,12 +36,13 @@ public class UserResolverChain implements ComponentResolvers {
     public UserResolverChain(VersionSelectorScheme versionSelectorScheme,
                              VersionComparator versionComparator,
                              ComponentSelectionRulesInternal componentSelectionRules,
-                             ImmutableModuleIdentifierFactory moduleIdentifierFactory) {
+                             ImmutableModuleIdentifierFactory moduleIdentifierFactory,
+                             RepositoryGroupRouting groupRouting) {
         this.componentSelectionRules = componentSelectionRules;
         VersionedComponentChooser componentChooser = new DefaultVersionedComponentChooser(versionComparator, componentSelectionRules);
         ModuleTransformer metaDataFactory = new ModuleTransformer();
         componentIdResolver = new RepositoryChainDependencyToComponentIdResolver(componentChooser, metaDataFactory, moduleIdentifierFactory, versionSelectorScheme);
-        componentResolver = new RepositoryChainComponentMetaDataResolver(componentChooser, metaDataFactory);
+        componentResolver = new RepositoryChainComponentMetaDataResolver(componentChooser, metaDataFactory, groupRouting);
         artifactResolver = new RepositoryChainArtifactResolver();
     }
 
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An element of a POM, as read by {@link StreamingPomParser}. Only keeps the name, the text content and the child elements.
+ */
+final class PomElement {
+    private final String name;
+    private String textContent = "";
+    private List<PomElement> children;
+
+    PomElement(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the text directly contained by this element, excluding the text of the child elements.
+     */
+    public String getTextContent() {
+        return textContent;
+    }
+
+    void setTextContent(String textContent) {
+        this.textContent = textContent;
+    }
+
+    void addChild(PomElement child) {
+        if (children == null) {
+            children = new ArrayList<PomElement>(4);
+        }
+        children.add(child);
+    }
+
+    public List<PomElement> getChildren() {
+        return children == null ? Collections.<PomElement>emptyList() : children;
+    }
+
+    @Nullable
+    public PomElement getFirstChild(String name) {
+        if (children != null) {
+            for (PomElement child : children) {
+                if (name.equals(child.name)) {
+                    return child;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    public static PomElement getFirstChild(@Nullable PomElement parent, String name) {
+        return parent == null ? null : parent.getFirstChild(name);
+    }
+
+    @Nullable
+    public static String getFirstChildText(@Nullable PomElement parent, String name) {
+        PomElement child = getFirstChild(parent, name);
+        return child == null ? null : child.textContent;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
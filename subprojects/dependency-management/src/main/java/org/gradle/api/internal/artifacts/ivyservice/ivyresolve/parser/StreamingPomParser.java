@@ -0,0 +1,194 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.apache.commons.io.IOUtils;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.PomDomParser.AddDTDFilterInputStream;
+import org.gradle.internal.UncheckedException;
+import org.gradle.internal.classloader.ClassLoaderUtils;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads a POM into a tree of {@link PomElement}s, using a streaming XML parser.
+ *
+ * <p>Unlike a DOM, the tree only holds the elements that {@link PomReader} uses: sections such as the build, reporting, or the list of
+ * developers are skipped while parsing. Attributes, comments and processing instructions are not kept either.</p>
+ */
+final class StreamingPomParser {
+    private static final String PROJECT = "project";
+    private static final byte[] M2_ENTITIES_RESOURCE;
+    private static final XMLInputFactory XML_INPUT_FACTORY;
+
+    /**
+     * The child elements to keep, for the elements that are not kept entirely. Keyed by the path of the element from the root.
+     */
+    private static final Map<String, Set<String>> RETAINED_CHILDREN = ImmutableMap.<String, Set<String>>of(
+        PROJECT, ImmutableSet.of("groupId", "artifactId", "version", "packaging", "parent", "distributionManagement", "properties", "dependencies", "dependencyManagement", "profiles"),
+        PROJECT + "/distributionManagement", ImmutableSet.of("relocation"),
+        PROJECT + "/profiles", ImmutableSet.of("profile"),
+        PROJECT + "/profiles/profile", ImmutableSet.of("id", "activation", "properties", "dependencies", "dependencyManagement")
+    );
+
+    static {
+        byte[] bytes;
+        try {
+            bytes = IOUtils.toByteArray(org.apache.ivy.plugins.parser.m2.PomReader.class.getResourceAsStream("m2-entities.ent"));
+        } catch (IOException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        M2_ENTITIES_RESOURCE = bytes;
+
+        // Set the context classloader the bootstrap classloader, to work around the way that JAXP locates implementation classes
+        // This should ensure that the JAXP classes provided by the JVM are used, rather than some other implementation
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(ClassLoaderUtils.getPlatformClassLoader());
+        try {
+            XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+            XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_VALIDATING, false);
+            XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, false);
+            XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+            XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, true);
+            XML_INPUT_FACTORY.setXMLResolver(new XMLResolver() {
+                public Object resolveEntity(String publicId, String systemId, String baseUri, String namespace) {
+                    if ((systemId != null) && systemId.endsWith("m2-entities.ent")) {
+                        return new ByteArrayInputStream(M2_ENTITIES_RESOURCE);
+                    }
+                    return null;
+                }
+            });
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    private StreamingPomParser() {
+    }
+
+    /**
+     * Parses the given POM.
+     *
+     * @return the root element of the POM.
+     */
+    static PomElement parse(InputStream inputStream, String systemId) throws IOException, XMLStreamException {
+        // Set the context classloader the bootstrap classloader, to work around the way that JAXP locates implementation classes
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(ClassLoaderUtils.getPlatformClassLoader());
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(systemId, new AddDTDFilterInputStream(inputStream));
+            try {
+                return read(reader);
+            } finally {
+                reader.close();
+            }
+        } finally {
+            Thread.currentThread().setContextClassLoader(original);
+        }
+    }
+
+    private static PomElement read(XMLStreamReader reader) throws XMLStreamException {
+        List<Frame> stack = new ArrayList<Frame>(16);
+        PomElement root = null;
+        // The depth of the skipped element we are in, 0 when not skipping
+        int skippedDepth = 0;
+        while (reader.hasNext()) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    if (skippedDepth > 0) {
+                        skippedDepth++;
+                        break;
+                    }
+                    String name = reader.getLocalName();
+                    if (stack.isEmpty()) {
+                        root = new PomElement(name);
+                        stack.add(new Frame(root, PROJECT));
+                        break;
+                    }
+                    Frame parent = stack.get(stack.size() - 1);
+                    String path = null;
+                    if (parent.path != null) {
+                        if (!RETAINED_CHILDREN.get(parent.path).contains(name)) {
+                            skippedDepth = 1;
+                            break;
+                        }
+                        path = parent.path + "/" + name;
+                        if (!RETAINED_CHILDREN.containsKey(path)) {
+                            // Keep the whole subtree
+                            path = null;
+                        }
+                    }
+                    PomElement element = new PomElement(name);
+                    parent.element.addChild(element);
+                    stack.add(new Frame(element, path));
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    if (skippedDepth > 0) {
+                        skippedDepth--;
+                        break;
+                    }
+                    Frame frame = stack.remove(stack.size() - 1);
+                    if (frame.text != null) {
+                        frame.element.setTextContent(frame.text.toString());
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                    if (skippedDepth == 0 && !stack.isEmpty()) {
+                        stack.get(stack.size() - 1).appendText(reader);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (root == null) {
+            throw new XMLStreamException("Premature end of file.");
+        }
+        return root;
+    }
+
+    private static class Frame {
+        final PomElement element;
+        final String path;
+        StringBuilder text;
+
+        Frame(PomElement element, String path) {
+            this.element = element;
+            this.path = path;
+        }
+
+        void appendText(XMLStreamReader reader) {
+            if (text == null) {
+                text = new StringBuilder(reader.getTextLength());
+            }
+            text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+        }
+    }
+}
@@ -171,6 +171,13 @@ public class VersionRangeSelector extends AbstractVersionVersionSelector {
         return true;
     }
 
+    /**
+     * Tells if the given candidate is above the upper bound of this range, and so is above it for any version that is higher than the candidate.
+     */
+    public boolean isAboveUpperBound(Version candidate) {
+        return upperBound != null && !isLower(candidate, upperBoundVersion, upperInclusive);
+    }
+
     /**
      * Tells if version1 is lower than version2.
      */
@@ -34,10 +34,17 @@ import org.gradle.internal.serialize.Decoder;
 import org.gradle.internal.serialize.Encoder;
 import org.gradle.util.BuildCommencedTimeProvider;
 
+import java.io.File;
+
+/**
+ * Caches module metadata in the writable artifact cache. When a read-only cache is layered under the writable cache, metadata
+ * missing from the writable cache is looked up in the read-only cache, without locking and without copying it to the writable cache.
+ */
 public class DefaultModuleMetadataCache extends InMemoryModuleMetadataCache {
 
     private PersistentIndexedCache<ModuleComponentAtRepositoryKey, ModuleMetadataCacheEntry> cache;
     private final ModuleMetadataStore moduleMetadataStore;
+    private final ModuleMetadataStore readOnlyModuleMetadataStore;
     private final CacheLockingManager cacheLockingManager;
 
     public DefaultModuleMetadataCache(BuildCommencedTimeProvider timeProvider,
@@ -48,7 +55,10 @@ public class DefaultModuleMetadataCache extends InMemoryModuleMetadataCache {
                                       MavenMutableModuleMetadataFactory mavenMetadataFactory,
                                       IvyMutableModuleMetadataFactory ivyMetadataFactory) {
         super(timeProvider);
-        moduleMetadataStore = new ModuleMetadataStore(new DefaultPathKeyFileStore(artifactCacheMetadata.getMetaDataStoreDirectory()), new ModuleMetadataSerializer(attributeContainerSerializer, mavenMetadataFactory, ivyMetadataFactory), moduleIdentifierFactory);
+        ModuleMetadataSerializer moduleMetadataSerializer = new ModuleMetadataSerializer(attributeContainerSerializer, mavenMetadataFactory, ivyMetadataFactory);
+        moduleMetadataStore = new ModuleMetadataStore(new DefaultPathKeyFileStore(artifactCacheMetadata.getMetaDataStoreDirectory()), moduleMetadataSerializer, moduleIdentifierFactory);
+        File readOnlyMetaDataStoreDirectory = artifactCacheMetadata.getReadOnlyMetaDataStoreDirectory();
+        readOnlyModuleMetadataStore = readOnlyMetaDataStoreDirectory == null ? null : new ModuleMetadataStore(new DefaultPathKeyFileStore(readOnlyMetaDataStoreDirectory), moduleMetadataSerializer, moduleIdentifierFactory);
         this.cacheLockingManager = cacheLockingManager;
     }
 
@@ -81,6 +91,23 @@ public class DefaultModuleMetadataCache extends InMemoryModuleMetadataCache {
     }
 
     private CachedMetadata loadCachedMetadata(final ModuleComponentAtRepositoryKey key) {
+        CachedMetadata cachedMetadata = loadWritableCachedMetadata(key);
+        if (cachedMetadata == null && readOnlyModuleMetadataStore != null) {
+            cachedMetadata = loadReadOnlyCachedMetadata(key);
+        }
+        return cachedMetadata;
+    }
+
+    private CachedMetadata loadReadOnlyCachedMetadata(ModuleComponentAtRepositoryKey key) {
+        // The read-only cache is immutable, so no lock is required
+        ModuleMetadataStore.StoredModuleMetadata stored = readOnlyModuleMetadataStore.getModule(key);
+        if (stored == null) {
+            return null;
+        }
+        return new DefaultCachedMetadata(stored.entry, stored.entry.configure(stored.metadata), timeProvider);
+    }
+
+    private CachedMetadata loadWritableCachedMetadata(final ModuleComponentAtRepositoryKey key) {
         final PersistentIndexedCache<ModuleComponentAtRepositoryKey, ModuleMetadataCacheEntry> cache = getCache();
         return cacheLockingManager.useCache(new Factory<CachedMetadata>() {
             @Override
@@ -114,7 +141,7 @@ public class DefaultModuleMetadataCache extends InMemoryModuleMetadataCache {
                 @Override
                 public void run() {
                     final ModuleComponentResolveMetadata metadata = cachedMetadata.getMetadata();
-                    moduleMetadataStore.putModuleDescriptor(key, metadata);
+                    moduleMetadataStore.putModuleDescriptor(key, entry, metadata);
                     getCache().put(key, entry);
                 }
             });
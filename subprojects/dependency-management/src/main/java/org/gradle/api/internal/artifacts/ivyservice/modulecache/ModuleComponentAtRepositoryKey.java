@@ -22,7 +22,7 @@ public class ModuleComponentAtRepositoryKey {
     private final String repositoryId;
     private final ModuleComponentIdentifier componentId;
 
-    ModuleComponentAtRepositoryKey(String repositoryId, ModuleComponentIdentifier componentId) {
+    public ModuleComponentAtRepositoryKey(String repositoryId, ModuleComponentIdentifier componentId) {
         this.repositoryId = repositoryId;
         this.componentId = componentId;
     }
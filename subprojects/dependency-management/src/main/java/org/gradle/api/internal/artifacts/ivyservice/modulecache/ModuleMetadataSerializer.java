@@ -20,12 +20,13 @@ import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.SetMultimap;
 import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.VersionConstraint;
 import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
 import org.gradle.api.artifacts.component.ModuleComponentSelector;
 import org.gradle.api.attributes.AttributeContainer;
 import org.gradle.api.capabilities.Capability;
 import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
-import org.gradle.api.internal.artifacts.ModuleComponentSelectorSerializer;
+import org.gradle.api.internal.artifacts.dependencies.DefaultImmutableVersionConstraint;
 import org.gradle.api.internal.artifacts.ivyservice.NamespaceId;
 import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.dependencies.DefaultExcludeRuleConverter;
 import org.gradle.api.internal.artifacts.ivyservice.moduleconverter.dependencies.ExcludeRuleConverter;
@@ -40,6 +41,7 @@ import org.gradle.internal.component.external.descriptor.DefaultExclude;
 import org.gradle.internal.component.external.descriptor.MavenScope;
 import org.gradle.internal.component.external.model.ComponentVariant;
 import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
+import org.gradle.internal.component.external.model.DefaultModuleComponentSelector;
 import org.gradle.internal.component.external.model.IvyDependencyDescriptor;
 import org.gradle.internal.component.external.model.IvyModuleResolveMetadata;
 import org.gradle.internal.component.external.model.MavenDependencyDescriptor;
@@ -60,6 +62,7 @@ import org.gradle.internal.serialize.Encoder;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -70,7 +73,10 @@ public class ModuleMetadataSerializer {
     private static final byte TYPE_IVY = 1;
     private static final byte TYPE_MAVEN = 2;
 
-    private static final ModuleComponentSelectorSerializer COMPONENT_SELECTOR_SERIALIZER = new ModuleComponentSelectorSerializer();
+    private static final int NULL_STRING = 0;
+    private static final int NEW_STRING = 1;
+    private static final int FIRST_STRING_INDEX = 2;
+
     private final MavenMutableModuleMetadataFactory mavenMetadataFactory;
     private final IvyMutableModuleMetadataFactory ivyMetadataFactory;
     private final AttributeContainerSerializer attributeContainerSerializer;
@@ -92,6 +98,7 @@ public class ModuleMetadataSerializer {
     private static class Writer {
         private final Encoder encoder;
         private final AttributeContainerSerializer attributeContainerSerializer;
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
 
         private Writer(Encoder encoder, AttributeContainerSerializer attributeContainerSerializer) {
             this.encoder = encoder;
@@ -122,7 +129,7 @@ public class ModuleMetadataSerializer {
         private void writeVariants(ModuleComponentResolveMetadata metadata) throws IOException {
             encoder.writeSmallInt(metadata.getVariants().size());
             for (ComponentVariant variant : metadata.getVariants()) {
-                encoder.writeString(variant.getName());
+                writeString(variant.getName());
                 writeAttributes(variant.getAttributes());
                 writeVariantDependencies(variant.getDependencies());
                 writeVariantConstraints(variant.getDependencyConstraints());
@@ -134,16 +141,16 @@ public class ModuleMetadataSerializer {
         private void writeVariantConstraints(ImmutableList<? extends ComponentVariant.DependencyConstraint> constraints) throws IOException {
             encoder.writeSmallInt(constraints.size());
             for (ComponentVariant.DependencyConstraint constraint : constraints) {
-                COMPONENT_SELECTOR_SERIALIZER.write(encoder, constraint.getGroup(), constraint.getModule(), constraint.getVersionConstraint());
-                encoder.writeNullableString(constraint.getReason());
+                writeSelector(constraint.getGroup(), constraint.getModule(), constraint.getVersionConstraint());
+                writeNullableString(constraint.getReason());
             }
         }
 
         private void writeVariantDependencies(List<? extends ComponentVariant.Dependency> dependencies) throws IOException {
             encoder.writeSmallInt(dependencies.size());
             for (ComponentVariant.Dependency dependency : dependencies) {
-                COMPONENT_SELECTOR_SERIALIZER.write(encoder, dependency.getGroup(), dependency.getModule(), dependency.getVersionConstraint());
-                encoder.writeNullableString(dependency.getReason());
+                writeSelector(dependency.getGroup(), dependency.getModule(), dependency.getVersionConstraint());
+                writeNullableString(dependency.getReason());
                 writeVariantDependencyExcludes(dependency.getExcludes());
             }
         }
@@ -163,17 +170,17 @@ public class ModuleMetadataSerializer {
         private void writeVariantFiles(List<? extends ComponentVariant.File> files) throws IOException {
             encoder.writeSmallInt(files.size());
             for (ComponentVariant.File file : files) {
-                encoder.writeString(file.getName());
-                encoder.writeString(file.getUri());
+                writeString(file.getName());
+                writeString(file.getUri());
             }
         }
 
         private void writeVariantCapabilities(List<? extends Capability> capabilities) throws IOException {
             encoder.writeSmallInt(capabilities.size());
             for (Capability capability : capabilities) {
-                encoder.writeString(capability.getGroup());
-                encoder.writeString(capability.getName());
-                encoder.writeString(capability.getVersion());
+                writeString(capability.getGroup());
+                writeString(capability.getName());
+                writeString(capability.getVersion());
             }
         }
 
@@ -194,7 +201,7 @@ public class ModuleMetadataSerializer {
         private void writeSharedInfo(ModuleComponentResolveMetadata metadata) throws IOException {
             encoder.writeBinary(metadata.getContentHash().asByteArray());
             encoder.writeBoolean(metadata.isMissing());
-            encoder.writeString(metadata.getStatus());
+            writeString(metadata.getStatus());
         }
 
         private void writeId(ModuleComponentIdentifier componentIdentifier) throws IOException {
@@ -259,7 +266,7 @@ public class ModuleMetadataSerializer {
         }
 
         private void writeIvyDependency(IvyDependencyDescriptor ivyDependency) throws IOException {
-            COMPONENT_SELECTOR_SERIALIZER.write(encoder, ivyDependency.getSelector());
+            writeSelector(ivyDependency.getSelector());
             writeDependencyConfigurationMapping(ivyDependency);
             writeArtifacts(ivyDependency.getDependencyArtifacts());
             writeExcludeRules(ivyDependency.getAllExcludes());
@@ -291,7 +298,7 @@ public class ModuleMetadataSerializer {
         }
 
         private void writeMavenDependency(MavenDependencyDescriptor mavenDependency) throws IOException {
-            COMPONENT_SELECTOR_SERIALIZER.write(encoder, mavenDependency.getSelector());
+            writeSelector(mavenDependency.getSelector());
             writeNullableArtifact(mavenDependency.getDependencyArtifact());
             writeMavenExcludeRules(mavenDependency.getAllExcludes());
             encoder.writeSmallInt(mavenDependency.getScope().ordinal());
@@ -322,12 +329,40 @@ public class ModuleMetadataSerializer {
             encoder.writeSmallInt(i);
         }
 
+        private void writeSelector(ModuleComponentSelector selector) throws IOException {
+            writeSelector(selector.getGroup(), selector.getModule(), selector.getVersionConstraint());
+        }
+
+        private void writeSelector(String group, String module, VersionConstraint versionConstraint) throws IOException {
+            writeString(group);
+            writeString(module);
+            writeString(versionConstraint.getPreferredVersion());
+            writeStringList(versionConstraint.getRejectedVersions());
+        }
+
         private void writeString(String str) throws IOException {
-            encoder.writeString(str);
+            if (str == null) {
+                throw new NullPointerException("Unexpected null string.");
+            }
+            writeNullableString(str);
         }
 
+        /**
+         * Writes each distinct string once. Later occurrences of the string refer to the first one, by its index in the string table.
+         */
         private void writeNullableString(String str) throws IOException {
-            encoder.writeNullableString(str);
+            if (str == null) {
+                encoder.writeSmallInt(NULL_STRING);
+                return;
+            }
+            Integer index = strings.get(str);
+            if (index != null) {
+                encoder.writeSmallInt(index + FIRST_STRING_INDEX);
+            } else {
+                encoder.writeSmallInt(NEW_STRING);
+                encoder.writeString(str);
+                strings.put(str, strings.size());
+            }
         }
 
         private void writeBoolean(boolean b) throws IOException {
@@ -366,6 +401,7 @@ public class ModuleMetadataSerializer {
         private ModuleComponentIdentifier id;
         private ModuleVersionIdentifier mvi;
         private ImmutableAttributes attributes;
+        private final List<String> strings = new ArrayList<String>();
 
         private Reader(Decoder decoder,
                        ImmutableModuleIdentifierFactory moduleIdentifierFactory,
@@ -395,7 +431,7 @@ public class ModuleMetadataSerializer {
         private void readSharedInfo(MutableModuleComponentResolveMetadata metadata) throws IOException {
             metadata.setContentHash(new HashValue(decoder.readBinary()));
             metadata.setMissing(decoder.readBoolean());
-            metadata.setStatus(decoder.readString());
+            metadata.setStatus(readString());
         }
 
         private MutableModuleComponentResolveMetadata readMaven() throws IOException {
@@ -419,7 +455,7 @@ public class ModuleMetadataSerializer {
         private void readVariants(MutableModuleComponentResolveMetadata metadata) throws IOException {
             int count = decoder.readSmallInt();
             for (int i = 0; i < count; i++) {
-                String name = decoder.readString();
+                String name = readString();
                 ImmutableAttributes attributes = readAttributes();
                 MutableComponentVariant variant = metadata.addVariant(name, attributes);
                 readVariantDependencies(variant);
@@ -436,8 +472,8 @@ public class ModuleMetadataSerializer {
         private void readVariantDependencies(MutableComponentVariant variant) throws IOException {
             int count = decoder.readSmallInt();
             for (int i = 0; i < count; i++) {
-                ModuleComponentSelector selector = COMPONENT_SELECTOR_SERIALIZER.read(decoder);
-                String reason = decoder.readNullableString();
+                ModuleComponentSelector selector = readSelector();
+                String reason = readNullableString();
                 ImmutableList<ExcludeMetadata> excludes = readVariantDependencyExcludes();
                 variant.addDependency(selector.getGroup(), selector.getModule(), selector.getVersionConstraint(), excludes, reason);
             }
@@ -446,8 +482,8 @@ public class ModuleMetadataSerializer {
         private void readVariantConstraints(MutableComponentVariant variant) throws IOException {
             int count = decoder.readSmallInt();
             for (int i = 0; i < count; i++) {
-                ModuleComponentSelector selector = COMPONENT_SELECTOR_SERIALIZER.read(decoder);
-                String reason = decoder.readNullableString();
+                ModuleComponentSelector selector = readSelector();
+                String reason = readNullableString();
                 variant.addDependencyConstraint(selector.getGroup(), selector.getModule(), selector.getVersionConstraint(), reason);
             }
         }
@@ -466,14 +502,14 @@ public class ModuleMetadataSerializer {
         private void readVariantFiles(MutableComponentVariant variant) throws IOException {
             int count = decoder.readSmallInt();
             for (int i = 0; i < count; i++) {
-                variant.addFile(decoder.readString(), decoder.readString());
+                variant.addFile(readString(), readString());
             }
         }
 
         private void readVariantCapabilities(MutableComponentVariant variant) throws IOException {
             int count = decoder.readSmallInt();
             for (int i = 0; i < count; i++) {
-                variant.addCapability(decoder.readString(), decoder.readString(), decoder.readString());
+                variant.addCapability(readString(), readString(), readString());
             }
         }
 
@@ -553,7 +589,7 @@ public class ModuleMetadataSerializer {
         }
 
         private IvyDependencyDescriptor readIvyDependency() throws IOException {
-            ModuleComponentSelector requested = COMPONENT_SELECTOR_SERIALIZER.read(decoder);
+            ModuleComponentSelector requested = readSelector();
             SetMultimap<String, String> configMappings = readDependencyConfigurationMapping();
             List<Artifact> artifacts = readDependencyArtifactDescriptors();
             List<Exclude> excludes = readDependencyExcludes();
@@ -636,7 +672,7 @@ public class ModuleMetadataSerializer {
         }
 
         private MavenDependencyDescriptor readMavenDependency() throws IOException {
-            ModuleComponentSelector requested = COMPONENT_SELECTOR_SERIALIZER.read(decoder);
+            ModuleComponentSelector requested = readSelector();
             IvyArtifactName artifactName = readNullableArtifact();
             List<ExcludeMetadata> mavenExcludes = readMavenDependencyExcludes();
             MavenScope scope = MavenScope.values()[decoder.readSmallInt()];
@@ -660,12 +696,33 @@ public class ModuleMetadataSerializer {
             return decoder.readSmallInt();
         }
 
+        private ModuleComponentSelector readSelector() throws IOException {
+            String group = readString();
+            String module = readString();
+            String preferredVersion = readString();
+            List<String> rejectedVersions = readStringList();
+            return DefaultModuleComponentSelector.newSelector(group, module, new DefaultImmutableVersionConstraint(preferredVersion, rejectedVersions), ImmutableAttributes.EMPTY);
+        }
+
         private String readString() throws IOException {
-            return decoder.readString();
+            String str = readNullableString();
+            if (str == null) {
+                throw new IllegalStateException("Unexpected null string found.");
+            }
+            return str;
         }
 
         private String readNullableString() throws IOException {
-            return decoder.readNullableString();
+            int index = decoder.readSmallInt();
+            if (index == NULL_STRING) {
+                return null;
+            }
+            if (index == NEW_STRING) {
+                String str = decoder.readString();
+                strings.add(str);
+                return str;
+            }
+            return strings.get(index - FIRST_STRING_INDEX);
         }
 
         private boolean readBoolean() throws IOException {
@@ -26,6 +26,9 @@ import org.gradle.internal.resource.local.PathKeyFileStore;
 import org.gradle.internal.serialize.kryo.KryoBackedDecoder;
 import org.gradle.internal.serialize.kryo.KryoBackedEncoder;
 
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -34,6 +37,7 @@ public class ModuleMetadataStore {
 
     private final PathKeyFileStore metaDataStore;
     private final ModuleMetadataSerializer moduleMetadataSerializer;
+    private final ModuleMetadataCacheEntrySerializer cacheEntrySerializer = new ModuleMetadataCacheEntrySerializer();
     private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
 
     public ModuleMetadataStore(PathKeyFileStore metaDataStore, ModuleMetadataSerializer moduleMetadataSerializer, ImmutableModuleIdentifierFactory moduleIdentifierFactory) {
@@ -49,6 +53,8 @@ public class ModuleMetadataStore {
             try {
                 KryoBackedDecoder decoder = new KryoBackedDecoder(new FileInputStream(resource.getFile()));
                 try {
+                    // The entry is known from the index
+                    decoder.skipBytes(decoder.readSmallInt());
                     return moduleMetadataSerializer.read(decoder, moduleIdentifierFactory);
                 } finally {
                     decoder.close();
@@ -60,13 +66,42 @@ public class ModuleMetadataStore {
         return null;
     }
 
-    public LocallyAvailableResource putModuleDescriptor(ModuleComponentAtRepositoryKey component, final ModuleComponentResolveMetadata metadata) {
+    /**
+     * Reads the module descriptor together with the cache entry that was stored with it. This allows the store to be used without its index, as is the case for
+     * a read-only cache.
+     */
+    @Nullable
+    StoredModuleMetadata getModule(ModuleComponentAtRepositoryKey component) {
+        String filePath = getFilePath(component);
+        final LocallyAvailableResource resource = metaDataStore.get(filePath);
+        if (resource != null) {
+            try {
+                KryoBackedDecoder decoder = new KryoBackedDecoder(new FileInputStream(resource.getFile()));
+                try {
+                    ModuleMetadataCacheEntry entry = cacheEntrySerializer.read(new KryoBackedDecoder(new ByteArrayInputStream(decoder.readBinary())));
+                    return new StoredModuleMetadata(entry, moduleMetadataSerializer.read(decoder, moduleIdentifierFactory));
+                } finally {
+                    decoder.close();
+                }
+            } catch (Exception e) {
+                throw new RuntimeException("Could not load module metadata from " + resource.getDisplayName(), e);
+            }
+        }
+        return null;
+    }
+
+    public LocallyAvailableResource putModuleDescriptor(ModuleComponentAtRepositoryKey component, final ModuleMetadataCacheEntry entry, final ModuleComponentResolveMetadata metadata) {
         String filePath = getFilePath(component);
         return metaDataStore.add(filePath, new Action<File>() {
             public void execute(File moduleDescriptorFile) {
                 try {
                     KryoBackedEncoder encoder = new KryoBackedEncoder(new FileOutputStream(moduleDescriptorFile));
                     try {
+                        ByteArrayOutputStream entryBytes = new ByteArrayOutputStream();
+                        KryoBackedEncoder entryEncoder = new KryoBackedEncoder(entryBytes);
+                        cacheEntrySerializer.write(entryEncoder, entry);
+                        entryEncoder.flush();
+                        encoder.writeBinary(entryBytes.toByteArray());
                         moduleMetadataSerializer.write(encoder, metadata);
                     } finally {
                         encoder.close();
@@ -83,4 +118,14 @@ public class ModuleMetadataStore {
         return moduleComponentIdentifier.getGroup() + "/" + moduleComponentIdentifier.getModule() + "/" + moduleComponentIdentifier.getVersion() + "/" + componentId.getRepositoryId() + "/descriptor.bin";
     }
 
+    static class StoredModuleMetadata {
+        final ModuleMetadataCacheEntry entry;
+        final MutableModuleComponentResolveMetadata metadata;
+
+        StoredModuleMetadata(ModuleMetadataCacheEntry entry, MutableModuleComponentResolveMetadata metadata) {
+            this.entry = entry;
+            this.metadata = metadata;
+        }
+    }
+
 }
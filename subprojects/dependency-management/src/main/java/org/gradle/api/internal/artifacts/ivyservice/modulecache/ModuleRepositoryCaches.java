@@ -15,20 +15,50 @@
  */
 package org.gradle.api.internal.artifacts.ivyservice.modulecache;
 
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ArtifactAtRepositoryKey;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ModuleArtifactCache;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ModuleArtifactsCache;
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.ModuleAtRepositoryKey;
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.ModuleVersionsCache;
+import org.gradle.cache.internal.ProducerGuard;
+import org.gradle.internal.component.external.model.ModuleComponentArtifactIdentifier;
+import org.gradle.internal.resource.local.FileStoreSearcher;
+
+import javax.annotation.Nullable;
 
 public class ModuleRepositoryCaches {
     public final ModuleVersionsCache moduleVersionsCache;
     public final ModuleMetadataCache moduleMetadataCache;
     public final ModuleArtifactsCache moduleArtifactsCache;
     public final ModuleArtifactCache moduleArtifactCache;
+    /**
+     * The artifact file store of the read-only cache that is layered under these caches, if any.
+     */
+    @Nullable
+    public final FileStoreSearcher<ModuleComponentArtifactIdentifier> readOnlyArtifactFileStore;
+    /**
+     * Guards remote metadata requests, so that concurrent resolutions of the same component share a single request.
+     */
+    public final ProducerGuard<ModuleComponentAtRepositoryKey> metadataRequestGuard = ProducerGuard.adaptive();
+    /**
+     * Guards remote version listing requests, so that concurrent resolutions of the same dynamic version share a single request.
+     */
+    public final ProducerGuard<ModuleAtRepositoryKey> listingRequestGuard = ProducerGuard.adaptive();
+    /**
+     * Guards remote artifact requests, so that concurrent resolutions of the same artifact share a single request.
+     */
+    public final ProducerGuard<ArtifactAtRepositoryKey> artifactRequestGuard = ProducerGuard.adaptive();
 
     public ModuleRepositoryCaches(ModuleVersionsCache moduleVersionsCache, ModuleMetadataCache moduleMetadataCache, ModuleArtifactsCache moduleArtifactsCache, ModuleArtifactCache moduleArtifactCache) {
+        this(moduleVersionsCache, moduleMetadataCache, moduleArtifactsCache, moduleArtifactCache, null);
+    }
+
+    public ModuleRepositoryCaches(ModuleVersionsCache moduleVersionsCache, ModuleMetadataCache moduleMetadataCache, ModuleArtifactsCache moduleArtifactsCache, ModuleArtifactCache moduleArtifactCache,
+                                  @Nullable FileStoreSearcher<ModuleComponentArtifactIdentifier> readOnlyArtifactFileStore) {
         this.moduleVersionsCache = moduleVersionsCache;
         this.moduleMetadataCache = moduleMetadataCache;
         this.moduleArtifactsCache = moduleArtifactsCache;
         this.moduleArtifactCache = moduleArtifactCache;
+        this.readOnlyArtifactFileStore = readOnlyArtifactFileStore;
     }
 }
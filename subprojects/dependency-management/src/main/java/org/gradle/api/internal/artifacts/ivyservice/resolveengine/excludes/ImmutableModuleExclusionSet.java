@@ -15,15 +15,16 @@
  */
 package org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import org.gradle.api.artifacts.ModuleIdentifier;
 import org.gradle.internal.Cast;
 import org.gradle.internal.component.model.IvyArtifactName;
 
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 
 final class ImmutableModuleExclusionSet implements Set<AbstractModuleExclusion> {
@@ -32,10 +33,8 @@ final class ImmutableModuleExclusionSet implements Set<AbstractModuleExclusion>
     final AbstractModuleExclusion[] elements;
     private final int hashCode;
 
-    // the following fields are used as optimizations, to avoid iterating on the whole set of exclusions
-    private ImmutableSet<ModuleIdentifier> excludedModules;
-    private ImmutableList<AbstractModuleExclusion> moduleExcludes;
-    private ImmutableList<AbstractModuleExclusion> artifactExcludes;
+    // compiled lazily, to avoid iterating on the whole set of exclusions when checking a module or an artifact
+    private volatile CompiledExclusions compiled;
 
     ImmutableModuleExclusionSet(ImmutableSet<AbstractModuleExclusion> delegate) {
         this.delegate = delegate;
@@ -43,28 +42,14 @@ final class ImmutableModuleExclusionSet implements Set<AbstractModuleExclusion>
         this.hashCode = delegate.hashCode();
     }
 
-    private synchronized void precomputeCaches() {
-        if (excludedModules != null) {
-            return;
+    private CompiledExclusions compiled() {
+        CompiledExclusions compiled = this.compiled;
+        if (compiled == null) {
+            // May be computed more than once when called concurrently, which is harmless
+            compiled = new CompiledExclusions(elements);
+            this.compiled = compiled;
         }
-        ImmutableSet.Builder<ModuleIdentifier> moduleIds = ImmutableSet.builder();
-        ImmutableList.Builder<AbstractModuleExclusion> modules = ImmutableList.builder();
-        ImmutableList.Builder<AbstractModuleExclusion> artifacts = ImmutableList.builder();
-        for (AbstractModuleExclusion exclusion : delegate) {
-            if (exclusion instanceof ModuleIdExcludeSpec) {
-                moduleIds.add(((ModuleIdExcludeSpec) exclusion).moduleId);
-            } else {
-                if (!exclusion.excludesNoModules()) {
-                    modules.add(exclusion);
-                }
-                if (exclusion.mayExcludeArtifacts()) {
-                    artifacts.add(exclusion);
-                }
-            }
-        }
-        excludedModules = moduleIds.build();
-        moduleExcludes = modules.build();
-        artifactExcludes = artifacts.build();
+        return compiled;
     }
 
     @Override
@@ -89,32 +74,18 @@ final class ImmutableModuleExclusionSet implements Set<AbstractModuleExclusion>
 
     /**
      * This method optimizes module exclusion lookup, based on empirical data showing that the set can be very large, but would contain mostly direct module exclusion nodes. So instead of always
-     * iterating over all excluded modules, we can perform a fast lookup using a set of excluded modules first, then only iterate on the remaining exclusions.
+     * iterating over all excluded modules, we can perform a fast lookup using the sets of excluded modules, groups and module names first, then only iterate on the remaining exclusions,
+     * typically those using an Ivy pattern matcher.
      *
      * @param id the module to check
      * @return true if it's excluded
      */
     boolean excludesModule(ModuleIdentifier id) {
-        precomputeCaches();
-        if (excludedModules.contains(id)) {
-            return true;
-        }
-        for (AbstractModuleExclusion excludeSpec : moduleExcludes) {
-            if (excludeSpec.excludeModule(id)) {
-                return true;
-            }
-        }
-        return false;
+        return compiled().excludesModule(id);
     }
 
     boolean excludesArtifact(ModuleIdentifier module, IvyArtifactName artifact) {
-        precomputeCaches();
-        for (AbstractModuleExclusion excludeSpec : artifactExcludes) {
-            if (excludeSpec.excludeArtifact(module, artifact)) {
-                return true;
-            }
-        }
-        return false;
+        return compiled().excludesArtifact(module, artifact);
     }
 
     @Override
@@ -184,4 +155,74 @@ final class ImmutableModuleExclusionSet implements Set<AbstractModuleExclusion>
     public int hashCode() {
         return hashCode;
     }
+
+    /**
+     * The exclusions of a set, compiled into a matcher: exclusions of a module id, a group or a module name are checked with a hash lookup,
+     * leaving only the other exclusions, typically those using an Ivy pattern matcher, to be evaluated one after the other.
+     */
+    private static final class CompiledExclusions {
+        private final boolean excludesAllModules;
+        private final ImmutableSet<ModuleIdentifier> excludedModules;
+        private final ImmutableSet<String> excludedGroups;
+        private final ImmutableSet<String> excludedModuleNames;
+        private final AbstractModuleExclusion[] moduleExcludes;
+        private final AbstractModuleExclusion[] artifactExcludes;
+
+        CompiledExclusions(AbstractModuleExclusion[] exclusions) {
+            boolean excludesAll = false;
+            ImmutableSet.Builder<ModuleIdentifier> moduleIds = ImmutableSet.builder();
+            ImmutableSet.Builder<String> groups = ImmutableSet.builder();
+            ImmutableSet.Builder<String> moduleNames = ImmutableSet.builder();
+            List<AbstractModuleExclusion> modules = Lists.newArrayList();
+            List<AbstractModuleExclusion> artifacts = Lists.newArrayList();
+            for (AbstractModuleExclusion exclusion : exclusions) {
+                if (exclusion instanceof ModuleIdExcludeSpec) {
+                    moduleIds.add(((ModuleIdExcludeSpec) exclusion).moduleId);
+                } else if (exclusion instanceof GroupNameExcludeSpec) {
+                    groups.add(((GroupNameExcludeSpec) exclusion).group);
+                } else if (exclusion instanceof ModuleNameExcludeSpec) {
+                    moduleNames.add(((ModuleNameExcludeSpec) exclusion).module);
+                } else if (exclusion instanceof ExcludeAllModulesSpec) {
+                    excludesAll = true;
+                } else {
+                    if (!exclusion.excludesNoModules()) {
+                        modules.add(exclusion);
+                    }
+                    if (exclusion.mayExcludeArtifacts()) {
+                        artifacts.add(exclusion);
+                    }
+                }
+            }
+            this.excludesAllModules = excludesAll;
+            this.excludedModules = moduleIds.build();
+            this.excludedGroups = groups.build();
+            this.excludedModuleNames = moduleNames.build();
+            this.moduleExcludes = modules.toArray(new AbstractModuleExclusion[0]);
+            this.artifactExcludes = artifacts.toArray(new AbstractModuleExclusion[0]);
+        }
+
+        boolean excludesModule(ModuleIdentifier id) {
+            if (excludesAllModules) {
+                return true;
+            }
+            if (excludedModules.contains(id) || excludedGroups.contains(id.getGroup()) || excludedModuleNames.contains(id.getName())) {
+                return true;
+            }
+            for (AbstractModuleExclusion excludeSpec : moduleExcludes) {
+                if (excludeSpec.excludeModule(id)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        boolean excludesArtifact(ModuleIdentifier module, IvyArtifactName artifact) {
+            for (AbstractModuleExclusion excludeSpec : artifactExcludes) {
+                if (excludeSpec.excludeArtifact(module, artifact)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
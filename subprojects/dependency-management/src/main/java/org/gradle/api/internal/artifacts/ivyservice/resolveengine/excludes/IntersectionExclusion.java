@@ -28,11 +28,13 @@ import java.util.Collection;
 class IntersectionExclusion extends AbstractCompositeExclusion {
     private final ImmutableModuleExclusionSet excludeSpecs;
     private final boolean mergeable;
+    private final int id;
 
     private Boolean excludesNoModules;
 
-    public IntersectionExclusion(ImmutableModuleExclusionSet specs) {
+    public IntersectionExclusion(ImmutableModuleExclusionSet specs, int id) {
         this.excludeSpecs = specs;
+        this.id = id;
         boolean canMerge = true;
         for (AbstractModuleExclusion spec : specs) {
             if (!canMerge(spec)) {
@@ -43,6 +45,13 @@ class IntersectionExclusion extends AbstractCompositeExclusion {
         mergeable = canMerge;
     }
 
+    /**
+     * The id of this intersection, unique for a given {@link ModuleExclusions} instance.
+     */
+    int getId() {
+        return id;
+    }
+
     boolean canMerge() {
         return mergeable;
     }
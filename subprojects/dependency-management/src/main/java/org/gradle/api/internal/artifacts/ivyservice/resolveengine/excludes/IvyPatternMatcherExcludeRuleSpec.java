@@ -17,25 +17,45 @@
 package org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes;
 
 import com.google.common.base.Objects;
+import org.apache.ivy.plugins.matcher.Matcher;
 import org.apache.ivy.plugins.matcher.PatternMatcher;
 import org.gradle.api.artifacts.ModuleIdentifier;
 import org.gradle.internal.component.model.ExcludeMetadata;
 import org.gradle.internal.component.model.IvyArtifactName;
 
+import javax.annotation.Nullable;
+
 /**
  * A ModuleResolutionFilter that excludes any module/artifact that matches the exclude rule, using an Ivy pattern matcher.
+ * The expressions of the rule are compiled once, when the spec is created, rather than each time a module or artifact is checked.
  */
 class IvyPatternMatcherExcludeRuleSpec extends AbstractModuleExclusion {
     private final ModuleIdentifier moduleId;
     private final IvyArtifactName ivyArtifactName;
     private final PatternMatcher matcher;
     private final boolean isArtifactExclude;
+    private final Matcher groupMatcher;
+    private final Matcher moduleMatcher;
+    private final Matcher artifactNameMatcher;
+    private final Matcher artifactExtensionMatcher;
+    private final Matcher artifactTypeMatcher;
 
     IvyPatternMatcherExcludeRuleSpec(ExcludeMetadata rule) {
         this.moduleId = rule.getModuleId();
         this.ivyArtifactName = rule.getArtifact();
         this.matcher = PatternMatchers.getInstance().getMatcher(rule.getMatcher());
         isArtifactExclude = ivyArtifactName != null;
+        groupMatcher = compile(moduleId.getGroup());
+        moduleMatcher = compile(moduleId.getName());
+        if (isArtifactExclude) {
+            artifactNameMatcher = compile(ivyArtifactName.getName());
+            artifactExtensionMatcher = compile(ivyArtifactName.getExtension());
+            artifactTypeMatcher = compile(ivyArtifactName.getType());
+        } else {
+            artifactNameMatcher = null;
+            artifactExtensionMatcher = null;
+            artifactTypeMatcher = null;
+        }
     }
 
     @Override
@@ -71,25 +91,30 @@ class IvyPatternMatcherExcludeRuleSpec extends AbstractModuleExclusion {
         if (isArtifactExclude) {
             return false;
         }
-        return matches(moduleId.getGroup(), module.getGroup()) && matches(moduleId.getName(), module.getName());
+        return matches(groupMatcher, module.getGroup()) && matches(moduleMatcher, module.getName());
     }
 
     public boolean excludeArtifact(ModuleIdentifier module, IvyArtifactName artifact) {
         if (!isArtifactExclude) {
             return false;
         }
-        return matches(moduleId.getGroup(), module.getGroup())
-            && matches(moduleId.getName(), module.getName())
-            && matches(ivyArtifactName.getName(), artifact.getName())
-            && matches(ivyArtifactName.getExtension(), artifact.getExtension())
-            && matches(ivyArtifactName.getType(), artifact.getType());
+        return matches(groupMatcher, module.getGroup())
+            && matches(moduleMatcher, module.getName())
+            && matches(artifactNameMatcher, artifact.getName())
+            && matches(artifactExtensionMatcher, artifact.getExtension())
+            && matches(artifactTypeMatcher, artifact.getType());
     }
 
     public boolean mayExcludeArtifacts() {
         return isArtifactExclude;
     }
 
-    private boolean matches(String expression, String input) {
-        return matcher.getMatcher(expression).matches(input);
+    @Nullable
+    private Matcher compile(@Nullable String expression) {
+        return expression == null ? null : matcher.getMatcher(expression);
+    }
+
+    private static boolean matches(@Nullable Matcher matcher, String input) {
+        return matcher != null && matcher.matches(input);
     }
 }
@@ -33,6 +33,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.AbstractModuleExclusion.isWildcard;
 
@@ -57,15 +58,14 @@ public class ModuleExclusions {
 
     private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
 
-    private final Map<MergeOperation, AbstractModuleExclusion> mergeCache = Maps.newConcurrentMap();
+    // Keyed by the ids of the 2 merged intersections, see mergeKey()
+    private final Map<Long, AbstractModuleExclusion> mergeCache = Maps.newConcurrentMap();
     private final Map<ImmutableList<ExcludeMetadata>, AbstractModuleExclusion> excludeAnyCache = Maps.newConcurrentMap();
     private final Map<ImmutableSet<AbstractModuleExclusion>, IntersectionExclusion> intersectionCache = Maps.newConcurrentMap();
-    private final Map<AbstractModuleExclusion[], Map<AbstractModuleExclusion[], MergeOperation>> mergeOperationCache = Maps.newIdentityHashMap();
     private final Map<ModuleIdentifier, ModuleIdExcludeSpec> moduleIdSpecs = Maps.newConcurrentMap();
     private final Map<String, ModuleNameExcludeSpec> moduleNameSpecs = Maps.newConcurrentMap();
     private final Map<String, GroupNameExcludeSpec> groupNameSpecs = Maps.newConcurrentMap();
-
-    private final Object mergeOperationLock = new Object();
+    private final AtomicInteger intersectionIds = new AtomicInteger();
 
     public ModuleExclusions(ImmutableModuleIdentifierFactory moduleIdentifierFactory) {
         this.moduleIdentifierFactory = moduleIdentifierFactory;
@@ -269,35 +269,24 @@ public class ModuleExclusions {
                 return one;
             }
 
-            MergeOperation merge = mergeOperation(oneFilters, otherFilters);
-            AbstractModuleExclusion exclusion = mergeCache.get(merge);
+            Long mergeKey = mergeKey(one, other);
+            AbstractModuleExclusion exclusion = mergeCache.get(mergeKey);
             if (exclusion != null) {
                 return exclusion;
             }
-            return mergeAndCacheResult(merge, oneFilters, otherFilters);
+            return mergeAndCacheResult(mergeKey, oneFilters, otherFilters);
         }
         return null;
     }
 
-    private MergeOperation mergeOperation(AbstractModuleExclusion[] one, AbstractModuleExclusion[] two) {
-        synchronized (mergeOperationLock) {
-            Map<AbstractModuleExclusion[], MergeOperation> oneMap = mergeOperationCache.get(one);
-            if (oneMap == null) {
-                oneMap = Maps.newIdentityHashMap();
-                mergeOperationCache.put(one, oneMap);
-
-            }
-            MergeOperation mergeOperation = oneMap.get(two);
-            if (mergeOperation != null) {
-                return mergeOperation;
-            }
-            mergeOperation = new MergeOperation(one, two);
-            oneMap.put(two, mergeOperation);
-            return mergeOperation;
-        }
+    /**
+     * Intersections are interned by {@link #asIntersection(ImmutableSet)}, and each has a unique id, so the pair of ids identifies the filters to merge.
+     */
+    private static Long mergeKey(IntersectionExclusion one, IntersectionExclusion two) {
+        return ((long) one.getId() << 32) | (two.getId() & 0xFFFFFFFFL);
     }
 
-    private AbstractModuleExclusion mergeAndCacheResult(MergeOperation merge, AbstractModuleExclusion[] oneFilters, AbstractModuleExclusion[] otherFilters) {
+    private AbstractModuleExclusion mergeAndCacheResult(Long mergeKey, AbstractModuleExclusion[] oneFilters, AbstractModuleExclusion[] otherFilters) {
         AbstractModuleExclusion exclusion; // Merge the exclude rules from both specs into a single union spec.
         final BitSet remaining = new BitSet(otherFilters.length);
         remaining.set(0, otherFilters.length, true);
@@ -317,14 +306,14 @@ public class ModuleExclusions {
         } else {
             exclusion = asIntersection(ImmutableSet.copyOf(merged));
         }
-        mergeCache.put(merge, exclusion);
+        mergeCache.put(mergeKey, exclusion);
         return exclusion;
     }
 
     private IntersectionExclusion asIntersection(ImmutableSet<AbstractModuleExclusion> excludes) {
         IntersectionExclusion cached = intersectionCache.get(excludes);
         if (cached == null) {
-            cached = new IntersectionExclusion(new ImmutableModuleExclusionSet(excludes));
+            cached = new IntersectionExclusion(new ImmutableModuleExclusionSet(excludes), intersectionIds.getAndIncrement());
             intersectionCache.put(excludes, cached);
         }
         return cached;
@@ -413,37 +402,6 @@ public class ModuleExclusions {
         }
     }
 
-    private static final class MergeOperation {
-        private final AbstractModuleExclusion[] one;
-        private final AbstractModuleExclusion[] two;
-        private final int hashCode;
-
-
-        private MergeOperation(AbstractModuleExclusion[] one, AbstractModuleExclusion[] two) {
-            this.one = one;
-            this.two = two;
-            this.hashCode = 31 * Arrays.hashCode(one) + Arrays.hashCode(two);
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (o == null || getClass() != o.getClass()) {
-                return false;
-            }
-
-            MergeOperation that = (MergeOperation) o;
-            return Arrays.equals(one, that.one) && Arrays.equals(two, that.two);
-        }
-
-        @Override
-        public int hashCode() {
-            return hashCode;
-        }
-    }
-
     private static final class MergeSet extends HashSet<AbstractModuleExclusion> {
         private final BitSet remaining;
         private int idx;
@@ -24,9 +24,11 @@ import org.gradle.api.artifacts.ModuleVersionIdentifier;
 import org.gradle.api.artifacts.component.ComponentIdentifier;
 import org.gradle.api.capabilities.Capability;
 import org.gradle.api.internal.artifacts.ComponentSelectorConverter;
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
 import org.gradle.api.internal.artifacts.ResolveContext;
 import org.gradle.api.internal.artifacts.dsl.ModuleReplacementsData;
 import org.gradle.api.internal.artifacts.ivyservice.dependencysubstitution.DependencySubstitutionApplicator;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelectorScheme;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.ModuleExclusions;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphSelector;
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphVisitor;
@@ -60,6 +62,11 @@ import java.util.List;
 import java.util.Map;
 
 public class DependencyGraphBuilder {
+    /**
+     * When set to true, the metadata of the components of the next level of the graph is resolved in parallel, ahead of the traversal.
+     */
+    public static final String RESOLVE_METADATA_AHEAD_PROPERTY = "org.gradle.internal.resolution.metadata.ahead";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(DependencyGraphBuilder.class);
     private final ModuleConflictHandler moduleConflictHandler;
     private final Spec<? super DependencyMetadata> edgeFilter;
@@ -74,6 +81,9 @@ public class DependencyGraphBuilder {
     private final DependencySubstitutionApplicator dependencySubstitutionApplicator;
     private final ImmutableAttributesFactory attributesFactory;
     private final CapabilitiesConflictHandler capabilitiesConflictHandler;
+    private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
+    private final VersionSelectorScheme versionSelectorScheme;
+    private final boolean resolveMetadataAhead;
 
     public DependencyGraphBuilder(DependencyToComponentIdResolver componentIdResolver, ComponentMetaDataResolver componentMetaDataResolver,
                                   ResolveContextToComponentResolver resolveContextToComponentResolver,
@@ -84,7 +94,8 @@ public class DependencyGraphBuilder {
                                   ModuleExclusions moduleExclusions,
                                   BuildOperationExecutor buildOperationExecutor, ModuleReplacementsData moduleReplacementsData,
                                   DependencySubstitutionApplicator dependencySubstitutionApplicator, ComponentSelectorConverter componentSelectorConverter,
-                                  ImmutableAttributesFactory attributesFactory) {
+                                  ImmutableAttributesFactory attributesFactory, ImmutableModuleIdentifierFactory moduleIdentifierFactory,
+                                  VersionSelectorScheme versionSelectorScheme, boolean resolveMetadataAhead) {
         this.idResolver = componentIdResolver;
         this.metaDataResolver = componentMetaDataResolver;
         this.moduleResolver = resolveContextToComponentResolver;
@@ -98,6 +109,9 @@ public class DependencyGraphBuilder {
         this.componentSelectorConverter = componentSelectorConverter;
         this.attributesFactory = attributesFactory;
         this.capabilitiesConflictHandler = capabilitiesConflictHandler;
+        this.moduleIdentifierFactory = moduleIdentifierFactory;
+        this.versionSelectorScheme = versionSelectorScheme;
+        this.resolveMetadataAhead = resolveMetadataAhead;
     }
 
     public void resolve(final ResolveContext resolveContext, final DependencyGraphVisitor modelVisitor) {
@@ -120,14 +134,19 @@ public class DependencyGraphBuilder {
      * Traverses the dependency graph, resolving conflicts and building the paths from the root configuration.
      */
     private void traverseGraph(final ResolveState resolveState) {
+        new LockedDependenciesPrefetcher(metaDataResolver, buildOperationExecutor).prefetch(resolveState);
         resolveState.onMoreSelected(resolveState.getRoot());
         final List<EdgeState> dependencies = Lists.newArrayList();
         final Map<ModuleVersionIdentifier, ComponentIdentifier> componentIdentifierCache = Maps.newHashMap();
 
         final PendingDependenciesHandler pendingDependenciesHandler = new DefaultPendingDependenciesHandler();
+        final SpeculativeMetadataResolver speculativeMetadataResolver = resolveMetadataAhead ? new SpeculativeMetadataResolver(metaDataResolver, buildOperationExecutor, versionSelectorScheme, moduleIdentifierFactory) : null;
 
         while (resolveState.peek() != null || moduleConflictHandler.hasConflicts() || capabilitiesConflictHandler.hasConflicts()) {
             if (resolveState.peek() != null) {
+                if (speculativeMetadataResolver != null) {
+                    speculativeMetadataResolver.resolveAhead(resolveState);
+                }
                 final NodeState node = resolveState.pop();
                 LOGGER.debug("Visiting configuration {}.", node);
 
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.gradle.api.Action;
+import org.gradle.api.artifacts.DependencyConstraint;
+import org.gradle.api.artifacts.component.ComponentSelector;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentSelector;
+import org.gradle.api.internal.artifacts.dsl.dependencies.DependencyLockingState;
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
+import org.gradle.internal.component.local.model.RootConfigurationMetadata;
+import org.gradle.internal.component.model.DependencyMetadata;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves the metadata of the modules locked by the dependency lock state of the root configuration, concurrently and before the graph is traversed.
+ *
+ * <p>The lock state lists the exact versions that the traversal is going to select, but the traversal only reaches them edge by edge, as it resolves
+ * the components that depend on them. The resolved metadata is kept by the in-memory metadata caches of the repositories, so that the traversal finds
+ * it there. Modules whose metadata is cheap to fetch, for example because it is already cached, are left to the traversal.</p>
+ */
+class LockedDependenciesPrefetcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LockedDependenciesPrefetcher.class);
+
+    private final ComponentMetaDataResolver metaDataResolver;
+    private final BuildOperationExecutor buildOperationExecutor;
+
+    LockedDependenciesPrefetcher(ComponentMetaDataResolver metaDataResolver, BuildOperationExecutor buildOperationExecutor) {
+        this.metaDataResolver = metaDataResolver;
+        this.buildOperationExecutor = buildOperationExecutor;
+    }
+
+    void prefetch(ResolveState resolveState) {
+        RootConfigurationMetadata root = resolveState.getRoot().getMetadata();
+        // The lock state is read when the dependencies of the root configuration are created
+        List<? extends DependencyMetadata> dependencies = root.getDependencies();
+        DependencyLockingState lockingState = root.getDependencyLockingState();
+        if (lockingState == null || !lockingState.hasLockState()) {
+            return;
+        }
+
+        Set<ModuleComponentIdentifier> lockedComponents = Sets.newHashSetWithExpectedSize(lockingState.getLockedDependencies().size());
+        for (DependencyConstraint lockedDependency : lockingState.getLockedDependencies()) {
+            lockedComponents.add(DefaultModuleComponentIdentifier.newId(lockedDependency.getGroup(), lockedDependency.getName(), lockedDependency.getVersionConstraint().getPreferredVersion()));
+        }
+
+        // The locked modules are constraints of the root configuration, which provide the dependency details used to resolve them
+        final List<ResolveMetadataAheadOperation> operations = Lists.newArrayList();
+        for (DependencyMetadata dependency : dependencies) {
+            if (!resolveState.getEdgeFilter().isSatisfiedBy(dependency)) {
+                continue;
+            }
+            ComponentSelector selector = dependency.getSelector();
+            if (!(selector instanceof ModuleComponentSelector)) {
+                continue;
+            }
+            ModuleComponentSelector moduleSelector = (ModuleComponentSelector) selector;
+            ModuleComponentIdentifier componentId = DefaultModuleComponentIdentifier.newId(moduleSelector.getGroup(), moduleSelector.getModule(), moduleSelector.getVersion());
+            if (lockedComponents.remove(componentId) && !metaDataResolver.isFetchingMetadataCheap(componentId)) {
+                operations.add(new ResolveMetadataAheadOperation(metaDataResolver, componentId, dependency));
+            }
+        }
+
+        // Only prefetch if there is more than 1 component to download: a single component will be resolved by the traversal itself
+        if (operations.size() > 1) {
+            LOGGER.debug("Submitting {} metadata files of locked modules to resolve before the traversal", operations.size());
+            buildOperationExecutor.runAll(new Action<BuildOperationQueue<RunnableBuildOperation>>() {
+                @Override
+                public void execute(BuildOperationQueue<RunnableBuildOperation> buildOperationQueue) {
+                    for (ResolveMetadataAheadOperation operation : operations) {
+                        buildOperationQueue.add(operation);
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder;
+
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.internal.component.model.DefaultComponentOverrideMetadata;
+import org.gradle.internal.component.model.DependencyMetadata;
+import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver;
+import org.gradle.internal.resolve.result.DefaultBuildableComponentResolveResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves the metadata of a component before the traversal selects it, so that the traversal finds it in the in-memory metadata caches of the repositories.
+ * Failures are ignored: the traversal reports them, if it needs the component at all.
+ */
+class ResolveMetadataAheadOperation implements RunnableBuildOperation {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResolveMetadataAheadOperation.class);
+
+    private final ComponentMetaDataResolver metaDataResolver;
+    private final ModuleComponentIdentifier componentId;
+    private final DependencyMetadata dependency;
+
+    ResolveMetadataAheadOperation(ComponentMetaDataResolver metaDataResolver, ModuleComponentIdentifier componentId, DependencyMetadata dependency) {
+        this.metaDataResolver = metaDataResolver;
+        this.componentId = componentId;
+        this.dependency = dependency;
+    }
+
+    @Override
+    public void run(BuildOperationContext context) {
+        try {
+            metaDataResolver.resolve(componentId, DefaultComponentOverrideMetadata.forDependency(dependency), new DefaultBuildableComponentResolveResult());
+        } catch (Exception e) {
+            LOGGER.debug("Could not resolve {} ahead of the traversal.", componentId, e);
+        }
+    }
+
+    @Override
+    public BuildOperationDescriptor.Builder description() {
+        return BuildOperationDescriptor.displayName("Resolve " + componentId);
+    }
+}
@@ -152,6 +152,21 @@ class ResolveState implements ComponentStateFactory<ComponentState> {
         return resolveState;
     }
 
+    /**
+     * Returns true if the given version is the current selection for the given module.
+     */
+    boolean isSelected(ModuleIdentifier moduleId, String version) {
+        ModuleResolveState module = modules.get(moduleId);
+        if (module == null || module.getSelected() == null) {
+            return false;
+        }
+        return module.getSelected().getId().getVersion().equals(version);
+    }
+
+    Collection<NodeState> getQueuedNodes() {
+        return queue;
+    }
+
     public NodeState peek() {
         return queue.isEmpty() ? null : queue.getFirst();
     }
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.builder;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import org.gradle.api.Action;
+import org.gradle.api.artifacts.component.ComponentSelector;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentSelector;
+import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory;
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.VersionSelectorScheme;
+import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier;
+import org.gradle.internal.component.model.DependencyMetadata;
+import org.gradle.internal.operations.BuildOperationExecutor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
+import org.gradle.internal.resolve.resolver.ComponentMetaDataResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves the metadata of the components that the graph traversal is likely to visit next, concurrently and ahead of the traversal.
+ *
+ * <p>The traversal visits the graph breadth-first, so the queued nodes form the next level of the graph. The first time a node of a level
+ * is about to be visited, the static module dependencies of all queued nodes are resolved in parallel. The resolved metadata is kept by the
+ * in-memory metadata caches of the repositories, so that the traversal finds it there when it selects the components. Components whose
+ * metadata is cheap to fetch are left to the traversal.</p>
+ *
+ * <p>This is speculative: exclusions, substitutions and conflict resolution are only applied by the traversal, which may end up not using
+ * some of the resolved components. The graph itself is still built serially, so the result does not depend on the order in which the metadata
+ * is resolved.</p>
+ */
+class SpeculativeMetadataResolver {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpeculativeMetadataResolver.class);
+
+    private final ComponentMetaDataResolver metaDataResolver;
+    private final BuildOperationExecutor buildOperationExecutor;
+    private final VersionSelectorScheme versionSelectorScheme;
+    private final ImmutableModuleIdentifierFactory moduleIdentifierFactory;
+    private final Set<NodeState> expandedNodes = Sets.newHashSet();
+    private final Set<ModuleComponentIdentifier> requestedComponents = Sets.newHashSet();
+
+    SpeculativeMetadataResolver(ComponentMetaDataResolver metaDataResolver, BuildOperationExecutor buildOperationExecutor, VersionSelectorScheme versionSelectorScheme, ImmutableModuleIdentifierFactory moduleIdentifierFactory) {
+        this.metaDataResolver = metaDataResolver;
+        this.buildOperationExecutor = buildOperationExecutor;
+        this.versionSelectorScheme = versionSelectorScheme;
+        this.moduleIdentifierFactory = moduleIdentifierFactory;
+    }
+
+    /**
+     * Resolves the dependencies of the queued nodes, unless this was already done when the next node was queued.
+     */
+    void resolveAhead(ResolveState resolveState) {
+        if (expandedNodes.contains(resolveState.peek())) {
+            return;
+        }
+        final List<ResolveMetadataAheadOperation> operations = Lists.newArrayList();
+        for (NodeState node : resolveState.getQueuedNodes()) {
+            if (expandedNodes.add(node) && node.getComponent().isSelected()) {
+                collectDependencies(resolveState, node, operations);
+            }
+        }
+        // Only resolve ahead if there is more than 1 component to download: a single component will be resolved by the traversal itself
+        if (operations.size() > 1) {
+            LOGGER.debug("Submitting {} metadata files to resolve ahead of the traversal", operations.size());
+            buildOperationExecutor.runAll(new Action<BuildOperationQueue<RunnableBuildOperation>>() {
+                @Override
+                public void execute(BuildOperationQueue<RunnableBuildOperation> buildOperationQueue) {
+                    for (ResolveMetadataAheadOperation operation : operations) {
+                        buildOperationQueue.add(operation);
+                    }
+                }
+            });
+        }
+    }
+
+    private void collectDependencies(ResolveState resolveState, NodeState node, List<ResolveMetadataAheadOperation> operations) {
+        for (DependencyMetadata dependency : node.getMetadata().getDependencies()) {
+            if (!resolveState.getEdgeFilter().isSatisfiedBy(dependency)) {
+                continue;
+            }
+            ComponentSelector selector = dependency.getSelector();
+            if (!(selector instanceof ModuleComponentSelector)) {
+                continue;
+            }
+            ModuleComponentSelector moduleSelector = (ModuleComponentSelector) selector;
+            String version = moduleSelector.getVersion();
+            if (version.isEmpty() || versionSelectorScheme.parseSelector(version).isDynamic()) {
+                // Only the traversal can tell which version will be selected
+                continue;
+            }
+            if (resolveState.isSelected(moduleIdentifierFactory.module(moduleSelector.getGroup(), moduleSelector.getModule()), version)) {
+                // The traversal resolves the selected version itself
+                continue;
+            }
+            ModuleComponentIdentifier componentId = new DefaultModuleComponentIdentifier(moduleSelector.getGroup(), moduleSelector.getModule(), version);
+            if (requestedComponents.add(componentId) && !metaDataResolver.isFetchingMetadataCheap(componentId)) {
+                operations.add(new ResolveMetadataAheadOperation(metaDataResolver, componentId, dependency));
+            }
+        }
+    }
+}
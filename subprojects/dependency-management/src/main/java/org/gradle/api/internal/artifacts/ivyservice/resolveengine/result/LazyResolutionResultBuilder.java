@@ -0,0 +1,303 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.result;
+
+import org.gradle.api.artifacts.ModuleVersionIdentifier;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.component.ComponentSelector;
+import org.gradle.api.artifacts.result.ComponentSelectionReason;
+import org.gradle.api.artifacts.result.ResolutionResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.artifacts.result.ResolvedDependencyResult;
+import org.gradle.api.artifacts.result.ResolvedVariantResult;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.ComponentResult;
+import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyResult;
+import org.gradle.api.internal.artifacts.result.DefaultResolutionResult;
+import org.gradle.api.internal.artifacts.result.DefaultResolvedDependencyResult;
+import org.gradle.api.internal.artifacts.result.DefaultResolvedVariantResult;
+import org.gradle.api.internal.artifacts.result.DefaultUnresolvedDependencyResult;
+import org.gradle.internal.Factory;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Builds a {@link ResolutionResult} that only keeps the components and edges as they were read, and creates the {@link ResolvedComponentResult}
+ * and {@link org.gradle.api.artifacts.result.DependencyResult} views of a component when it is reached while navigating the graph.
+ *
+ * <p>Unlike {@link DefaultResolutionResultBuilder}, using the direct dependencies of the root of a large graph does not create the views of all its components.
+ * The views that were created are kept, so that navigating the graph again returns the same instances.</p>
+ *
+ * <p>The records read for a component are released when its view is created, and the records of its edges when its dependencies and dependents are
+ * created. After the whole graph has been navigated, only the views are retained, as with {@link DefaultResolutionResultBuilder}.</p>
+ */
+public class LazyResolutionResultBuilder {
+    private final Map<Long, ComponentResult> components = new HashMap<Long, ComponentResult>();
+    private final Map<Long, List<DependencyResult>> outgoingEdges = new HashMap<Long, List<DependencyResult>>();
+    private final Map<Long, List<IncomingEdge>> incomingEdges = new HashMap<Long, List<IncomingEdge>>();
+
+    public ResolutionResult complete(Long rootId) {
+        return new DefaultResolutionResult(new RootFactory(new Graph(components, outgoingEdges, incomingEdges).getComponent(rootId)));
+    }
+
+    public void visitComponent(ComponentResult component) {
+        if (!components.containsKey(component.getResultId())) {
+            components.put(component.getResultId(), component);
+        }
+    }
+
+    public void visitOutgoingEdges(Long fromComponent, Collection<? extends DependencyResult> dependencies) {
+        List<DependencyResult> edges = outgoingEdges.get(fromComponent);
+        if (edges == null) {
+            edges = new ArrayList<DependencyResult>(dependencies.size());
+            outgoingEdges.put(fromComponent, edges);
+        }
+        for (DependencyResult dependency : dependencies) {
+            edges.add(dependency);
+            if (dependency.getFailure() == null) {
+                List<IncomingEdge> incoming = incomingEdges.get(dependency.getSelected());
+                if (incoming == null) {
+                    incoming = new ArrayList<IncomingEdge>(2);
+                    incomingEdges.put(dependency.getSelected(), incoming);
+                }
+                incoming.add(new IncomingEdge(fromComponent, dependency.getRequested()));
+            }
+        }
+    }
+
+    private static class IncomingEdge {
+        private final Long from;
+        private final ComponentSelector requested;
+
+        IncomingEdge(Long from, ComponentSelector requested) {
+            this.from = from;
+            this.requested = requested;
+        }
+    }
+
+    private static class Graph {
+        private Map<Long, ComponentResult> components;
+        private Map<Long, List<DependencyResult>> outgoingEdges;
+        private Map<Long, List<IncomingEdge>> incomingEdges;
+        // Views whose dependencies or dependents have not been created yet
+        private Map<Long, LazyResolvedComponentResult> views = new HashMap<Long, LazyResolvedComponentResult>();
+        // Edges that were created for one of their ends only
+        private Map<EdgeKey, ResolvedDependencyResult> halfLinkedEdges = new HashMap<EdgeKey, ResolvedDependencyResult>();
+
+        Graph(Map<Long, ComponentResult> components, Map<Long, List<DependencyResult>> outgoingEdges, Map<Long, List<IncomingEdge>> incomingEdges) {
+            this.components = components;
+            this.outgoingEdges = outgoingEdges;
+            this.incomingEdges = incomingEdges;
+        }
+
+        synchronized LazyResolvedComponentResult getComponent(Long id) {
+            LazyResolvedComponentResult view = views.get(id);
+            if (view == null) {
+                view = new LazyResolvedComponentResult(this, components.remove(id));
+                views.put(id, view);
+            }
+            return view;
+        }
+
+        synchronized Set<org.gradle.api.artifacts.result.DependencyResult> getDependencies(LazyResolvedComponentResult from) {
+            if (from.dependencies == null) {
+                from.dependencies = createDependencies(from);
+                maybeRelease(from);
+            }
+            return from.dependencies;
+        }
+
+        synchronized Set<ResolvedDependencyResult> getDependents(LazyResolvedComponentResult selected) {
+            if (selected.dependents == null) {
+                selected.dependents = createDependents(selected);
+                maybeRelease(selected);
+            }
+            return selected.dependents;
+        }
+
+        private Set<org.gradle.api.artifacts.result.DependencyResult> createDependencies(LazyResolvedComponentResult from) {
+            List<DependencyResult> edges = outgoingEdges.remove(from.resultId);
+            if (edges == null) {
+                return Collections.emptySet();
+            }
+            Map<EdgeKey, org.gradle.api.artifacts.result.DependencyResult> dependencies = new LinkedHashMap<EdgeKey, org.gradle.api.artifacts.result.DependencyResult>(edges.size());
+            for (DependencyResult edge : edges) {
+                EdgeKey key = new EdgeKey(edge.getRequested(), from.resultId, edge.getSelected());
+                if (dependencies.containsKey(key)) {
+                    continue;
+                }
+                if (edge.getFailure() != null) {
+                    dependencies.put(key, new DefaultUnresolvedDependencyResult(edge.getRequested(), edge.getReason(), from, edge.getFailure()));
+                } else {
+                    ResolvedDependencyResult dependency = halfLinkedEdges.remove(key);
+                    if (dependency == null) {
+                        dependency = new DefaultResolvedDependencyResult(edge.getRequested(), getComponent(edge.getSelected()), from);
+                        halfLinkedEdges.put(key, dependency);
+                    }
+                    dependencies.put(key, dependency);
+                }
+            }
+            return new LinkedHashSet<org.gradle.api.artifacts.result.DependencyResult>(dependencies.values());
+        }
+
+        private Set<ResolvedDependencyResult> createDependents(LazyResolvedComponentResult selected) {
+            List<IncomingEdge> edges = incomingEdges.remove(selected.resultId);
+            if (edges == null) {
+                return Collections.emptySet();
+            }
+            Map<EdgeKey, ResolvedDependencyResult> dependents = new LinkedHashMap<EdgeKey, ResolvedDependencyResult>(edges.size());
+            for (IncomingEdge edge : edges) {
+                EdgeKey key = new EdgeKey(edge.requested, edge.from, selected.resultId);
+                if (dependents.containsKey(key)) {
+                    continue;
+                }
+                ResolvedDependencyResult dependent = halfLinkedEdges.remove(key);
+                if (dependent == null) {
+                    dependent = new DefaultResolvedDependencyResult(edge.requested, selected, getComponent(edge.from));
+                    halfLinkedEdges.put(key, dependent);
+                }
+                dependents.put(key, dependent);
+            }
+            return new LinkedHashSet<ResolvedDependencyResult>(dependents.values());
+        }
+
+        /**
+         * Once both sides of a view have been created, every edge of the component is either complete or waiting in {@link #halfLinkedEdges}, so the view
+         * is no longer looked up by id.
+         */
+        private void maybeRelease(LazyResolvedComponentResult view) {
+            if (view.dependencies != null && view.dependents != null) {
+                views.remove(view.resultId);
+                if (views.isEmpty() && components.isEmpty()) {
+                    // The whole graph has been navigated, drop the tables that were sized for it
+                    components = new HashMap<Long, ComponentResult>();
+                    outgoingEdges = new HashMap<Long, List<DependencyResult>>();
+                    incomingEdges = new HashMap<Long, List<IncomingEdge>>();
+                    views = new HashMap<Long, LazyResolvedComponentResult>();
+                    halfLinkedEdges = new HashMap<EdgeKey, ResolvedDependencyResult>();
+                }
+            }
+        }
+    }
+
+    private static class EdgeKey {
+        private final ComponentSelector requested;
+        private final long from;
+        private final Long selected;
+
+        EdgeKey(ComponentSelector requested, long from, @Nullable Long selected) {
+            this.requested = requested;
+            this.from = from;
+            this.selected = selected;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            EdgeKey other = (EdgeKey) o;
+            return requested.equals(other.requested)
+                && from == other.from
+                && (selected == null ? other.selected == null : selected.equals(other.selected));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = requested.hashCode();
+            result = 31 * result + (int) (from ^ (from >>> 32));
+            result = 31 * result + (selected != null ? selected.hashCode() : 0);
+            return result;
+        }
+    }
+
+    private static class LazyResolvedComponentResult implements ResolvedComponentResult {
+        private final Graph graph;
+        private final long resultId;
+        private final ModuleVersionIdentifier moduleVersion;
+        private final ComponentSelectionReason selectionReason;
+        private final ComponentIdentifier componentId;
+        private final ResolvedVariantResult variant;
+        private volatile Set<org.gradle.api.artifacts.result.DependencyResult> dependencies;
+        private volatile Set<ResolvedDependencyResult> dependents;
+
+        LazyResolvedComponentResult(Graph graph, ComponentResult component) {
+            this.graph = graph;
+            this.resultId = component.getResultId();
+            this.moduleVersion = component.getModuleVersion();
+            this.selectionReason = component.getSelectionReason();
+            this.componentId = component.getComponentId();
+            this.variant = new DefaultResolvedVariantResult(component.getVariantName(), component.getVariantAttributes());
+        }
+
+        public ComponentIdentifier getId() {
+            return componentId;
+        }
+
+        public Set<org.gradle.api.artifacts.result.DependencyResult> getDependencies() {
+            Set<org.gradle.api.artifacts.result.DependencyResult> dependencies = this.dependencies;
+            return Collections.unmodifiableSet(dependencies != null ? dependencies : graph.getDependencies(this));
+        }
+
+        public Set<ResolvedDependencyResult> getDependents() {
+            Set<ResolvedDependencyResult> dependents = this.dependents;
+            return Collections.unmodifiableSet(dependents != null ? dependents : graph.getDependents(this));
+        }
+
+        public ComponentSelectionReason getSelectionReason() {
+            return selectionReason;
+        }
+
+        @Nullable
+        public ModuleVersionIdentifier getModuleVersion() {
+            return moduleVersion;
+        }
+
+        @Override
+        public ResolvedVariantResult getVariant() {
+            return variant;
+        }
+
+        @Override
+        public String toString() {
+            return getId().getDisplayName();
+        }
+    }
+
+    private static class RootFactory implements Factory<ResolvedComponentResult> {
+        private final ResolvedComponentResult root;
+
+        RootFactory(ResolvedComponentResult root) {
+            this.root = root;
+        }
+
+        public ResolvedComponentResult create() {
+            return root;
+        }
+    }
+}
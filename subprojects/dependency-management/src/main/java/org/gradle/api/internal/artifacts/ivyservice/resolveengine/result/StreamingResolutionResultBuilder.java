@@ -190,7 +190,7 @@ public class StreamingResolutionResultBuilder implements DependencyGraphVisitor
             byte type = -1;
             Timer clock = Time.startTimer();
             try {
-                DefaultResolutionResultBuilder builder = new DefaultResolutionResultBuilder();
+                LazyResolutionResultBuilder builder = new LazyResolutionResultBuilder();
                 Map<Long, ComponentSelector> selectors = new HashMap<Long, ComponentSelector>();
                 componentResultSerializer.reset();
                 dependencyResultSerializer.reset();
@@ -54,8 +54,12 @@ class ArtifactTransformingVisitor implements ArtifactVisitor {
             return;
         }
 
-        ResolvedArtifact sourceArtifact = artifact.toPublicView();
         List<File> transformedFiles = operation.getResult();
+        if (transformedFiles == null) {
+            // Not transformed, as the queue stopped before the transform ran. The failure that stopped the queue is reported instead
+            return;
+        }
+        ResolvedArtifact sourceArtifact = artifact.toPublicView();
         TaskDependency buildDependencies = ((Buildable) artifact).getBuildDependencies();
 
         for (File output : transformedFiles) {
@@ -90,6 +94,9 @@ class ArtifactTransformingVisitor implements ArtifactVisitor {
         }
 
         List<File> result = operation.getResult();
+        if (result == null) {
+            return;
+        }
         for (File outputFile : result) {
             visitor.visitFile(new ComponentFileArtifactIdentifier(artifactIdentifier.getComponentIdentifier(), outputFile.getName()), variantName, target, outputFile);
         }
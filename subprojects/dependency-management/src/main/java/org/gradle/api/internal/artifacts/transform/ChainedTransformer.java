@@ -30,6 +30,14 @@ class ChainedTransformer implements ArtifactTransformer {
         this.second = second;
     }
 
+    ArtifactTransformer getFirst() {
+        return first;
+    }
+
+    ArtifactTransformer getSecond() {
+        return second;
+    }
+
     @Override
     public List<File> transform(File file) {
         List<File> result = new ArrayList<File>();
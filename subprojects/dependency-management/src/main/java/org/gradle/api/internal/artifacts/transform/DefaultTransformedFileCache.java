@@ -43,6 +43,7 @@ import org.gradle.internal.serialize.HashCodeSerializer;
 import org.gradle.internal.serialize.ListSerializer;
 import org.gradle.internal.util.BiFunction;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.List;
 import java.util.Map;
@@ -53,11 +54,17 @@ import static org.gradle.api.internal.artifacts.ivyservice.CacheLayout.TRANSFORM
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode;
 
 public class DefaultTransformedFileCache implements TransformedFileCache, Stoppable, RootBuildLifecycleListener {
+    // The coarsest last modified time resolution of the common file systems
+    private static final long FILE_TIMESTAMP_RESOLUTION_MILLIS = 1000;
+
     private final PersistentCache cache;
     private final PersistentIndexedCache<HashCode, List<File>> indexedCache;
     private final FileStore<String> fileStore;
     private final ProducerGuard<CacheKey> producing = ProducerGuard.adaptive();
     private final Map<CacheKey, List<File>> resultHashToResult = new ConcurrentHashMap<CacheKey, List<File>>();
+    private final Map<CacheKey, List<File>> previousBuildResults = new ConcurrentHashMap<CacheKey, List<File>>();
+    private final Map<File, InputFileSnapshot> inputFileSnapshots = new ConcurrentHashMap<File, InputFileSnapshot>();
+    private final Map<File, InputFileSnapshot> previousBuildInputFileSnapshots = new ConcurrentHashMap<File, InputFileSnapshot>();
     private final FileSystemSnapshotter fileSystemSnapshotter;
 
     public DefaultTransformedFileCache(ArtifactCacheMetadata artifactCacheMetadata, CacheRepository cacheRepository, InMemoryCacheDecoratorFactory cacheDecoratorFactory, FileSystemSnapshotter fileSystemSnapshotter) {
@@ -88,25 +95,47 @@ public class DefaultTransformedFileCache implements TransformedFileCache, Stoppa
 
     @Override
     public void beforeComplete() {
-        // Discard cached results between builds
+        // Keep the results used by this build for the next build, as their files may have been removed in between they are checked again before use
+        previousBuildResults.clear();
+        previousBuildResults.putAll(resultHashToResult);
         resultHashToResult.clear();
+        previousBuildInputFileSnapshots.clear();
+        previousBuildInputFileSnapshots.putAll(inputFileSnapshots);
+        inputFileSnapshots.clear();
     }
 
     @Override
     public boolean contains(File absoluteFile, HashCode inputsHash) {
-        return resultHashToResult.containsKey(getCacheKey(absoluteFile, inputsHash));
+        return getCachedResult(getCacheKey(absoluteFile, inputsHash)) != null;
     }
 
     @Override
     public List<File> getResult(final File inputFile, HashCode inputsHash, final BiFunction<List<File>, File, File> transformer) {
         final CacheKey resultHash = getCacheKey(inputFile, inputsHash);
-        List<File> files = resultHashToResult.get(resultHash);
+        List<File> files = getCachedResult(resultHash);
         if (files != null) {
             return files;
         }
         return loadIntoCache(inputFile, resultHash, transformer);
     }
 
+    /**
+     * Returns the in-memory result for the given key, from this build or from the previous build. Does not lock the cache.
+     */
+    @Nullable
+    private List<File> getCachedResult(CacheKey cacheKey) {
+        List<File> files = resultHashToResult.get(cacheKey);
+        if (files != null) {
+            return files;
+        }
+        files = previousBuildResults.get(cacheKey);
+        if (files != null && allExist(files)) {
+            resultHashToResult.put(cacheKey, files);
+            return files;
+        }
+        return null;
+    }
+
     /*
      * Loads the transformed files from the file system cache into memory. Creates them if they are not present yet.
      * This makes sure that only one thread tries to load a result for a given key.
@@ -124,17 +153,8 @@ public class DefaultTransformedFileCache implements TransformedFileCache, Stoppa
                     public List<File> create() {
                         HashCode persistentCacheKey = cacheKey.getPersistentCacheKey();
                         List<File> files = indexedCache.get(persistentCacheKey);
-                        if (files != null) {
-                            boolean allExist = true;
-                            for (File file : files) {
-                                if (!file.exists()) {
-                                    allExist = false;
-                                    break;
-                                }
-                            }
-                            if (allExist) {
-                                return files;
-                            }
+                        if (files != null && allExist(files)) {
+                            return files;
                         }
 
                         String key = inputFile.getName() + "/" + persistentCacheKey;
@@ -156,9 +176,63 @@ public class DefaultTransformedFileCache implements TransformedFileCache, Stoppa
         });
     }
 
+    private static boolean allExist(List<File> files) {
+        for (File file : files) {
+            if (!file.exists()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private CacheKey getCacheKey(File inputFile, HashCode inputsHash) {
-        Snapshot inputFileSnapshot = fileSystemSnapshotter.snapshotAll(inputFile);
-        return new CacheKey(inputFileSnapshot, inputsHash);
+        return new CacheKey(snapshot(inputFile), inputsHash);
+    }
+
+    /*
+     * Reuses the snapshot of an input file taken by this build or the previous one when the length and the last modified time of the file have not changed.
+     * This is the same check the file hasher uses to reuse the hash of a file. Directories are snapshotted every time.
+     */
+    private Snapshot snapshot(File inputFile) {
+        if (!inputFile.isFile()) {
+            return fileSystemSnapshotter.snapshotAll(inputFile);
+        }
+        long length = inputFile.length();
+        long lastModified = inputFile.lastModified();
+        InputFileSnapshot previous = inputFileSnapshots.get(inputFile);
+        if (previous == null) {
+            previous = previousBuildInputFileSnapshots.get(inputFile);
+        }
+        if (previous != null && previous.isUpToDate(length, lastModified)) {
+            inputFileSnapshots.put(inputFile, previous);
+            return previous.snapshot;
+        }
+        long snapshotTime = System.currentTimeMillis();
+        Snapshot snapshot = fileSystemSnapshotter.snapshotAll(inputFile);
+        inputFileSnapshots.put(inputFile, new InputFileSnapshot(snapshot, length, lastModified, snapshotTime));
+        return snapshot;
+    }
+
+    private static class InputFileSnapshot {
+        private final Snapshot snapshot;
+        private final long length;
+        private final long lastModified;
+        private final long snapshotTime;
+
+        InputFileSnapshot(Snapshot snapshot, long length, long lastModified, long snapshotTime) {
+            this.snapshot = snapshot;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.snapshotTime = snapshotTime;
+        }
+
+        /**
+         * A file modified shortly before the snapshot was taken may be rewritten afterwards with the same length and last modified time,
+         * so such a snapshot is never reused.
+         */
+        boolean isUpToDate(long length, long lastModified) {
+            return this.length == length && this.lastModified == lastModified && lastModified + FILE_TIMESTAMP_RESOLUTION_MILLIS <= snapshotTime;
+        }
     }
 
     /**
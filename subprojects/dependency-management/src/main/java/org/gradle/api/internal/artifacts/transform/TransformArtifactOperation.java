@@ -17,43 +17,19 @@
 package org.gradle.api.internal.artifacts.transform;
 
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.artifact.ResolvableArtifact;
-import org.gradle.internal.operations.BuildOperationContext;
+import org.gradle.internal.operations.BuildOperationQueue;
 import org.gradle.internal.operations.RunnableBuildOperation;
-import org.gradle.internal.operations.BuildOperationDescriptor;
 
-import java.io.File;
-import java.util.List;
-
-class TransformArtifactOperation implements RunnableBuildOperation {
+class TransformArtifactOperation extends TransformFileOperation {
     private final ResolvableArtifact artifact;
-    private final ArtifactTransformer transform;
-    private Throwable failure;
-    private List<File> result;
 
-    TransformArtifactOperation(ResolvableArtifact artifact, ArtifactTransformer transform) {
+    TransformArtifactOperation(ResolvableArtifact artifact, ArtifactTransformer transform, BuildOperationQueue<RunnableBuildOperation> queue) {
+        super(artifact.getFile(), transform, queue);
         this.artifact = artifact;
-        this.transform = transform;
-    }
-
-    @Override
-    public void run(BuildOperationContext context) {
-        try {
-            result = transform.transform(artifact.getFile());
-        } catch (Throwable t) {
-            failure = t;
-        }
     }
 
     @Override
-    public BuildOperationDescriptor.Builder description() {
-        return BuildOperationDescriptor.displayName("Apply " + transform.getDisplayName() + " to " + artifact);
-    }
-
-    public Throwable getFailure() {
-        return failure;
-    }
-
-    public List<File> getResult() {
-        return result;
+    protected Object getSubject() {
+        return artifact;
     }
 }
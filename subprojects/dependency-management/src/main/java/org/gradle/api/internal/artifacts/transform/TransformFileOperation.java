@@ -17,42 +17,119 @@
 package org.gradle.api.internal.artifacts.transform;
 
 import org.gradle.internal.operations.BuildOperationContext;
-import org.gradle.internal.operations.RunnableBuildOperation;
 import org.gradle.internal.operations.BuildOperationDescriptor;
+import org.gradle.internal.operations.BuildOperationQueue;
+import org.gradle.internal.operations.RunnableBuildOperation;
 
+import javax.annotation.Nullable;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Applies a single step of a transform to a file. When the transform is a chain, the next step is scheduled for each of the
+ * produced files as soon as this step completes, so that the steps of a chain are pipelined per file rather than run one
+ * after the other in a single operation.
+ */
 class TransformFileOperation implements RunnableBuildOperation {
     private final File file;
-    private final ArtifactTransformer transform;
+    private final List<ArtifactTransformer> steps;
+    private final int step;
+    private final BuildOperationQueue<RunnableBuildOperation> queue;
     private Throwable failure;
     private List<File> result;
+    private List<TransformFileOperation> nextSteps;
+
+    TransformFileOperation(File file, ArtifactTransformer transform, BuildOperationQueue<RunnableBuildOperation> queue) {
+        this(file, stepsOf(transform), 0, queue);
+    }
 
-    TransformFileOperation(File file, ArtifactTransformer transform) {
+    private TransformFileOperation(File file, List<ArtifactTransformer> steps, int step, BuildOperationQueue<RunnableBuildOperation> queue) {
         this.file = file;
-        this.transform = transform;
+        this.steps = steps;
+        this.step = step;
+        this.queue = queue;
+    }
+
+    /**
+     * Runs this operation immediately when its result is cached, otherwise adds it to the queue.
+     */
+    void schedule() {
+        if (steps.get(step).hasCachedResult(file)) {
+            run(null);
+        } else {
+            queue.add(this);
+        }
     }
 
     @Override
     public void run(BuildOperationContext context) {
         try {
-            result = transform.transform(file);
+            result = steps.get(step).transform(file);
         } catch (Throwable t) {
             failure = t;
+            return;
+        }
+        if (step + 1 < steps.size()) {
+            nextSteps = new ArrayList<TransformFileOperation>(result.size());
+            for (File intermediate : result) {
+                nextSteps.add(new TransformFileOperation(intermediate, steps, step + 1, queue));
+            }
+            for (TransformFileOperation nextStep : nextSteps) {
+                nextStep.schedule();
+            }
         }
     }
 
     @Override
     public BuildOperationDescriptor.Builder description() {
-        return BuildOperationDescriptor.displayName("Apply " + transform.getDisplayName() + " to " + file);
+        return BuildOperationDescriptor.displayName("Apply " + steps.get(step).getDisplayName() + " to " + (step == 0 ? getSubject() : file));
+    }
+
+    protected Object getSubject() {
+        return file;
     }
 
     public Throwable getFailure() {
-        return failure;
+        if (failure != null || nextSteps == null) {
+            return failure;
+        }
+        for (TransformFileOperation nextStep : nextSteps) {
+            Throwable nextStepFailure = nextStep.getFailure();
+            if (nextStepFailure != null) {
+                return nextStepFailure;
+            }
+        }
+        return null;
     }
 
+    /**
+     * Returns the files produced by the last step of the chain. Steps that did not run, because the queue was cancelled or failed before
+     * they were executed, have no result and are skipped, so that the failure that stopped the queue is the one reported.
+     */
+    @Nullable
     public List<File> getResult() {
-        return result;
+        if (nextSteps == null) {
+            return result;
+        }
+        List<File> files = new ArrayList<File>();
+        for (TransformFileOperation nextStep : nextSteps) {
+            List<File> nextStepResult = nextStep.getResult();
+            if (nextStepResult != null) {
+                files.addAll(nextStepResult);
+            }
+        }
+        return files;
+    }
+
+    private static List<ArtifactTransformer> stepsOf(ArtifactTransformer transform) {
+        if (!(transform instanceof ChainedTransformer)) {
+            return Collections.singletonList(transform);
+        }
+        ChainedTransformer chain = (ChainedTransformer) transform;
+        List<ArtifactTransformer> steps = new ArrayList<ArtifactTransformer>(stepsOf(chain.getFirst()));
+        steps.addAll(stepsOf(chain.getSecond()));
+        return steps;
     }
 }
@@ -41,13 +41,9 @@ class TransformingAsyncArtifactListener implements ResolvedArtifactSet.AsyncArti
 
     @Override
     public void artifactAvailable(ResolvableArtifact artifact) {
-        TransformArtifactOperation operation = new TransformArtifactOperation(artifact, transform);
+        TransformArtifactOperation operation = new TransformArtifactOperation(artifact, transform, actions);
         artifactResults.put(artifact, operation);
-        if (transform.hasCachedResult(artifact.getFile())) {
-            operation.run(null);
-        } else {
-            actions.add(operation);
-        }
+        operation.schedule();
     }
 
     @Override
@@ -63,12 +59,8 @@ class TransformingAsyncArtifactListener implements ResolvedArtifactSet.AsyncArti
 
     @Override
     public void fileAvailable(File file) {
-        TransformFileOperation operation = new TransformFileOperation(file, transform);
+        TransformFileOperation operation = new TransformFileOperation(file, transform, actions);
         fileResults.put(file, operation);
-        if (transform.hasCachedResult(file)) {
-            operation.run(null);
-        } else {
-            actions.add(operation);
-        }
+        operation.schedule();
     }
 }
@@ -27,9 +27,9 @@ public class DefaultAttributeMatchingStrategy<T> implements AttributeMatchingStr
     private final CompatibilityRuleChain<T> compatibilityRules;
     private final DisambiguationRuleChain<T> disambiguationRules;
 
-    public DefaultAttributeMatchingStrategy(InstantiatorFactory instantiatorFactory) {
-        compatibilityRules = Cast.uncheckedCast(instantiatorFactory.decorate().newInstance(DefaultCompatibilityRuleChain.class, instantiatorFactory.inject()));
-        disambiguationRules = Cast.uncheckedCast(instantiatorFactory.decorate().newInstance(DefaultDisambiguationRuleChain.class, instantiatorFactory.inject()));
+    public DefaultAttributeMatchingStrategy(InstantiatorFactory instantiatorFactory, Runnable changeListener) {
+        compatibilityRules = Cast.uncheckedCast(instantiatorFactory.decorate().newInstance(DefaultCompatibilityRuleChain.class, instantiatorFactory.inject(), changeListener));
+        disambiguationRules = Cast.uncheckedCast(instantiatorFactory.decorate().newInstance(DefaultDisambiguationRuleChain.class, instantiatorFactory.inject(), changeListener));
     }
 
     @Override
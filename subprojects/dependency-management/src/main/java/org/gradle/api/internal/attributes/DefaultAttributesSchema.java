@@ -16,6 +16,7 @@
 
 package org.gradle.api.internal.attributes;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
 import org.gradle.api.Action;
 import org.gradle.api.attributes.Attribute;
@@ -23,6 +24,8 @@ import org.gradle.api.attributes.AttributeMatchingStrategy;
 import org.gradle.api.attributes.AttributesSchema;
 import org.gradle.api.attributes.HasAttributes;
 import org.gradle.api.internal.InstantiatorFactory;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
 import org.gradle.internal.Cast;
 import org.gradle.internal.component.model.AttributeMatcher;
 import org.gradle.internal.component.model.AttributeSelectionSchema;
@@ -31,24 +34,47 @@ import org.gradle.internal.component.model.DefaultCompatibilityCheckResult;
 import org.gradle.internal.component.model.DefaultMultipleCandidateResult;
 
 import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The attributes schema of a project.
+ *
+ * <p>The matchers returned by this schema remember the result of each match, as matching runs the compatibility and disambiguation rules, which are
+ * often user code, for every candidate. A matcher is reused for all the matches against the same producer schema, and discarded when the rules of this
+ * schema or of the producer schema change.</p>
+ */
+public class DefaultAttributesSchema implements AttributesSchemaInternal, AttributesSchema, Closeable {
+    private static final Logger LOGGER = Logging.getLogger(DefaultAttributesSchema.class);
 
-public class DefaultAttributesSchema implements AttributesSchemaInternal, AttributesSchema {
     private final ComponentAttributeMatcher componentAttributeMatcher;
     private final InstantiatorFactory instantiatorFactory;
     private final Map<Attribute<?>, AttributeMatchingStrategy<?>> strategies = Maps.newHashMap();
     private final Map<String, Attribute<?>> attributesByName = Maps.newHashMap();
 
-    private final DefaultAttributeMatcher matcher;
+    private final ConcurrentMap<AttributesSchemaInternal, DefaultAttributeMatcher> matchers = Maps.newConcurrentMap();
+    private final AtomicInteger generation = new AtomicInteger();
+    private final Runnable changeListener = new Runnable() {
+        @Override
+        public void run() {
+            generation.incrementAndGet();
+        }
+    };
+    private final AtomicLong cachedMatches = new AtomicLong();
+    private final AtomicLong computedMatches = new AtomicLong();
 
     public DefaultAttributesSchema(ComponentAttributeMatcher componentAttributeMatcher, InstantiatorFactory instantiatorFactory) {
         this.componentAttributeMatcher = componentAttributeMatcher;
         this.instantiatorFactory = instantiatorFactory;
-        matcher = new DefaultAttributeMatcher(componentAttributeMatcher, mergeWith(EmptySchema.INSTANCE));
     }
 
     @Override
@@ -69,9 +95,10 @@ public class DefaultAttributesSchema implements AttributesSchemaInternal, Attrib
     public <T> AttributeMatchingStrategy<T> attribute(Attribute<T> attribute, Action<? super AttributeMatchingStrategy<T>> configureAction) {
         AttributeMatchingStrategy<T> strategy = Cast.uncheckedCast(strategies.get(attribute));
         if (strategy == null) {
-            strategy = Cast.uncheckedCast(instantiatorFactory.decorate().newInstance(DefaultAttributeMatchingStrategy.class, instantiatorFactory));
+            strategy = Cast.uncheckedCast(instantiatorFactory.decorate().newInstance(DefaultAttributeMatchingStrategy.class, instantiatorFactory, changeListener));
             strategies.put(attribute, strategy);
             attributesByName.put(attribute.getName(), attribute);
+            changeListener.run();
         }
         if (configureAction != null) {
             configureAction.execute(strategy);
@@ -95,12 +122,32 @@ public class DefaultAttributesSchema implements AttributesSchemaInternal, Attrib
 
     @Override
     public AttributeMatcher withProducer(AttributesSchemaInternal producerSchema) {
-        return new DefaultAttributeMatcher(componentAttributeMatcher, mergeWith(producerSchema));
+        int consumerGeneration = generation.get();
+        int producerGeneration = generationOf(producerSchema);
+        DefaultAttributeMatcher matcher = matchers.get(producerSchema);
+        if (matcher == null || matcher.consumerGeneration != consumerGeneration || matcher.producerGeneration != producerGeneration) {
+            matcher = new DefaultAttributeMatcher(componentAttributeMatcher, mergeWith(producerSchema), consumerGeneration, producerGeneration);
+            matchers.put(producerSchema, matcher);
+        }
+        return matcher;
+    }
+
+    private static int generationOf(AttributesSchemaInternal schema) {
+        // Other schemas cannot be changed
+        if (schema instanceof DefaultAttributesSchema) {
+            return ((DefaultAttributesSchema) schema).generation.get();
+        }
+        return 0;
     }
 
     @Override
     public AttributeMatcher matcher() {
-        return matcher;
+        return withProducer(EmptySchema.INSTANCE);
+    }
+
+    @Override
+    public void close() {
+        LOGGER.debug("Attribute matching cache closed. Cached matches: {}, computed matches: {}", cachedMatches.get(), computedMatches.get());
     }
 
     @Override
@@ -121,18 +168,36 @@ public class DefaultAttributesSchema implements AttributesSchemaInternal, Attrib
         return EmptySchema.INSTANCE.disambiguationRules(attribute);
     }
 
-    private static class DefaultAttributeMatcher implements AttributeMatcher {
+    private class DefaultAttributeMatcher implements AttributeMatcher {
         private final ComponentAttributeMatcher componentAttributeMatcher;
         private final AttributeSelectionSchema effectiveSchema;
+        private final int consumerGeneration;
+        private final int producerGeneration;
+        private final ConcurrentMap<MatchKey, Boolean> isMatchingCache = Maps.newConcurrentMap();
+        private final ConcurrentMap<MatchKey, int[]> matchesCache = Maps.newConcurrentMap();
 
-        DefaultAttributeMatcher(ComponentAttributeMatcher componentAttributeMatcher, AttributeSelectionSchema effectiveSchema) {
+        DefaultAttributeMatcher(ComponentAttributeMatcher componentAttributeMatcher, AttributeSelectionSchema effectiveSchema, int consumerGeneration, int producerGeneration) {
             this.componentAttributeMatcher = componentAttributeMatcher;
             this.effectiveSchema = effectiveSchema;
+            this.consumerGeneration = consumerGeneration;
+            this.producerGeneration = producerGeneration;
         }
 
         @Override
         public boolean isMatching(AttributeContainerInternal candidate, AttributeContainerInternal requested) {
-            return componentAttributeMatcher.isMatching(effectiveSchema, candidate, requested);
+            if (requested.isEmpty() || candidate.isEmpty()) {
+                return true;
+            }
+            MatchKey key = new MatchKey(requested.asImmutable(), new ImmutableAttributes[]{candidate.asImmutable()});
+            Boolean match = isMatchingCache.get(key);
+            if (match != null) {
+                cachedMatches.incrementAndGet();
+                return match;
+            }
+            computedMatches.incrementAndGet();
+            match = componentAttributeMatcher.isMatching(effectiveSchema, candidate, requested);
+            isMatchingCache.put(key, match);
+            return match;
         }
 
         @Override
@@ -147,7 +212,94 @@ public class DefaultAttributesSchema implements AttributesSchemaInternal, Attrib
 
         @Override
         public <T extends HasAttributes> List<T> matches(Collection<? extends T> candidates, AttributeContainerInternal requested, @Nullable T fallback) {
-            return componentAttributeMatcher.match(effectiveSchema, candidates, requested, fallback);
+            if (candidates.isEmpty()) {
+                return componentAttributeMatcher.match(effectiveSchema, candidates, requested, fallback);
+            }
+            List<T> candidateList = candidates instanceof List ? Cast.<List<T>>uncheckedCast(candidates) : ImmutableList.<T>copyOf(candidates);
+            ImmutableAttributes[] candidateAttributes = new ImmutableAttributes[candidateList.size()];
+            for (int i = 0; i < candidateAttributes.length; i++) {
+                candidateAttributes[i] = ((AttributeContainerInternal) candidateList.get(i).getAttributes()).asImmutable();
+            }
+            MatchKey key = new MatchKey(requested.asImmutable(), candidateAttributes);
+            int[] indices = matchesCache.get(key);
+            if (indices != null) {
+                cachedMatches.incrementAndGet();
+                return select(candidateList, indices);
+            }
+            computedMatches.incrementAndGet();
+            List<T> matches = componentAttributeMatcher.match(effectiveSchema, candidateList, requested, fallback);
+            indices = indicesOf(candidateList, matches);
+            if (indices != null) {
+                matchesCache.put(key, indices);
+            }
+            return matches;
+        }
+    }
+
+    @Nullable
+    private static int[] indicesOf(List<?> candidates, List<?> matches) {
+        int[] indices = new int[matches.size()];
+        for (int m = 0; m < indices.length; m++) {
+            indices[m] = indexOf(candidates, matches.get(m));
+            if (indices[m] < 0) {
+                return null;
+            }
+        }
+        return indices;
+    }
+
+    private static int indexOf(List<?> candidates, Object match) {
+        for (int c = 0; c < candidates.size(); c++) {
+            if (candidates.get(c) == match) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    private static <T> List<T> select(List<T> candidates, int[] indices) {
+        if (indices.length == 0) {
+            return ImmutableList.of();
+        }
+        if (indices.length == 1) {
+            return Collections.singletonList(candidates.get(indices[0]));
+        }
+        List<T> matches = new ArrayList<T>(indices.length);
+        for (int index : indices) {
+            matches.add(candidates.get(index));
+        }
+        return matches;
+    }
+
+    /**
+     * The requested attributes and the attributes of the candidates of a match. The result of a match only depends on these attributes, and on the schemas.
+     */
+    private static class MatchKey {
+        private final ImmutableAttributes requested;
+        private final ImmutableAttributes[] candidates;
+        private final int hashCode;
+
+        MatchKey(ImmutableAttributes requested, ImmutableAttributes[] candidates) {
+            this.requested = requested;
+            this.candidates = candidates;
+            this.hashCode = 31 * requested.hashCode() + Arrays.hashCode(candidates);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            MatchKey that = (MatchKey) o;
+            return hashCode == that.hashCode && requested.equals(that.requested) && Arrays.equals(candidates, that.candidates);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
         }
     }
 
@@ -32,21 +32,25 @@ public class DefaultCompatibilityRuleChain<T> implements CompatibilityRuleChain<
     private static final Object[] NO_PARAMS = new Object[0];
     private final List<Action<? super CompatibilityCheckDetails<T>>> rules = Lists.newArrayList();
     private final Instantiator instantiator;
+    private final Runnable changeListener;
 
-    public DefaultCompatibilityRuleChain(Instantiator instantiator) {
+    public DefaultCompatibilityRuleChain(Instantiator instantiator, Runnable changeListener) {
         this.instantiator = instantiator;
+        this.changeListener = changeListener;
     }
 
     @Override
     public void ordered(Comparator<? super T> comparator) {
         Action<? super CompatibilityCheckDetails<T>> rule = AttributeMatchingRules.orderedCompatibility(comparator, false);
         rules.add(rule);
+        changeListener.run();
     }
 
     @Override
     public void reverseOrdered(Comparator<? super T> comparator) {
         Action<? super CompatibilityCheckDetails<T>> rule = AttributeMatchingRules.orderedCompatibility(comparator, true);
         rules.add(rule);
+        changeListener.run();
     }
 
     @Override
@@ -54,11 +58,13 @@ public class DefaultCompatibilityRuleChain<T> implements CompatibilityRuleChain<
         DefaultActionConfiguration configuration = new DefaultActionConfiguration();
         configureAction.execute(configuration);
         rules.add(new InstantiatingAction<T>(rule, configuration.getParams(), instantiator));
+        changeListener.run();
     }
 
     @Override
     public void add(final Class<? extends AttributeCompatibilityRule<T>> rule) {
         rules.add(new InstantiatingAction<T>(rule, NO_PARAMS, instantiator));
+        changeListener.run();
     }
 
     @Override
@@ -36,9 +36,11 @@ public class DefaultDisambiguationRuleChain<T> implements DisambiguationRuleChai
     private static final Object[] NO_PARAMS = new Object[0];
     private final List<Action<? super MultipleCandidatesDetails<T>>> rules = Lists.newArrayList();
     private final Instantiator instantiator;
+    private final Runnable changeListener;
 
-    public DefaultDisambiguationRuleChain(Instantiator instantiator) {
+    public DefaultDisambiguationRuleChain(Instantiator instantiator, Runnable changeListener) {
         this.instantiator = instantiator;
+        this.changeListener = changeListener;
     }
 
     @Override
@@ -46,23 +48,27 @@ public class DefaultDisambiguationRuleChain<T> implements DisambiguationRuleChai
         DefaultActionConfiguration configuration = new DefaultActionConfiguration();
         configureAction.execute(configuration);
         this.rules.add(new InstantiatingAction<T>(rule, configuration.getParams(), instantiator));
+        changeListener.run();
     }
 
     @Override
     public void add(final Class<? extends AttributeDisambiguationRule<T>> rule) {
         this.rules.add(new InstantiatingAction<T>(rule, NO_PARAMS, instantiator));
+        changeListener.run();
     }
 
     @Override
     public void pickFirst(Comparator<? super T> comparator) {
         Action<? super MultipleCandidatesDetails<T>> rule = AttributeMatchingRules.orderedDisambiguation(comparator, true);
         rules.add(rule);
+        changeListener.run();
     }
 
     @Override
     public void pickLast(Comparator<? super T> comparator) {
         Action<? super MultipleCandidatesDetails<T>> rule = AttributeMatchingRules.orderedDisambiguation(comparator, false);
         rules.add(rule);
+        changeListener.run();
     }
 
     @Override
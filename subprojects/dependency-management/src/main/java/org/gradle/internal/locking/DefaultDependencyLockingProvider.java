@@ -17,6 +17,7 @@
 package org.gradle.internal.locking;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import org.gradle.StartParameter;
 import org.gradle.api.artifacts.DependencyConstraint;
@@ -31,6 +32,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 public class DefaultDependencyLockingProvider implements DependencyLockingProvider {
 
@@ -39,6 +41,7 @@ public class DefaultDependencyLockingProvider implements DependencyLockingProvid
     private final DependencyLockingNotationConverter converter = new DependencyLockingNotationConverter();
     private final LockFileReaderWriter lockFileReaderWriter;
     private final boolean writeLocks;
+    private final ConcurrentMap<String, DependencyLockingState> lockStates = Maps.newConcurrentMap();
 
     public DefaultDependencyLockingProvider(FileResolver fileResolver, StartParameter startParameter) {
         this.lockFileReaderWriter = new LockFileReaderWriter(fileResolver);
@@ -50,6 +53,16 @@ public class DefaultDependencyLockingProvider implements DependencyLockingProvid
 
     @Override
     public DependencyLockingState findLockConstraint(String configurationName) {
+        // Lock files are only written when they are not read, so can be read once per build
+        DependencyLockingState lockState = lockStates.get(configurationName);
+        if (lockState == null) {
+            lockState = readLockConstraint(configurationName);
+            lockStates.putIfAbsent(configurationName, lockState);
+        }
+        return lockState;
+    }
+
+    private DependencyLockingState readLockConstraint(String configurationName) {
         if (!writeLocks) {
             List<String> lockedModules = lockFileReaderWriter.readLockFile(configurationName);
             if (lockedModules != null) {
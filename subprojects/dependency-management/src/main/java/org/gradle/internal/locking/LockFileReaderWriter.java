@@ -24,6 +24,7 @@ import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
@@ -63,8 +64,14 @@ public class LockFileReaderWriter {
         for (String module : resolvedModules) {
             builder.append(module).append("\n");
         }
+        byte[] content = builder.toString().getBytes(CHARSET);
         try {
-            Files.write(lockFilesRoot.resolve(configurationName + FILE_SUFFIX), builder.toString().getBytes(CHARSET));
+            Path lockFile = lockFilesRoot.resolve(configurationName + FILE_SUFFIX);
+            if (Files.exists(lockFile) && Files.size(lockFile) == content.length && Arrays.equals(Files.readAllBytes(lockFile), content)) {
+                LOGGER.debug("Lock file for configuration '{}' is up to date", configurationName);
+                return;
+            }
+            Files.write(lockFile, content);
         } catch (IOException e) {
             throw new RuntimeException("Unable to write lock file", e);
         }
@@ -43,12 +43,14 @@ public class LocallyAvailableResourceFinderFactory implements Factory<LocallyAva
     private static final Logger LOGGER = LoggerFactory.getLogger(LocallyAvailableResourceFinderFactory.class);
 
     private final File rootCachesDirectory;
+    private final File readOnlyFileStoreDirectory;
     private final LocalMavenRepositoryLocator localMavenRepositoryLocator;
     private final FileStoreSearcher<ModuleComponentArtifactIdentifier> fileStore;
 
     public LocallyAvailableResourceFinderFactory(
         ArtifactCacheMetadata artifactCacheMetadata, LocalMavenRepositoryLocator localMavenRepositoryLocator, FileStoreSearcher<ModuleComponentArtifactIdentifier> fileStore) {
         this.rootCachesDirectory = artifactCacheMetadata.getCacheDir().getParentFile();
+        this.readOnlyFileStoreDirectory = artifactCacheMetadata.getReadOnlyFileStoreDirectory();
         this.localMavenRepositoryLocator = localMavenRepositoryLocator;
         this.fileStore = fileStore;
     }
@@ -66,6 +68,11 @@ public class LocallyAvailableResourceFinderFactory implements Factory<LocallyAva
             }
         }));
 
+        // The read-only filestore, if any
+        if (readOnlyFileStoreDirectory != null) {
+            addForPattern(finders, readOnlyFileStoreDirectory, new IvyResourcePattern("[organisation]/[module](/[branch])/[revision]/*/[artifact]-[revision](-[classifier])(.[ext])"));
+        }
+
         // 1.8
         addForPattern(finders, "artifacts-26/filestore/[organisation]/[module](/[branch])/[revision]/[type]/*/[artifact]-[revision](-[classifier])(.[ext])");
 
@@ -41,6 +41,7 @@ public interface CacheAwareExternalResourceAccessor {
     interface ResourceFileStore {
         /**
          * Called when a resource is to be cached. Should *move* the given file into the appropriate location and return a handle to the file.
+         * Called without holding the cache lock, so the file must be moved atomically into its location.
          */
         LocallyAvailableResource moveIntoCache(File downloadedResource);
     }
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resource.transfer;
+
+import com.google.common.collect.Maps;
+import org.gradle.internal.Factory;
+import org.gradle.internal.UncheckedException;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits the number of resources that are downloaded concurrently from a single host, across all the repositories of a build.
+ *
+ * <p>Downloads are otherwise only limited by the number of workers, which can exceed what a repository server accepts from a single client.
+ * Only the transfer of the content is limited: checking whether a resource exists or has changed is not.</p>
+ */
+public class ConcurrentDownloadLimiter {
+    /**
+     * The maximum number of concurrent downloads from a single host. Downloads are not limited when not set, or set to a value lower than 1.
+     */
+    public static final String MAX_DOWNLOADS_PER_HOST_PROPERTY = "org.gradle.internal.repository.max.downloads.per.host";
+
+    public static final ConcurrentDownloadLimiter UNLIMITED = new ConcurrentDownloadLimiter(0);
+
+    private final int maxDownloadsPerHost;
+    private final ConcurrentMap<String, Semaphore> hosts = Maps.newConcurrentMap();
+
+    public ConcurrentDownloadLimiter(int maxDownloadsPerHost) {
+        this.maxDownloadsPerHost = maxDownloadsPerHost;
+    }
+
+    public static ConcurrentDownloadLimiter fromSystemProperties() {
+        return new ConcurrentDownloadLimiter(Integer.getInteger(MAX_DOWNLOADS_PER_HOST_PROPERTY, 0));
+    }
+
+    /**
+     * Runs the given download once fewer than the maximum number of downloads from the host of the given location are running.
+     */
+    public <T> T download(URI location, Factory<T> download) {
+        if (maxDownloadsPerHost < 1 || location.getAuthority() == null) {
+            return download.create();
+        }
+        Semaphore permits = permitsFor(location.getScheme() + "://" + location.getAuthority());
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
+        try {
+            return download.create();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Semaphore permitsFor(String host) {
+        Semaphore permits = hosts.get(host);
+        if (permits == null) {
+            Semaphore newPermits = new Semaphore(maxDownloadsPerHost, true);
+            permits = hosts.putIfAbsent(host, newPermits);
+            if (permits == null) {
+                permits = newPermits;
+            }
+        }
+        return permits;
+    }
+}
@@ -25,6 +25,7 @@ import org.gradle.api.internal.artifacts.ivyservice.resolutionstrategy.ExternalR
 import org.gradle.api.internal.file.TemporaryFileProvider;
 import org.gradle.cache.internal.ProducerGuard;
 import org.gradle.internal.Factory;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.hash.HashUtil;
 import org.gradle.internal.hash.HashValue;
 import org.gradle.internal.resource.ExternalResource;
@@ -50,6 +51,9 @@ import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
 public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExternalResourceAccessor {
 
@@ -63,8 +67,9 @@ public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExte
     private final ExternalResourceCachePolicy externalResourceCachePolicy;
     private final ProducerGuard<ExternalResourceName> producerGuard;
     private final FileResourceRepository fileResourceRepository;
+    private final ConcurrentDownloadLimiter downloadLimiter;
 
-    public DefaultCacheAwareExternalResourceAccessor(ExternalResourceRepository delegate, CachedExternalResourceIndex<String> cachedExternalResourceIndex, BuildCommencedTimeProvider timeProvider, TemporaryFileProvider temporaryFileProvider, CacheLockingManager cacheLockingManager, ExternalResourceCachePolicy externalResourceCachePolicy, ProducerGuard<ExternalResourceName> producerGuard, FileResourceRepository fileResourceRepository) {
+    public DefaultCacheAwareExternalResourceAccessor(ExternalResourceRepository delegate, CachedExternalResourceIndex<String> cachedExternalResourceIndex, BuildCommencedTimeProvider timeProvider, TemporaryFileProvider temporaryFileProvider, CacheLockingManager cacheLockingManager, ExternalResourceCachePolicy externalResourceCachePolicy, ProducerGuard<ExternalResourceName> producerGuard, FileResourceRepository fileResourceRepository, ConcurrentDownloadLimiter downloadLimiter) {
         this.delegate = delegate;
         this.cachedExternalResourceIndex = cachedExternalResourceIndex;
         this.timeProvider = timeProvider;
@@ -73,6 +78,7 @@ public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExte
         this.externalResourceCachePolicy = externalResourceCachePolicy;
         this.producerGuard = producerGuard;
         this.fileResourceRepository = fileResourceRepository;
+        this.downloadLimiter = downloadLimiter;
     }
 
     @Nullable
@@ -194,9 +200,15 @@ public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExte
 
     private LocallyAvailableExternalResource copyToCache(final ExternalResourceName source, final ResourceFileStore fileStore, final ExternalResource resource) {
         // Download to temporary location
-        DownloadAction downloadAction = new DownloadAction(source);
+        final DownloadAction downloadAction = new DownloadAction(source);
         try {
-            resource.withContentIfPresent(downloadAction);
+            downloadLimiter.download(source.getUri(), new Factory<Void>() {
+                @Override
+                public Void create() {
+                    resource.withContentIfPresent(downloadAction);
+                    return null;
+                }
+            });
         } catch (Exception e) {
             throw ResourceExceptions.getFailed(source.getUri(), e);
         }
@@ -213,10 +225,11 @@ public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExte
     }
 
     private LocallyAvailableExternalResource moveIntoCache(final ExternalResourceName source, final File destination, final ResourceFileStore fileStore, final ExternalResourceMetaData metaData) {
+        // The file store adds the file atomically, so only the index needs the cache lock
+        LocallyAvailableResource cachedResource = fileStore.moveIntoCache(destination);
+        final File fileInFileStore = cachedResource.getFile();
         return cacheLockingManager.useCache(new Factory<LocallyAvailableExternalResource>() {
             public LocallyAvailableExternalResource create() {
-                LocallyAvailableResource cachedResource = fileStore.moveIntoCache(destination);
-                File fileInFileStore = cachedResource.getFile();
                 cachedExternalResourceIndex.store(source.toString(), fileInFileStore, metaData);
                 return fileResourceRepository.resource(fileInFileStore, source.getUri(), metaData);
             }
@@ -244,13 +257,29 @@ public class DefaultCacheAwareExternalResourceAccessor implements CacheAwareExte
             if (destination.getParentFile() != null) {
                 GFileUtils.mkdirs(destination.getParentFile());
             }
+            MessageDigest sha1 = createSha1Digest();
             FileOutputStream outputStream = new FileOutputStream(destination);
             try {
-                IOUtils.copyLarge(inputStream, outputStream);
+                IOUtils.copyLarge(new DigestInputStream(inputStream, sha1), outputStream);
             } finally {
                 outputStream.close();
             }
+            HashValue expectedSha1 = metaData.getSha1();
+            if (expectedSha1 != null) {
+                HashValue actualSha1 = new HashValue(sha1.digest());
+                if (!expectedSha1.equals(actualSha1)) {
+                    throw new IOException(String.format("Checksum mismatch for %s: expected SHA1 %s but downloaded content has SHA1 %s.", source, expectedSha1.asHexString(), actualSha1.asHexString()));
+                }
+            }
             return null;
         }
+
+        private MessageDigest createSha1Digest() {
+            try {
+                return MessageDigest.getInstance("SHA1");
+            } catch (NoSuchAlgorithmException e) {
+                throw UncheckedException.throwAsUncheckedException(e);
+            }
+        }
     }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resource.transport.file;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the content of the directories of file repositories, so that each directory is listed once per build instead of once per module
+ * and artifact lookup. The existence of a file is answered from the listing of its directory.
+ *
+ * <p>The index is shared by all the file repositories of a build, and is updated when a file is written to one of them, for example when a
+ * module is published. Changes made by other means during the build are not seen, which is why the index has to be enabled explicitly.</p>
+ */
+public class FileRepositoryIndex {
+    /**
+     * Enables the index when set to {@code true}.
+     */
+    public static final String INDEX_FILE_REPOSITORIES_PROPERTY = "org.gradle.internal.repository.file.index";
+
+    public static final FileRepositoryIndex NONE = new FileRepositoryIndex(false);
+
+    private static final DirectoryListing MISSING = new DirectoryListing(null);
+
+    private final boolean enabled;
+    private final ConcurrentMap<File, DirectoryListing> directories = Maps.newConcurrentMap();
+
+    public FileRepositoryIndex(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static FileRepositoryIndex fromSystemProperties() {
+        return Boolean.getBoolean(INDEX_FILE_REPOSITORIES_PROPERTY) ? new FileRepositoryIndex(true) : NONE;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the names of the files in the given directory, or null when it is not a directory.
+     */
+    @Nullable
+    public List<String> list(File directory) {
+        return listingOf(directory).names;
+    }
+
+    /**
+     * Returns whether the given file exists, according to the listing of its directory.
+     *
+     * <p>When the listing only contains the name with a different case, the file system is asked, as the name may still match on a case-insensitive file system.</p>
+     */
+    public boolean exists(File file) {
+        File directory = file.getParentFile();
+        if (!enabled || directory == null) {
+            return file.exists();
+        }
+        DirectoryListing listing = listingOf(directory);
+        String name = file.getName();
+        if (listing.contains(name)) {
+            return true;
+        }
+        return listing.containsIgnoringCase(name) && file.exists();
+    }
+
+    /**
+     * Records that the given file was written, so that it is seen by later listings of its directory and of the directories created for it.
+     */
+    public void written(File file) {
+        for (File directory = file.getParentFile(); directory != null; directory = directory.getParentFile()) {
+            directories.remove(directory);
+        }
+    }
+
+    private DirectoryListing listingOf(File directory) {
+        DirectoryListing listing = directories.get(directory);
+        if (listing == null) {
+            String[] names = directory.list();
+            listing = names == null ? MISSING : new DirectoryListing(ImmutableList.copyOf(names));
+            if (enabled) {
+                directories.put(directory, listing);
+            }
+        }
+        return listing;
+    }
+
+    private static class DirectoryListing {
+        private final List<String> names;
+        private final Set<String> nameSet;
+        private final Set<String> lowerCaseNameSet;
+
+        DirectoryListing(@Nullable List<String> names) {
+            this.names = names;
+            if (names == null) {
+                this.nameSet = ImmutableSet.of();
+                this.lowerCaseNameSet = ImmutableSet.of();
+            } else {
+                this.nameSet = ImmutableSet.copyOf(names);
+                ImmutableSet.Builder<String> lowerCaseNames = ImmutableSet.builder();
+                for (String name : names) {
+                    lowerCaseNames.add(name.toLowerCase(Locale.ROOT));
+                }
+                this.lowerCaseNameSet = lowerCaseNames.build();
+            }
+        }
+
+        boolean contains(String name) {
+            return nameSet.contains(name);
+        }
+
+        boolean containsIgnoringCase(String name) {
+            return lowerCaseNameSet.contains(name.toLowerCase(Locale.ROOT));
+        }
+    }
+}
@@ -27,6 +27,7 @@ import org.gradle.internal.resource.local.FileResourceRepository;
 import org.gradle.internal.resource.local.LocallyAvailableExternalResource;
 import org.gradle.internal.resource.local.LocallyAvailableResourceCandidates;
 import org.gradle.internal.resource.transfer.CacheAwareExternalResourceAccessor;
+import org.gradle.internal.resource.transfer.ConcurrentDownloadLimiter;
 import org.gradle.internal.resource.transfer.DefaultCacheAwareExternalResourceAccessor;
 import org.gradle.internal.resource.transport.AbstractRepositoryTransport;
 import org.gradle.util.BuildCommencedTimeProvider;
@@ -36,13 +37,17 @@ import java.io.IOException;
 
 public class FileTransport extends AbstractRepositoryTransport {
     private final FileResourceRepository repository;
+    private final ExternalResourceRepository indexedRepository;
+    private final FileRepositoryIndex index;
     private final FileCacheAwareExternalResourceAccessor resourceAccessor;
 
-    public FileTransport(String name, FileResourceRepository repository, CachedExternalResourceIndex<String> cachedExternalResourceIndex, TemporaryFileProvider temporaryFileProvider, BuildCommencedTimeProvider timeProvider, CacheLockingManager cacheLockingManager, ProducerGuard<ExternalResourceName> producerGuard) {
+    public FileTransport(String name, FileResourceRepository repository, CachedExternalResourceIndex<String> cachedExternalResourceIndex, TemporaryFileProvider temporaryFileProvider, BuildCommencedTimeProvider timeProvider, CacheLockingManager cacheLockingManager, ProducerGuard<ExternalResourceName> producerGuard, FileRepositoryIndex index) {
         super(name);
         this.repository = repository;
+        this.indexedRepository = index.isEnabled() ? new IndexedFileResourceRepository(repository, index) : repository;
+        this.index = index;
         ExternalResourceCachePolicy cachePolicy = new DefaultExternalResourceCachePolicy();
-        resourceAccessor = new FileCacheAwareExternalResourceAccessor(new DefaultCacheAwareExternalResourceAccessor(repository, cachedExternalResourceIndex, timeProvider, temporaryFileProvider, cacheLockingManager, cachePolicy, producerGuard, repository));
+        resourceAccessor = new FileCacheAwareExternalResourceAccessor(new DefaultCacheAwareExternalResourceAccessor(repository, cachedExternalResourceIndex, timeProvider, temporaryFileProvider, cacheLockingManager, cachePolicy, producerGuard, repository, ConcurrentDownloadLimiter.UNLIMITED));
     }
 
     public boolean isLocal() {
@@ -50,7 +55,7 @@ public class FileTransport extends AbstractRepositoryTransport {
     }
 
     public ExternalResourceRepository getRepository() {
-        return repository;
+        return indexedRepository;
     }
 
     public CacheAwareExternalResourceAccessor getResourceAccessor() {
@@ -68,7 +73,7 @@ public class FileTransport extends AbstractRepositoryTransport {
         @Override
         public LocallyAvailableExternalResource getResource(ExternalResourceName source, @Nullable String baseName, ResourceFileStore fileStore, @Nullable LocallyAvailableResourceCandidates additionalCandidates) throws IOException {
             LocallyAvailableExternalResource resource = repository.resource(source);
-            if (!resource.getFile().exists()) {
+            if (!index.exists(resource.getFile())) {
                 return null;
             }
             if (baseName == null || resource.getFile().getName().equals(baseName)) {
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resource.transport.file;
+
+import org.gradle.api.Action;
+import org.gradle.api.Transformer;
+import org.gradle.api.resources.ResourceException;
+import org.gradle.internal.resource.ExternalResource;
+import org.gradle.internal.resource.ExternalResourceName;
+import org.gradle.internal.resource.ExternalResourceReadResult;
+import org.gradle.internal.resource.ExternalResourceRepository;
+import org.gradle.internal.resource.ExternalResourceWriteResult;
+import org.gradle.internal.resource.ReadableContent;
+import org.gradle.internal.resource.local.FileResourceRepository;
+import org.gradle.internal.resource.metadata.ExternalResourceMetaData;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * A file repository that answers listings and existence checks using a {@link FileRepositoryIndex}, and keeps the index up to date with the files it writes.
+ */
+class IndexedFileResourceRepository implements ExternalResourceRepository {
+    private final FileResourceRepository delegate;
+    private final FileRepositoryIndex index;
+
+    IndexedFileResourceRepository(FileResourceRepository delegate, FileRepositoryIndex index) {
+        this.delegate = delegate;
+        this.index = index;
+    }
+
+    @Override
+    public ExternalResourceRepository withProgressLogging() {
+        return this;
+    }
+
+    @Override
+    public ExternalResource resource(ExternalResourceName resource, boolean revalidate) {
+        return resource(resource);
+    }
+
+    @Override
+    public ExternalResource resource(ExternalResourceName resource) {
+        return new IndexedFileResource(delegate.resource(resource));
+    }
+
+    private class IndexedFileResource implements ExternalResource {
+        private final ExternalResource delegate;
+        private final File file;
+
+        IndexedFileResource(ExternalResource delegate) {
+            this.delegate = delegate;
+            this.file = new File(delegate.getURI());
+        }
+
+        @Override
+        public URI getURI() {
+            return delegate.getURI();
+        }
+
+        @Override
+        public String getDisplayName() {
+            return delegate.getDisplayName();
+        }
+
+        @Override
+        public ExternalResourceReadResult<Void> writeTo(File destination) throws ResourceException {
+            return delegate.writeTo(destination);
+        }
+
+        @Nullable
+        @Override
+        public ExternalResourceReadResult<Void> writeToIfPresent(File destination) throws ResourceException {
+            if (!index.exists(file)) {
+                return null;
+            }
+            return delegate.writeToIfPresent(destination);
+        }
+
+        @Override
+        public ExternalResourceReadResult<Void> writeTo(OutputStream destination) throws ResourceException {
+            return delegate.writeTo(destination);
+        }
+
+        @Override
+        public ExternalResourceReadResult<Void> withContent(Action<? super InputStream> readAction) throws ResourceException {
+            return delegate.withContent(readAction);
+        }
+
+        @Override
+        public <T> ExternalResourceReadResult<T> withContent(Transformer<? extends T, ? super InputStream> readAction) throws ResourceException {
+            return delegate.withContent(readAction);
+        }
+
+        @Nullable
+        @Override
+        public <T> ExternalResourceReadResult<T> withContentIfPresent(Transformer<? extends T, ? super InputStream> readAction) throws ResourceException {
+            if (!index.exists(file)) {
+                return null;
+            }
+            return delegate.withContentIfPresent(readAction);
+        }
+
+        @Override
+        public <T> ExternalResourceReadResult<T> withContent(ContentAction<? extends T> readAction) throws ResourceException {
+            return delegate.withContent(readAction);
+        }
+
+        @Nullable
+        @Override
+        public <T> ExternalResourceReadResult<T> withContentIfPresent(ContentAction<? extends T> readAction) throws ResourceException {
+            if (!index.exists(file)) {
+                return null;
+            }
+            return delegate.withContentIfPresent(readAction);
+        }
+
+        @Override
+        public ExternalResourceWriteResult put(ReadableContent source) throws ResourceException {
+            try {
+                return delegate.put(source);
+            } finally {
+                index.written(file);
+            }
+        }
+
+        @Nullable
+        @Override
+        public List<String> list() throws ResourceException {
+            return index.list(file);
+        }
+
+        @Nullable
+        @Override
+        public ExternalResourceMetaData getMetaData() {
+            if (!index.exists(file)) {
+                return null;
+            }
+            return delegate.getMetaData();
+        }
+    }
+}
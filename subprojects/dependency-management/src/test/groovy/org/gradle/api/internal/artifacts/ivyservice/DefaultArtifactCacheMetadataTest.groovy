@@ -51,4 +51,34 @@ class DefaultArtifactCacheMetadataTest extends Specification {
         then:
         metadataStore == new File(testCacheDir, CacheLayout.META_DATA.key + '/descriptors')
     }
+
+    def "calculates read-only store directories"() {
+        given:
+        TestFile testCacheDir = temporaryFolder.file("test/cache")
+        TestFile readOnlyCacheRoot = temporaryFolder.file("test/read-only")
+        TestFile readOnlyCacheDir = readOnlyCacheRoot.file(CacheLayout.ROOT.key).createDir()
+        scopeMapping.getBaseDirectory(null, CacheLayout.ROOT.key, VersionStrategy.SharedCache) >> testCacheDir
+
+        when:
+        def metaData = new DefaultArtifactCacheMetadata(scopeMapping, readOnlyCacheRoot)
+
+        then:
+        metaData.readOnlyCacheDir == readOnlyCacheDir
+        metaData.readOnlyFileStoreDirectory == new File(readOnlyCacheDir, CacheLayout.FILE_STORE.key)
+        metaData.readOnlyMetaDataStoreDirectory == new File(readOnlyCacheDir, CacheLayout.META_DATA.key + '/descriptors')
+    }
+
+    def "does not use read-only cache when it does not contain a module cache"() {
+        given:
+        TestFile readOnlyCacheRoot = temporaryFolder.file("test/read-only").createDir()
+        scopeMapping.getBaseDirectory(null, CacheLayout.ROOT.key, VersionStrategy.SharedCache) >> temporaryFolder.file("test/cache")
+
+        when:
+        def metaData = new DefaultArtifactCacheMetadata(scopeMapping, readOnlyCacheRoot)
+
+        then:
+        metaData.readOnlyCacheDir == null
+        metaData.readOnlyFileStoreDirectory == null
+        metaData.readOnlyMetaDataStoreDirectory == null
+    }
 }
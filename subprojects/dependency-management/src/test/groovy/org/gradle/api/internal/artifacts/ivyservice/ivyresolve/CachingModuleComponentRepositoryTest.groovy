@@ -18,16 +18,19 @@ package org.gradle.api.internal.artifacts.ivyservice.ivyresolve
 
 import org.gradle.api.artifacts.component.ModuleComponentIdentifier
 import org.gradle.api.internal.artifacts.ComponentMetadataProcessor
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier
 import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory
 import org.gradle.api.internal.artifacts.configurations.dynamicversion.CachePolicy
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.ModuleMetadataCache
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.ModuleRepositoryCaches
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ArtifactAtRepositoryKey
+import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.CachedArtifact
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ModuleArtifactCache
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.artifacts.ModuleArtifactsCache
 import org.gradle.api.internal.artifacts.ivyservice.modulecache.dynamicversions.ModuleVersionsCache
 import org.gradle.api.internal.artifacts.repositories.resolver.MetadataFetchingCost
 import org.gradle.api.internal.component.ArtifactType
+import org.gradle.internal.component.external.model.DefaultModuleComponentSelector
 import org.gradle.internal.component.external.model.ModuleComponentArtifactIdentifier
 import org.gradle.internal.component.external.model.ModuleComponentArtifactMetadata
 import org.gradle.internal.component.external.model.ModuleComponentResolveMetadata
@@ -37,11 +40,15 @@ import org.gradle.internal.component.model.ComponentArtifacts
 import org.gradle.internal.component.model.ComponentOverrideMetadata
 import org.gradle.internal.component.model.ComponentResolveMetadata
 import org.gradle.internal.component.model.ModuleSource
+import org.gradle.internal.hash.HashCode
 import org.gradle.internal.resolve.result.BuildableArtifactResolveResult
+import org.gradle.internal.resolve.result.BuildableModuleComponentMetaDataResolveResult
 import org.gradle.internal.resolve.result.DefaultBuildableArtifactSetResolveResult
 import org.gradle.internal.resolve.result.DefaultBuildableComponentArtifactsResolveResult
 import org.gradle.internal.resolve.result.DefaultBuildableModuleComponentMetaDataResolveResult
 import org.gradle.internal.resolve.result.DefaultBuildableModuleVersionListingResolveResult
+import org.gradle.internal.resource.local.FileStoreSearcher
+import org.gradle.internal.resource.local.LocallyAvailableResource
 import org.gradle.util.BuildCommencedTimeProvider
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -61,9 +68,10 @@ class CachingModuleComponentRepositoryTest extends Specification {
     def cachePolicy = Stub(CachePolicy)
     def metadataProcessor = Stub(ComponentMetadataProcessor)
     def moduleIdentifierFactory = Mock(ImmutableModuleIdentifierFactory)
+    def timeProvider = new BuildCommencedTimeProvider()
     def caches = new ModuleRepositoryCaches(moduleResolutionCache, moduleDescriptorCache, moduleArtifactsCache, artifactAtRepositoryCache)
     def repo = new CachingModuleComponentRepository(realRepo, caches,
-        cachePolicy, new BuildCommencedTimeProvider(), metadataProcessor, moduleIdentifierFactory)
+        cachePolicy, timeProvider, metadataProcessor, moduleIdentifierFactory)
 
     @Unroll
     def "artifact last modified date is cached - lastModified = #lastModified"() {
@@ -97,6 +105,143 @@ class CachingModuleComponentRepositoryTest extends Specification {
         lastModified << [new Date(), null]
     }
 
+    def "uses artifact downloaded by a concurrent request during this build"() {
+        given:
+        def artifactId = Stub(ModuleComponentArtifactIdentifier)
+        def artifact = Stub(ModuleComponentArtifactMetadata) {
+            getId() >> artifactId
+        }
+        def file = new File("local")
+        def result = Mock(BuildableArtifactResolveResult)
+        def descriptorHash = 1234G
+        def moduleSource = Stub(CachingModuleComponentRepository.CachingModuleSource) {
+            getDescriptorHash() >> descriptorHash
+        }
+        artifactAtRepositoryCache.lookup(new ArtifactAtRepositoryKey("repo-id", artifactId)) >> Stub(CachedArtifact) {
+            getCachedAt() >> timeProvider.currentTime
+            getDescriptorHash() >> descriptorHash
+            getCachedFile() >> file
+        }
+
+        when:
+        repo.remoteAccess.resolveArtifact(artifact, moduleSource, result)
+
+        then:
+        1 * result.resolved(file)
+        0 * realRemoteAccess._
+        0 * artifactAtRepositoryCache.store(_, _, _)
+    }
+
+    def "uses the artifact of a stable module from the read-only cache in place"() {
+        given:
+        def readOnlyFileStore = Stub(FileStoreSearcher)
+        def repo = new CachingModuleComponentRepository(realRepo, new ModuleRepositoryCaches(moduleResolutionCache, moduleDescriptorCache, moduleArtifactsCache, artifactAtRepositoryCache, readOnlyFileStore),
+            cachePolicy, timeProvider, metadataProcessor, moduleIdentifierFactory)
+        def artifactId = Stub(ModuleComponentArtifactIdentifier)
+        def artifact = Stub(ModuleComponentArtifactMetadata) {
+            getId() >> artifactId
+        }
+        def file = new File("read-only")
+        def result = Mock(BuildableArtifactResolveResult)
+        def moduleSource = new CachingModuleComponentRepository.CachingModuleSource(BigInteger.ONE, changing, Stub(ModuleSource))
+        readOnlyFileStore.search(artifactId) >> candidates.collect { name -> Stub(LocallyAvailableResource) { getFile() >> new File(name) } }
+
+        when:
+        repo.localAccess.resolveArtifact(artifact, moduleSource, result)
+
+        then:
+        1 * artifactAtRepositoryCache.lookup(new ArtifactAtRepositoryKey("repo-id", artifactId)) >> null
+        (resolved ? 1 : 0) * result.resolved(file)
+
+        where:
+        changing | candidates                    | resolved
+        false    | ["read-only"]                 | true
+        true     | ["read-only"]                 | false
+        false    | []                            | false
+        false    | ["read-only", "other-sha1"]   | false
+    }
+
+    def "uses component metadata resolved by a concurrent request during this build"() {
+        given:
+        def module = Mock(ModuleComponentIdentifier)
+        def metadataWithSource = Stub(ModuleComponentResolveMetadata)
+        def metadata = Stub(ModuleComponentResolveMetadata) {
+            getContentHash() >> HashCode.fromInt(1234)
+            withSource(_) >> metadataWithSource
+        }
+        moduleDescriptorCache.getCachedModuleDescriptor(_, module) >> Stub(ModuleMetadataCache.CachedMetadata) {
+            getProcessedMetadata() >> metadata
+            getAgeMillis() >> 0
+        }
+        def result = new DefaultBuildableModuleComponentMetaDataResolveResult()
+
+        when:
+        repo.remoteAccess.resolveComponentMetaData(module, Stub(ComponentOverrideMetadata), result)
+
+        then:
+        0 * realRemoteAccess._
+        result.state == BuildableModuleComponentMetaDataResolveResult.State.Resolved
+        result.metaData == metadataWithSource
+        result.authoritative
+    }
+
+    def "resolves component metadata from the repository when cached metadata was not verified during this build"() {
+        given:
+        def module = Mock(ModuleComponentIdentifier)
+        moduleDescriptorCache.getCachedModuleDescriptor(_, module) >> Stub(ModuleMetadataCache.CachedMetadata) {
+            isMissing() >> true
+            getAgeMillis() >> 1000
+        }
+        def result = new DefaultBuildableModuleComponentMetaDataResolveResult()
+
+        when:
+        repo.remoteAccess.resolveComponentMetaData(module, Stub(ComponentOverrideMetadata), result)
+
+        then:
+        1 * realRemoteAccess.resolveComponentMetaData(module, _, result) >> {
+            result.missing()
+        }
+        1 * moduleDescriptorCache.cacheMissing(realRepo, module)
+        result.state == BuildableModuleComponentMetaDataResolveResult.State.Missing
+    }
+
+    def "uses version listing of a concurrent request during this build"() {
+        given:
+        def dependency = moduleDependency()
+        moduleResolutionCache.getCachedModuleResolution(_, _) >> Stub(ModuleVersionsCache.CachedModuleVersionList) {
+            getModuleVersions() >> (['1.0', '2.0'] as Set)
+            getAgeMillis() >> 0
+        }
+        def result = new DefaultBuildableModuleVersionListingResolveResult()
+
+        when:
+        repo.remoteAccess.listModuleVersions(dependency, result)
+
+        then:
+        0 * realRemoteAccess._
+        result.versions == ['1.0', '2.0'] as Set
+        result.authoritative
+    }
+
+    def "lists versions from the repository when cached listing was not verified during this build"() {
+        given:
+        def dependency = moduleDependency()
+        moduleResolutionCache.getCachedModuleResolution(_, _) >> Stub(ModuleVersionsCache.CachedModuleVersionList) {
+            getModuleVersions() >> (['1.0'] as Set)
+            getAgeMillis() >> 1000
+        }
+        def result = new DefaultBuildableModuleVersionListingResolveResult()
+
+        when:
+        repo.remoteAccess.listModuleVersions(dependency, result)
+
+        then:
+        1 * realRemoteAccess.listModuleVersions(dependency, result) >> {
+            result.listed(['1.0', '2.0'])
+        }
+        result.versions == ['1.0', '2.0'] as Set
+    }
+
     def "does not use cache when module version listing can be determined locally"() {
         def dependency = Mock(ModuleDependencyMetadata)
         def result = new DefaultBuildableModuleVersionListingResolveResult()
@@ -258,4 +403,13 @@ class CachingModuleComponentRepositoryTest extends Specification {
         true              | MetadataFetchingCost.FAST      | MetadataFetchingCost.FAST
         true              | MetadataFetchingCost.EXPENSIVE | MetadataFetchingCost.EXPENSIVE
     }
+
+    private ModuleDependencyMetadata moduleDependency() {
+        interaction {
+            moduleIdentifierFactory.module("org", "foo") >> DefaultModuleIdentifier.newId("org", "foo")
+        }
+        return Stub(ModuleDependencyMetadata) {
+            getSelector() >> DefaultModuleComponentSelector.newSelector("org", "foo", "latest.release")
+        }
+    }
 }
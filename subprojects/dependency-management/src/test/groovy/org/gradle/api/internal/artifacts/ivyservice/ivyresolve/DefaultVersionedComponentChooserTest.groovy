@@ -128,6 +128,67 @@ class DefaultVersionedComponentChooserTest extends Specification {
 
     }
 
+    def "chooses newest version within range and reports versions above the range as not matched"() {
+        given:
+        def a = component('1.0')
+        def b = component('1.2')
+        def c = component('1.3')
+        def d = component('2.0')
+        def e = component('1.1')
+        def selectedComponentResult = Mock(ComponentSelectionContext)
+
+        when:
+        chooser.selectNewestMatchingComponent([a, d, b, e, c], selectedComponentResult, versionSelectorScheme.parseSelector("[1.0,1.3)"), null)
+
+        then:
+        _ * componentSelectionRules.rules >> []
+        1 * selectedComponentResult.notMatched(d.id)
+        1 * selectedComponentResult.notMatched(c.id)
+        1 * selectedComponentResult.matches(b.id)
+        0 * _
+    }
+
+    def "reports all versions as not matched when all of them are above the range"() {
+        given:
+        def a = component('1.2')
+        def b = component('1.3')
+        def selectedComponentResult = Mock(ComponentSelectionContext)
+
+        when:
+        chooser.selectNewestMatchingComponent([a, b], selectedComponentResult, versionSelectorScheme.parseSelector("[1.0,1.1]"), null)
+
+        then:
+        _ * componentSelectionRules.rules >> []
+        1 * selectedComponentResult.notMatched(b.id)
+        1 * selectedComponentResult.notMatched(a.id)
+        1 * selectedComponentResult.noMatchFound()
+        0 * _
+    }
+
+    def "checks equal versions in the order they are listed"() {
+        given:
+        def a = component('1.0')
+        def b = component('1-1')
+        def c = component('1.1')
+        def selectedComponentResult = Mock(ComponentSelectionContext)
+
+        when:
+        chooser.selectNewestMatchingComponent([a, b, c], selectedComponentResult, versionSelectorScheme.parseSelector("1.0"), null)
+
+        then:
+        _ * componentSelectionRules.rules >> []
+
+        then:
+        1 * selectedComponentResult.notMatched(b.id)
+
+        then:
+        1 * selectedComponentResult.notMatched(c.id)
+
+        then:
+        1 * selectedComponentResult.matches(a.id)
+        0 * _
+    }
+
     def "chooses newest matching version requiring metadata"() {
         given:
         def a = component('1.2')
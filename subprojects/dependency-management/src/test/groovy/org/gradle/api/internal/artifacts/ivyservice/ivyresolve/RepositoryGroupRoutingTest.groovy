@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.ivyresolve
+
+import org.gradle.api.internal.artifacts.ivyservice.CacheLockingManager
+import org.gradle.internal.serialize.BaseSerializerFactory
+import org.gradle.testfixtures.internal.InMemoryIndexedCache
+import org.gradle.util.BuildCommencedTimeProvider
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class RepositoryGroupRoutingTest extends Specification {
+    def now = 1234L
+    def timeProvider = Stub(BuildCommencedTimeProvider) {
+        getCurrentTime() >> { now }
+    }
+    def persistentCache = Spy(InMemoryIndexedCache, constructorArgs: [BaseSerializerFactory.BYTE_ARRAY_SERIALIZER])
+    def cacheLockingManager = Stub(CacheLockingManager) {
+        useCache(_) >> { args ->
+            def action = args[0]
+            if (action instanceof org.gradle.internal.Factory) {
+                return action.create()
+            } else {
+                action.run()
+            }
+        }
+        createCache(_, _, _) >> persistentCache
+    }
+
+    def "remembers the groups found in each repository"() {
+        def routing = new RepositoryGroupRouting(cacheLockingManager, timeProvider, true)
+
+        expect:
+        !routing.mayHost("repo1", "org.test")
+
+        when:
+        routing.hosted("repo1", "org.test")
+
+        then:
+        routing.mayHost("repo1", "org.test")
+        !routing.mayHost("repo1", "org.other")
+        !routing.mayHost("repo2", "org.test")
+    }
+
+    def "groups are persisted across builds"() {
+        given:
+        def previous = new RepositoryGroupRouting(cacheLockingManager, timeProvider, true)
+        previous.hosted("repo1", "org.test")
+        previous.stop()
+
+        when:
+        def routing = new RepositoryGroupRouting(cacheLockingManager, timeProvider, true)
+
+        then:
+        routing.mayHost("repo1", "org.test")
+        !routing.mayHost("repo2", "org.test")
+    }
+
+    def "writes the groups found to the cache once the build finishes"() {
+        def routing = new RepositoryGroupRouting(cacheLockingManager, timeProvider, true)
+
+        when:
+        routing.hosted("repo1", "org.test")
+        routing.hosted("repo1", "org.other")
+        routing.hosted("repo2", "org.test")
+
+        then:
+        0 * persistentCache.put(_, _)
+
+        when:
+        routing.stop()
+
+        then:
+        1 * persistentCache.put("repo1", _)
+        1 * persistentCache.put("repo2", _)
+    }
+
+    def "does not write the groups of a repository when no new group was found"() {
+        given:
+        def previous = new RepositoryGroupRouting(cacheLockingManager, timeProvider, true)
+        previous.hosted("repo1", "org.test")
+        previous.stop()
+        def routing = new RepositoryGroupRouting(cacheLockingManager, timeProvider, true)
+
+        when:
+        routing.hosted("repo1", "org.test")
+        routing.mayHost("repo2", "org.test")
+        routing.stop()
+
+        then:
+        0 * persistentCache.put(_, _)
+    }
+
+    def "starts over once the groups of a repository are too old"() {
+        given:
+        def previous = new RepositoryGroupRouting(cacheLockingManager, timeProvider, true)
+        previous.hosted("repo1", "org.test")
+        previous.stop()
+
+        when:
+        now += TimeUnit.DAYS.toMillis(31)
+        def routing = new RepositoryGroupRouting(cacheLockingManager, timeProvider, true)
+
+        then:
+        !routing.mayHost("repo1", "org.test")
+    }
+
+    def "does not route modules when disabled"() {
+        when:
+        RepositoryGroupRouting.DISABLED.hosted("repo1", "org.test")
+
+        then:
+        !RepositoryGroupRouting.DISABLED.mayHost("repo1", "org.test")
+    }
+}
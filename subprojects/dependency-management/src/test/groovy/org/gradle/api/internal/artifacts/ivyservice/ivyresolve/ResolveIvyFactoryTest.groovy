@@ -73,7 +73,7 @@ class ResolveIvyFactoryTest extends Specification {
         repositoryBlacklister = Mock(RepositoryBlacklister)
 
         resolveIvyFactory = new ResolveIvyFactory(cacheProvider, startParameterResolutionOverride, buildCommencedTimeProvider,
-            versionSelectorScheme, versionComparator, moduleIdentifierFactory, repositoryBlacklister)
+            versionSelectorScheme, versionComparator, moduleIdentifierFactory, repositoryBlacklister, RepositoryGroupRouting.DISABLED)
     }
 
     def "returns an empty resolver when no repositories are configured" () {
@@ -42,7 +42,8 @@ class ResolverProviderComponentMetaDataResolverTest extends Specification {
     def remoteAccess2 = Mock(ModuleComponentRepositoryAccess)
 
     final VersionedComponentChooser componentSelectionStrategy = Mock(VersionedComponentChooser)
-    final RepositoryChainComponentMetaDataResolver resolver = new RepositoryChainComponentMetaDataResolver(componentSelectionStrategy, transformer)
+    final RepositoryGroupRouting groupRouting = Mock(RepositoryGroupRouting)
+    final RepositoryChainComponentMetaDataResolver resolver = new RepositoryChainComponentMetaDataResolver(componentSelectionStrategy, transformer, groupRouting)
 
     ModuleVersionIdentifier moduleVersionIdentifier(ModuleDescriptor moduleDescriptor) {
         def moduleRevId = moduleDescriptor.moduleRevisionId
@@ -62,6 +63,7 @@ class ResolverProviderComponentMetaDataResolverTest extends Specification {
             getLocalAccess() >> repoLocalAccess
             getRemoteAccess() >> repoRemoteAccess
             getName() >> name
+            getId() >> name
         }
         resolver.add(repo)
         repo
@@ -555,6 +557,77 @@ class ResolverProviderComponentMetaDataResolverTest extends Specification {
         0 * result._
     }
 
+    def "attempts to find remote dependency first in the repository that hosted its group before"() {
+        given:
+        def repo1 = addRepo1()
+        def repo2 = addRepo2()
+        groupRouting.isEnabled() >> true
+        groupRouting.mayHost("repo1", "group") >> false
+        groupRouting.mayHost("repo2", "group") >> true
+
+        when:
+        resolver.resolve(moduleComponentId, componentRequestMetaData, result)
+
+        then:
+        1 * localAccess.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _)
+        1 * localAccess2.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _)
+        1 * remoteAccess2.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _) >> { id, meta, result ->
+            result.resolved(metaData)
+        }
+        1 * transformer.transform(_) >> { RepositoryChainModuleResolution it ->
+            assert it.repository == repo2
+            metaData
+        }
+        1 * result.resolved(_)
+        1 * groupRouting.hosted("repo2", "group")
+
+        and:
+        0 * localAccess._
+        0 * remoteAccess._
+        0 * localAccess2._
+        0 * remoteAccess2._
+        0 * result._
+    }
+
+    def "attempts to find remote dependency in the other repositories when missing from the repository that hosted its group before"() {
+        given:
+        def repo1 = addRepo1()
+        def repo2 = addRepo2()
+        groupRouting.isEnabled() >> true
+        groupRouting.mayHost("repo1", "group") >> false
+        groupRouting.mayHost("repo2", "group") >> true
+
+        when:
+        resolver.resolve(moduleComponentId, componentRequestMetaData, result)
+
+        then:
+        1 * localAccess.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _)
+        1 * localAccess2.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _)
+
+        then:
+        1 * remoteAccess2.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _) >> { id, meta, result ->
+            result.missing()
+        }
+
+        then:
+        1 * remoteAccess.resolveComponentMetaData(moduleComponentId, componentRequestMetaData, _) >> { id, meta, result ->
+            result.resolved(metaData)
+        }
+        1 * transformer.transform(_) >> { RepositoryChainModuleResolution it ->
+            assert it.repository == repo1
+            metaData
+        }
+        1 * result.resolved(_)
+        1 * groupRouting.hosted("repo1", "group")
+
+        and:
+        0 * localAccess._
+        0 * remoteAccess._
+        0 * localAccess2._
+        0 * remoteAccess2._
+        0 * result._
+    }
+
     def descriptor(String version) {
         def descriptor = Stub(ModuleDescriptor)
         descriptor.resolvedModuleRevisionId >> IvyUtil.createModuleRevisionId("org", "module", version)
@@ -19,6 +19,7 @@ package org.gradle.api.internal.artifacts.ivyservice.modulecache
 import org.apache.commons.io.output.ByteArrayOutputStream
 import org.gradle.api.internal.artifacts.DefaultImmutableModuleIdentifierFactory
 import org.gradle.api.internal.artifacts.ImmutableModuleIdentifierFactory
+import org.gradle.api.internal.artifacts.dependencies.DefaultImmutableVersionConstraint
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.DescriptorParseContext
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.GradlePomModuleDescriptorParser
 import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.parser.IvyModuleDescriptorConverter
@@ -30,6 +31,7 @@ import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.MavenVer
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.result.AttributeContainerSerializer
 import org.gradle.api.internal.artifacts.repositories.metadata.IvyMutableModuleMetadataFactory
 import org.gradle.api.internal.artifacts.repositories.metadata.MavenMutableModuleMetadataFactory
+import org.gradle.api.internal.attributes.ImmutableAttributes
 import org.gradle.api.internal.file.TestFiles
 import org.gradle.api.internal.model.NamedObjectInstantiator
 import org.gradle.internal.component.external.model.DefaultModuleComponentIdentifier
@@ -90,6 +92,28 @@ class ModuleMetadataSerializerTest extends Specification {
 
     }
 
+    def "writes each distinct string once"() {
+        given:
+        def metadata = mavenMetadataFactory.create(DefaultModuleComponentIdentifier.newId('org.test', 'platform', '1.0'))
+        def variant = metadata.addVariant('api', ImmutableAttributes.EMPTY)
+        1000.times {
+            variant.addDependencyConstraint('org.test.platform', "module-${it}", new DefaultImmutableVersionConstraint('1.0'), null)
+        }
+
+        when:
+        def bytes = serialize(metadata)
+        def deserializedMetadata = deserialize(bytes).asImmutable()
+
+        then:
+        deserializedMetadata == metadata.asImmutable()
+        deserializedMetadata.variants[0].dependencyConstraints.size() == 1000
+        occurrences(bytes, 'org.test.platform') == 1
+    }
+
+    private static int occurrences(byte[] bytes, String str) {
+        new String(bytes, 'ISO-8859-1').findAll(java.util.regex.Pattern.quote(str)).size()
+    }
+
     private MutableModuleComponentResolveMetadata deserialize(byte[] serializedForm) {
         serializer.read(new InputStreamBackedDecoder(new ByteArrayInputStream(serializedForm)), moduleIdentifierFactory)
     }
@@ -62,11 +62,37 @@ class ModuleMetadataStoreTest extends Specification {
         def descriptor = mavenMetadataFactory.create(moduleComponentIdentifier).asImmutable()
 
         when:
-        store.putModuleDescriptor(new ModuleComponentAtRepositoryKey(repository, moduleComponentIdentifier), descriptor)
+        store.putModuleDescriptor(new ModuleComponentAtRepositoryKey(repository, moduleComponentIdentifier), ModuleMetadataCacheEntry.forMetaData(descriptor, 123), descriptor)
         then:
         1 * pathKeyFileStore.add("org.test/testArtifact/1.0/repositoryId/descriptor.bin", _) >> { path, action ->
             action.execute(descriptorFile); fileStoreEntry
         };
         1 * serializer.write(_, descriptor)
     }
+
+    def "reads the descriptor with or without the cache entry stored with it"() {
+        setup:
+        File descriptorFile = temporaryFolder.createFile("fileStoreEntry")
+        def key = new ModuleComponentAtRepositoryKey(repository, moduleComponentIdentifier)
+        def descriptor = mavenMetadataFactory.create(moduleComponentIdentifier)
+        _ * pathKeyFileStore.add("org.test/testArtifact/1.0/repositoryId/descriptor.bin", _) >> { path, action ->
+            action.execute(descriptorFile); fileStoreEntry
+        }
+        _ * pathKeyFileStore.get("org.test/testArtifact/1.0/repositoryId/descriptor.bin") >> fileStoreEntry
+        _ * fileStoreEntry.file >> descriptorFile
+        _ * serializer.write(_, _) >> { encoder, metadata -> encoder.writeString("descriptor") }
+        _ * serializer.read(_, _) >> { decoder, factory -> assert decoder.readString() == "descriptor"; descriptor }
+
+        when:
+        store.putModuleDescriptor(key, ModuleMetadataCacheEntry.forMetaData(descriptor.asImmutable(), 123), descriptor.asImmutable())
+        def stored = store.getModule(key)
+
+        then:
+        !stored.entry.missing
+        stored.entry.createTimestamp == 123
+        stored.metadata == descriptor
+
+        and:
+        store.getModuleDescriptor(key) == descriptor
+    }
 }
@@ -29,7 +29,10 @@ import org.gradle.api.internal.artifacts.ResolvedVersionConstraint
 import org.gradle.api.internal.artifacts.configurations.ConfigurationInternal
 import org.gradle.api.internal.artifacts.dependencies.DefaultMutableVersionConstraint
 import org.gradle.api.internal.artifacts.dsl.ModuleReplacementsData
+import org.gradle.api.internal.artifacts.dsl.dependencies.DependencyLockingProvider
 import org.gradle.api.internal.artifacts.ivyservice.dependencysubstitution.DefaultDependencySubstitutionApplicator
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionComparator
+import org.gradle.api.internal.artifacts.ivyservice.ivyresolve.strategy.DefaultVersionSelectorScheme
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.excludes.ModuleExclusions
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphNode
 import org.gradle.api.internal.artifacts.ivyservice.resolveengine.graph.DependencyGraphPathResolver
@@ -55,6 +58,7 @@ import org.gradle.internal.component.model.DependencyMetadata
 import org.gradle.internal.component.model.ExcludeMetadata
 import org.gradle.internal.component.model.IvyArtifactName
 import org.gradle.internal.component.model.LocalComponentDependencyMetadata
+import org.gradle.internal.locking.DefaultDependencyLockingState
 import org.gradle.internal.locking.NoOpDependencyLockingProvider
 import org.gradle.internal.operations.BuildOperationExecutor
 import org.gradle.internal.operations.BuildOperationQueue
@@ -69,6 +73,7 @@ import org.gradle.util.TestUtil
 import spock.lang.Specification
 
 import static org.gradle.api.internal.artifacts.DefaultModuleVersionIdentifier.newId
+import static org.gradle.api.internal.artifacts.dependencies.DefaultDependencyConstraint.strictConstraint
 import static org.gradle.internal.component.external.model.DefaultModuleComponentSelector.newSelector
 import static org.gradle.internal.component.local.model.TestComponentIdentifiers.newProjectId
 
@@ -88,6 +93,7 @@ class DependencyGraphBuilderTest extends Specification {
         }
     }
     def moduleExclusions = new ModuleExclusions(moduleIdentifierFactory)
+    def versionSelectorScheme = new DefaultVersionSelectorScheme(new DefaultVersionComparator())
     def buildOperationProcessor = Mock(BuildOperationExecutor) {
         def queue = Mock(BuildOperationQueue) {
             add(_) >> { args ->
@@ -115,7 +121,7 @@ class DependencyGraphBuilderTest extends Specification {
         _ * configuration.path >> 'root'
         _ * moduleResolver.resolve(_, _) >> { it[1].resolved(root) }
 
-        builder = new DependencyGraphBuilder(idResolver, metaDataResolver, moduleResolver, moduleConflictHandler, capabilitiesConflictHandler, Specs.satisfyAll(), attributesSchema, moduleExclusions, buildOperationProcessor, moduleReplacements, dependencySubstitutionApplicator, componentSelectorConverter, TestUtil.attributesFactory())
+        builder = new DependencyGraphBuilder(idResolver, metaDataResolver, moduleResolver, moduleConflictHandler, capabilitiesConflictHandler, Specs.satisfyAll(), attributesSchema, moduleExclusions, buildOperationProcessor, moduleReplacements, dependencySubstitutionApplicator, componentSelectorConverter, TestUtil.attributesFactory(), moduleIdentifierFactory, versionSelectorScheme, false)
     }
 
     private TestGraphVisitor resolve(DependencyGraphBuilder builder = this.builder) {
@@ -563,10 +569,97 @@ class DependencyGraphBuilderTest extends Specification {
         result.components == ids(root, a, selected, d, e)
     }
 
+    def "resolves metadata of the next level of the graph ahead of the traversal"() {
+        given:
+        builder = new DependencyGraphBuilder(idResolver, metaDataResolver, moduleResolver, moduleConflictHandler, capabilitiesConflictHandler, Specs.satisfyAll(), attributesSchema, moduleExclusions, buildOperationProcessor, moduleReplacements, dependencySubstitutionApplicator, componentSelectorConverter, TestUtil.attributesFactory(), moduleIdentifierFactory, versionSelectorScheme, true)
+        def a = revision("a")
+        def b = revision("b")
+        def c = revision("c")
+        def d = revision("d")
+        resolvesAheadAndTraverses root, a
+        resolvesAheadAndTraverses root, b
+        resolvesAheadAndTraverses a, c
+        resolvesAheadAndTraverses b, d
+
+        when:
+        def result = resolve()
+        result.rethrowFailure()
+
+        then:
+        result.components == ids(root, a, b, c, d)
+    }
+
+    def "does not resolve metadata ahead of the traversal when it is cheap to fetch"() {
+        given:
+        builder = new DependencyGraphBuilder(idResolver, metaDataResolver, moduleResolver, moduleConflictHandler, capabilitiesConflictHandler, Specs.satisfyAll(), attributesSchema, moduleExclusions, buildOperationProcessor, moduleReplacements, dependencySubstitutionApplicator, componentSelectorConverter, TestUtil.attributesFactory(), moduleIdentifierFactory, versionSelectorScheme, true)
+        def a = revision("a")
+        def b = revision("b")
+        def c = revision("c")
+        def d = revision("d")
+        traverses root, a
+        traverses root, b
+        traverses a, c
+        traverses b, d
+        _ * metaDataResolver.isFetchingMetadataCheap(_) >> true
+
+        when:
+        def result = resolve()
+        result.rethrowFailure()
+
+        then:
+        result.components == ids(root, a, b, c, d)
+    }
+
+    def "resolves metadata of locked modules before the traversal"() {
+        given:
+        def a = revision("a")
+        def b = revision("b")
+        def lockingProvider = Stub(DependencyLockingProvider) {
+            findLockConstraint("root") >> new DefaultDependencyLockingState([strictConstraint("group", "a", "1.0"), strictConstraint("group", "b", "1.0")] as Set)
+        }
+        root = rootProject('root', '1.0', ['root'], lockingProvider)
+
+        when:
+        def result = resolve()
+        result.rethrowFailure()
+
+        then:
+        1 * metaDataResolver.resolve(a.id, _, _) >> { ComponentIdentifier id, ComponentOverrideMetadata requestMetaData, BuildableComponentResolveResult resolveResult ->
+            resolveResult.resolved(a)
+        }
+        1 * metaDataResolver.resolve(b.id, _, _) >> { ComponentIdentifier id, ComponentOverrideMetadata requestMetaData, BuildableComponentResolveResult resolveResult ->
+            resolveResult.resolved(b)
+        }
+
+        and:
+        // The locked modules are only constraints, which do not add them to the graph
+        result.components == ids(root)
+    }
+
+    def "does not resolve metadata of locked modules before the traversal when it is cheap to fetch"() {
+        given:
+        def lockingProvider = Stub(DependencyLockingProvider) {
+            findLockConstraint("root") >> new DefaultDependencyLockingState([strictConstraint("group", "a", "1.0"), strictConstraint("group", "b", "1.0")] as Set)
+        }
+        root = rootProject('root', '1.0', ['root'], lockingProvider)
+
+        when:
+        def result = resolve()
+        result.rethrowFailure()
+
+        then:
+        _ * metaDataResolver.isFetchingMetadataCheap(_) >> true
+        0 * metaDataResolver.resolve(_, _, _)
+        0 * buildOperationProcessor.runAll(_)
+
+        and:
+        result.components == ids(root)
+    }
+
     def "does not include filtered dependencies"() {
         given:
         def spec = { DependencyMetadata dep -> dep.selector.module != 'c' }
-        builder = new DependencyGraphBuilder(idResolver, metaDataResolver, moduleResolver, moduleConflictHandler, capabilitiesConflictHandler, spec, attributesSchema, moduleExclusions, buildOperationProcessor, moduleReplacements, dependencySubstitutionApplicator, componentSelectorConverter, TestUtil.attributesFactory())
+        builder = new DependencyGraphBuilder(idResolver, metaDataResolver, moduleResolver, moduleConflictHandler, capabilitiesConflictHandler, spec, attributesSchema, moduleExclusions, buildOperationProcessor, moduleReplacements, dependencySubstitutionApplicator, componentSelectorConverter, TestUtil.attributesFactory(), moduleIdentifierFactory, versionSelectorScheme, false)
 
         def a = revision('a')
         def b = revision('b')
@@ -1018,11 +1111,14 @@ class DependencyGraphBuilderTest extends Specification {
         return metaData
     }
 
-    def rootProject(String name, String revision = '1.0', List<String> extraConfigs = []) {
-        def metaData = new RootLocalComponentMetadata(newId("group", name, revision), newProjectId(":${name}"), "release", attributesSchema, NoOpDependencyLockingProvider.getInstance())
+    def rootProject(String name, String revision = '1.0', List<String> extraConfigs = [], DependencyLockingProvider lockingProvider = NoOpDependencyLockingProvider.getInstance()) {
+        def metaData = new RootLocalComponentMetadata(newId("group", name, revision), newProjectId(":${name}"), "release", attributesSchema, lockingProvider)
         metaData.addConfiguration("default", "defaultConfig", [] as Set<String>, ["default"] as Set<String>, true, true, attributes, true, true, ImmutableCapabilities.EMPTY)
         extraConfigs.each { String config ->
-            metaData.addConfiguration(config, "${config}Config", ["default"] as Set<String>, ["default", config] as Set<String>, true, true, attributes, true, true, ImmutableCapabilities.EMPTY)
+            def configuration = metaData.addConfiguration(config, "${config}Config", ["default"] as Set<String>, ["default", config] as Set<String>, true, true, attributes, true, true, ImmutableCapabilities.EMPTY)
+            if (lockingProvider != NoOpDependencyLockingProvider.getInstance()) {
+                configuration.enableLocking()
+            }
         }
         metaData.addArtifacts("default", [new DefaultPublishArtifact("art1", "zip", "art", null, new Date(), new File("art1.zip"))])
         return metaData
@@ -1066,6 +1162,15 @@ class DependencyGraphBuilderTest extends Specification {
         }
     }
 
+    def resolvesAheadAndTraverses(def from, ComponentResolveMetadata to) {
+        def dependencyMetaData = dependsOn(from, to.moduleVersionId)
+        selectorResolvesTo(dependencyMetaData, to.id, to.moduleVersionId)
+        // Once ahead of the traversal, and once by the traversal itself
+        2 * metaDataResolver.resolve(to.id, _, _) >> { ComponentIdentifier id, ComponentOverrideMetadata requestMetaData, BuildableComponentResolveResult result ->
+            result.resolved(to)
+        }
+    }
+
     ModuleVersionIdentifier toModuleVersionIdentifier(ModuleRevisionId moduleRevisionId) {
         ModuleVersionIdentifier moduleVersionIdentifier = Mock();
         (0..2) * moduleVersionIdentifier.group >> moduleRevisionId.organisation;
@@ -758,6 +758,28 @@ class DefaultModuleExclusionTest extends Specification {
         union(intersection, simpleExclude)
     }
 
+    def "intersection of module, group, module name and pattern excludes checks each kind of rule"() {
+        def spec = excludeAny(excludeRule("org", "module"), excludeGroupRule("group"), excludeModuleRule("name"), regexpExcludeRule("regexp.*", "mod.*"))
+
+        expect:
+        spec.excludeModule(moduleId("org", "module"))
+        spec.excludeModule(moduleId("group", "other"))
+        spec.excludeModule(moduleId("other", "name"))
+        spec.excludeModule(moduleId("regexp-group", "module-a"))
+        !spec.excludeModule(moduleId("org", "other"))
+        !spec.excludeModule(moduleId("regexp-group", "other"))
+        !spec.excludeModule(moduleId("other", "module"))
+    }
+
+    def "reuses the result of merging the same specs"() {
+        def spec = excludeAny(excludeRule("org", "module"), excludeRule("org", "module2"))
+        def spec2 = excludeAny(excludeRule("org", "module"), excludeRule("org", "module3"))
+
+        expect:
+        union(spec, spec2).is(union(spec, spec2))
+        union(spec, spec2) == excludeAny(excludeRule("org", "module"))
+    }
+
     ModuleExclusion union(ModuleExclusion spec, ModuleExclusion otherRule) {
         moduleExclusions.union(spec, otherRule)
     }
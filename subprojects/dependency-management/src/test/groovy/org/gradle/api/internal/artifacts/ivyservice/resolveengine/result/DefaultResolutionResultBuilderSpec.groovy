@@ -37,7 +37,11 @@ import static org.gradle.util.CollectionUtils.first
 
 class DefaultResolutionResultBuilderSpec extends Specification {
 
-    def builder = new DefaultResolutionResultBuilder()
+    def builder = createBuilder()
+
+    def createBuilder() {
+        new DefaultResolutionResultBuilder()
+    }
 
     def "builds basic graph"() {
         given:
@@ -238,28 +242,28 @@ class DefaultResolutionResultBuilderSpec extends Specification {
 """
     }
 
-    private void node(String module, ComponentSelectionReason reason = VersionSelectionReasons.requested()) {
+    protected void node(String module, ComponentSelectionReason reason = VersionSelectionReasons.requested()) {
         DummyModuleVersionSelection moduleVersion = comp(module, reason)
         builder.visitComponent(moduleVersion)
     }
 
-    private DummyModuleVersionSelection comp(String module, ComponentSelectionReason reason = VersionSelectionReasons.requested()) {
+    protected DummyModuleVersionSelection comp(String module, ComponentSelectionReason reason = VersionSelectionReasons.requested()) {
         def moduleVersion = new DummyModuleVersionSelection(resultId: id(module), moduleVersion: newId("x", module, "1"), selectionReason: reason, componentId: new DefaultModuleComponentIdentifier("x", module, "1"))
         moduleVersion
     }
 
-    private void resolvedConf(String module, List<DependencyResult> deps) {
+    protected void resolvedConf(String module, List<DependencyResult> deps) {
         builder.visitOutgoingEdges(id(module), deps)
     }
 
-    private DependencyResult dep(String requested, Exception failure = null, String selected = requested) {
+    protected DependencyResult dep(String requested, Exception failure = null, String selected = requested) {
         def selector = DefaultModuleComponentSelector.newSelector("x", requested, DefaultImmutableVersionConstraint.of("1"))
         def moduleVersionSelector = newSelector("x", requested, new DefaultMutableVersionConstraint("1"))
         failure = failure == null ? null : new ModuleVersionResolveException(moduleVersionSelector, failure)
         new DummyInternalDependencyResult(requested: selector, selected: id(selected), failure: failure)
     }
 
-    private Long id(String module) {
+    protected Long id(String module) {
         return module.hashCode()
     }
 
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.api.internal.artifacts.ivyservice.resolveengine.result
+
+import static org.gradle.util.CollectionUtils.first
+
+class LazyResolutionResultBuilderSpec extends DefaultResolutionResultBuilderSpec {
+
+    @Override
+    def createBuilder() {
+        new LazyResolutionResultBuilder()
+    }
+
+    def "returns the same results when navigating the graph again"() {
+        given:
+        node("a")
+        node("b")
+        node("c")
+        resolvedConf("a", [dep("b"), dep("c")])
+        resolvedConf("b", [dep("c")])
+
+        when:
+        def a = builder.complete(id("a")).root
+
+        then:
+        first(a.dependencies).is(first(a.dependencies))
+        def c = a.dependencies.find { it.selected.id.module == 'c' }.selected
+        def b = first(a.dependencies).selected
+        first(b.dependencies).selected.is(c)
+        first(c.dependents).is(first(c.dependents))
+    }
+
+    def "links dependents of a component reached before its dependents"() {
+        given:
+        node("a")
+        node("b")
+        node("c")
+        resolvedConf("a", [dep("b"), dep("c")])
+        resolvedConf("b", [dep("c")])
+
+        when:
+        def a = builder.complete(id("a")).root
+        def c = a.dependencies.find { it.selected.id.module == 'c' }.selected
+
+        then:
+        c.dependents*.from*.id*.module == ['a', 'b']
+        def b = first(a.dependencies).selected
+        first(b.dependencies).is(c.dependents.find { it.from.is(b) })
+        a.dependencies.find { it.selected.is(c) }.is(c.dependents.find { it.from.is(a) })
+    }
+
+    def "releases the records of the graph once all views have been created"() {
+        given:
+        node("a")
+        node("b")
+        node("c")
+        resolvedConf("a", [dep("b"), dep("c")])
+        resolvedConf("b", [dep("c")])
+        resolvedConf("c", [dep("a")])
+
+        when:
+        def a = builder.complete(id("a")).root
+        def b = first(a.dependencies).selected
+        def c = first(b.dependencies).selected
+        c.dependents
+        b.dependents
+
+        then:
+        builder.components.isEmpty()
+        builder.outgoingEdges.keySet() == [id("c")] as Set
+        builder.incomingEdges.keySet() == [id("a")] as Set
+        a.graph.views.keySet() == [id("a"), id("c")] as Set
+        a.graph.halfLinkedEdges.isEmpty()
+
+        when:
+        a.dependents
+        c.dependencies
+
+        then:
+        builder.components.isEmpty()
+        builder.outgoingEdges.isEmpty()
+        builder.incomingEdges.isEmpty()
+        a.graph.views.isEmpty()
+        a.graph.halfLinkedEdges.isEmpty()
+
+        and:
+        first(a.dependents).is(first(c.dependencies))
+        first(a.dependents).from.is(c)
+        a.dependents*.from*.id*.module == ['c']
+        c.dependents*.from*.id*.module == ['a', 'b']
+    }
+
+    def "creates a single result for an edge that is visited more than once"() {
+        given:
+        node("a")
+        node("b")
+        resolvedConf("a", [dep("b"), dep("b")])
+
+        when:
+        def a = builder.complete(id("a")).root
+        def b = first(a.dependencies).selected
+
+        then:
+        a.dependencies.size() == 1
+        b.dependents.size() == 1
+        first(b.dependents).is(first(a.dependencies))
+        a.graph.halfLinkedEdges.isEmpty()
+    }
+}
@@ -26,7 +26,9 @@ import org.gradle.cache.internal.ProducerGuard
 import org.gradle.internal.authentication.AbstractAuthentication
 import org.gradle.internal.resource.connector.ResourceConnectorFactory
 import org.gradle.internal.resource.local.FileResourceRepository
+import org.gradle.internal.resource.transfer.ConcurrentDownloadLimiter
 import org.gradle.internal.resource.transport.ResourceConnectorRepositoryTransport
+import org.gradle.internal.resource.transport.file.FileRepositoryIndex
 import spock.lang.Specification
 import spock.lang.Unroll
 
@@ -44,7 +46,7 @@ class RepositoryTransportFactoryTest extends Specification {
         connectorFactory2.getSupportedAuthentication() >> ([] as Set)
         List<ResourceConnectorFactory> resourceConnectorFactories = Lists.newArrayList(connectorFactory1, connectorFactory2)
         StartParameterResolutionOverride override = new StartParameterResolutionOverride(new StartParameter())
-        repositoryTransportFactory = new RepositoryTransportFactory(resourceConnectorFactories, null, null, null, null, null, null, override, producerGuard, Mock(FileResourceRepository))
+        repositoryTransportFactory = new RepositoryTransportFactory(resourceConnectorFactories, null, null, null, null, null, null, override, producerGuard, Mock(FileResourceRepository), ConcurrentDownloadLimiter.UNLIMITED, FileRepositoryIndex.NONE)
     }
 
     def "cannot create a transport for url with unsupported scheme"() {
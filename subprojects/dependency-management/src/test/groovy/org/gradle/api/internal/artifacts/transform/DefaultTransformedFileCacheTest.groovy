@@ -146,6 +146,119 @@ class DefaultTransformedFileCacheTest extends ConcurrentSpec {
         0 * snapshotter._
     }
 
+    def "reuses snapshot of input file in later builds until the file changes"() {
+        def transform = Mock(BiFunction)
+        def inputFile = tmpDir.file("a")
+        inputFile.text = "input"
+        inputFile.lastModified = System.currentTimeMillis() - 10000
+
+        given:
+        1 * snapshotter.snapshotAll(inputFile) >> snapshot(HashCode.fromInt(234))
+        1 * transform.apply(inputFile, _) >>  { File file, File dir -> def r = new File(dir, "a.1"); r.text = "result"; [r] }
+        def result = cache.getResult(inputFile, HashCode.fromInt(123), transform)
+        cache.beforeComplete()
+
+        when:
+        def result2 = cache.getResult(inputFile, HashCode.fromInt(123), transform)
+
+        then:
+        result2 == result
+
+        and:
+        0 * snapshotter._
+        0 * transform._
+
+        when:
+        inputFile.text = "changed input"
+        def result3 = cache.getResult(inputFile, HashCode.fromInt(123), transform)
+
+        then:
+        result3*.name == ["a.2"]
+
+        and:
+        1 * snapshotter.snapshotAll(inputFile) >> snapshot(HashCode.fromInt(456))
+        1 * transform.apply(inputFile, _) >>  { File file, File dir -> def r = new File(dir, "a.2"); r.text = "result"; [r] }
+        0 * transform._
+    }
+
+    def "does not reuse snapshot of input file modified shortly before the snapshot was taken"() {
+        def transform = Mock(BiFunction)
+        def inputFile = tmpDir.file("a")
+        inputFile.text = "input"
+
+        given:
+        1 * snapshotter.snapshotAll(inputFile) >> snapshot(HashCode.fromInt(234))
+        1 * transform.apply(inputFile, _) >>  { File file, File dir -> def r = new File(dir, "a.1"); r.text = "result"; [r] }
+        def result = cache.getResult(inputFile, HashCode.fromInt(123), transform)
+        cache.beforeComplete()
+
+        when:
+        def result2 = cache.getResult(inputFile, HashCode.fromInt(123), transform)
+
+        then:
+        result2 == result
+
+        and:
+        1 * snapshotter.snapshotAll(inputFile) >> snapshot(HashCode.fromInt(234))
+        0 * transform._
+    }
+
+    def "forgets snapshots of input files not used by the previous build"() {
+        def transform = Mock(BiFunction)
+        def inputFile = tmpDir.file("a")
+        inputFile.text = "input"
+        inputFile.lastModified = System.currentTimeMillis() - 10000
+
+        given:
+        1 * snapshotter.snapshotAll(inputFile) >> snapshot(HashCode.fromInt(234))
+        1 * transform.apply(inputFile, _) >>  { File file, File dir -> def r = new File(dir, "a.1"); r.text = "result"; [r] }
+        def result = cache.getResult(inputFile, HashCode.fromInt(123), transform)
+        cache.beforeComplete()
+        cache.beforeComplete()
+
+        when:
+        def result2 = cache.getResult(inputFile, HashCode.fromInt(123), transform)
+
+        then:
+        result2 == result
+
+        and:
+        1 * snapshotter.snapshotAll(inputFile) >> snapshot(HashCode.fromInt(234))
+        0 * transform._
+    }
+
+    def "reuses result from previous build when its files still exist"() {
+        def transform = Mock(BiFunction)
+        def inputFile = tmpDir.file("a")
+        _ * snapshotter.snapshotAll(inputFile) >> snapshot(HashCode.fromInt(234))
+
+        given:
+        1 * transform.apply(inputFile, _) >>  { File file, File dir -> def r = new File(dir, "a.1"); r.text = "result"; [r] }
+        def result = cache.getResult(inputFile, HashCode.fromInt(123), transform)
+        cache.beforeComplete()
+
+        expect:
+        cache.contains(inputFile, HashCode.fromInt(123))
+        cache.getResult(inputFile, HashCode.fromInt(123), transform) == result
+
+        when:
+        cache.beforeComplete()
+        result.first().delete()
+
+        then:
+        !cache.contains(inputFile, HashCode.fromInt(123))
+
+        when:
+        def result2 = cache.getResult(inputFile, HashCode.fromInt(123), transform)
+
+        then:
+        result2 == result
+
+        and:
+        1 * transform.apply(inputFile, _) >>  { File file, File dir -> def r = new File(dir, "a.1"); r.text = "result"; [r] }
+        0 * transform._
+    }
+
     def "applies transform once when requested concurrently by multiple threads"() {
         def transform = Mock(BiFunction)
         def inputFile = tmpDir.file("a")
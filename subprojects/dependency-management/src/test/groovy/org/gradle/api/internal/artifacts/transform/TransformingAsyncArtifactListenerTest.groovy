@@ -49,4 +49,84 @@ class TransformingAsyncArtifactListenerTest extends Specification {
         then:
         2 * transformer.transform(_)
     }
+
+    def "schedules each step of a chain separately for each intermediate file"() {
+        def first = Mock(ArtifactTransformer)
+        def second = Mock(ArtifactTransformer)
+        def fileResults = Maps.newHashMap()
+        def listener = new TransformingAsyncArtifactListener(new ChainedTransformer(first, second), null, operationQueue, Maps.newHashMap(), fileResults)
+        def input = new File("input")
+        def queued = []
+
+        when:
+        listener.fileAvailable(input)
+
+        then:
+        1 * first.hasCachedResult(input) >> true
+        1 * first.transform(input) >> [new File("a"), new File("b")]
+        2 * second.hasCachedResult(_) >> false
+        2 * operationQueue.add(_) >> { TransformFileOperation operation -> queued << operation }
+        0 * second.transform(_)
+
+        when:
+        queued.reverse().each { it.run(null) }
+
+        then:
+        1 * second.transform(new File("a")) >> [new File("a1")]
+        1 * second.transform(new File("b")) >> [new File("b1"), new File("b2")]
+
+        and:
+        fileResults[input].failure == null
+        fileResults[input].result == [new File("a1"), new File("b1"), new File("b2")]
+    }
+
+    def "reports the failure of a later step of a chain"() {
+        def first = Mock(ArtifactTransformer)
+        def second = Mock(ArtifactTransformer)
+        def fileResults = Maps.newHashMap()
+        def listener = new TransformingAsyncArtifactListener(new ChainedTransformer(first, second), null, operationQueue, Maps.newHashMap(), fileResults)
+        def input = new File("input")
+        def failure = new RuntimeException("broken")
+
+        given:
+        first.hasCachedResult(_) >> true
+        first.transform(input) >> [new File("a")]
+        second.hasCachedResult(_) >> true
+        second.transform(new File("a")) >> { throw failure }
+
+        when:
+        listener.fileAvailable(input)
+
+        then:
+        0 * operationQueue.add(_)
+
+        and:
+        fileResults[input].failure.is(failure)
+    }
+
+    def "skips the steps of a chain that did not run"() {
+        def first = Mock(ArtifactTransformer)
+        def second = Mock(ArtifactTransformer)
+        def fileResults = Maps.newHashMap()
+        def listener = new TransformingAsyncArtifactListener(new ChainedTransformer(first, second), null, operationQueue, Maps.newHashMap(), fileResults)
+        def input = new File("input")
+        def queued = []
+
+        given:
+        first.hasCachedResult(_) >> true
+        first.transform(input) >> [new File("a"), new File("b")]
+        second.hasCachedResult(_) >> false
+        operationQueue.add(_) >> { TransformFileOperation operation -> queued << operation }
+
+        when:
+        listener.fileAvailable(input)
+        queued.first().run(null)
+
+        then:
+        1 * second.transform(new File("a")) >> [new File("a1")]
+
+        and:
+        fileResults[input].failure == null
+        fileResults[input].result == [new File("a1")]
+    }
 }
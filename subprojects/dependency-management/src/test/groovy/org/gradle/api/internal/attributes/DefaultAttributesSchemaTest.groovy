@@ -341,6 +341,97 @@ class DefaultAttributesSchemaTest extends Specification {
         best == [value1] as Set
     }
 
+    static class CountingCompatibilityRule implements AttributeCompatibilityRule<String> {
+        static int count
+
+        @Override
+        void execute(CompatibilityCheckDetails<String> details) {
+            count++
+            if (details.producerValue == "compatible") {
+                details.compatible()
+            }
+        }
+    }
+
+    def "remembers the result of matching candidates with the same attributes"() {
+        def attr = Attribute.of(String)
+        schema.attribute(attr).compatibilityRules.add(CountingCompatibilityRule)
+        CountingCompatibilityRule.count = 0
+
+        def requested = factory.of(attr, "requested")
+        def candidate1 = factory.mutable().attribute(attr, "compatible")
+        def candidate2 = factory.mutable().attribute(attr, "other")
+        def sameCandidate1 = factory.mutable().attribute(attr, "compatible")
+        def sameCandidate2 = factory.mutable().attribute(attr, "other")
+
+        when:
+        def matches = schema.matcher().matches([candidate1, candidate2], requested)
+
+        then:
+        matches == [candidate1]
+        CountingCompatibilityRule.count == 2
+
+        when:
+        matches = schema.matcher().matches([sameCandidate1, sameCandidate2], requested)
+
+        then:
+        matches.size() == 1
+        matches[0].is(sameCandidate1)
+        CountingCompatibilityRule.count == 2
+
+        when:
+        def match = schema.matcher().isMatching(candidate2, requested)
+        def sameMatch = schema.matcher().isMatching(sameCandidate2, requested)
+
+        then:
+        !match
+        !sameMatch
+        CountingCompatibilityRule.count == 3
+    }
+
+    def "does not reuse the result of matching after the rules change"() {
+        def attr = Attribute.of(String)
+        schema.attribute(attr).compatibilityRules.add(CountingCompatibilityRule)
+        CountingCompatibilityRule.count = 0
+
+        def requested = factory.of(attr, "requested")
+        def candidate = factory.mutable().attribute(attr, "other")
+
+        expect:
+        !schema.matcher().isMatching(candidate, requested)
+        CountingCompatibilityRule.count == 1
+
+        when:
+        schema.attribute(attr).compatibilityRules.add(DoNothingRule)
+        schema.matcher().isMatching(candidate, requested)
+
+        then:
+        CountingCompatibilityRule.count == 2
+    }
+
+    def "does not reuse the result of matching after the rules of the producer change"() {
+        def producer = new DefaultAttributesSchema(new ComponentAttributeMatcher(), TestUtil.instantiatorFactory())
+        def attr = Attribute.of(String)
+        schema.attribute(attr)
+        producer.attribute(attr).compatibilityRules.add(CountingCompatibilityRule)
+        CountingCompatibilityRule.count = 0
+
+        def requested = factory.of(attr, "requested")
+        def candidate = factory.mutable().attribute(attr, "other")
+
+        expect:
+        !schema.withProducer(producer).isMatching(candidate, requested)
+        !schema.withProducer(producer).isMatching(candidate, requested)
+        CountingCompatibilityRule.count == 1
+
+        when:
+        producer.attribute(attr).compatibilityRules.add(IncompatibleStringsRule)
+        schema.withProducer(producer).isMatching(candidate, requested)
+
+        then:
+        CountingCompatibilityRule.count == 2
+    }
+
     interface Flavor extends Named {}
 
     enum MyEnum {
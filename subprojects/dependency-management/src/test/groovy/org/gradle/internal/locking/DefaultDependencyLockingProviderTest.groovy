@@ -73,6 +73,21 @@ org:foo:1.0
         result.getLockedDependencies() == [strictConstraint('org', 'bar', '1.3'), strictConstraint('org', 'foo', '1.0')] as Set
     }
 
+    def 'reads the lock file of a configuration once'() {
+        given:
+        def lockFile = lockDir.file('conf.lockfile')
+        lockFile << "org:foo:1.0\n"
+
+        when:
+        def first = provider.findLockConstraint('conf')
+        lockFile.text = "org:foo:1.1\n"
+        def second = provider.findLockConstraint('conf')
+
+        then:
+        second.is(first)
+        second.getLockedDependencies() == [strictConstraint('org', 'foo', '1.0')] as Set
+    }
+
     def 'fails with invalid content in lock file'() {
         given:
         lockDir.file('conf.lockfile') << """invalid"""
@@ -48,6 +48,27 @@ line2
 """
     }
 
+    def 'does not rewrite an unchanged lock file'() {
+        given:
+        def lockFile = lockDir.file('conf.lockfile')
+        lockFileReaderWriter.writeLockFile('conf', ['line1', 'line2'])
+        lockFile.lastModified = 0
+
+        when:
+        lockFileReaderWriter.writeLockFile('conf', ['line1', 'line2'])
+
+        then:
+        lockFile.lastModified() == 0
+
+        when:
+        lockFileReaderWriter.writeLockFile('conf', ['line1', 'line3'])
+
+        then:
+        lockFile.text == """${LockFileReaderWriter.LOCKFILE_HEADER}line1
+line3
+"""
+    }
+
     def 'reads a lock file'() {
         given:
         lockDir.file('conf.lockfile') << """#Ignored
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resource.transfer
+
+import org.gradle.internal.Factory
+import org.gradle.test.fixtures.concurrent.ConcurrentSpec
+
+class ConcurrentDownloadLimiterTest extends ConcurrentSpec {
+
+    def "returns the result of the download"() {
+        def limiter = new ConcurrentDownloadLimiter(1)
+
+        expect:
+        limiter.download(new URI("https://repo.example.com/a.jar"), { "result" } as Factory) == "result"
+    }
+
+    def "downloads from the same host wait for a running download to complete"() {
+        def limiter = new ConcurrentDownloadLimiter(1)
+
+        when:
+        async {
+            start {
+                limiter.download(new URI("https://repo.example.com/a.jar"), {
+                    instant.first
+                    thread.block()
+                    instant.firstCompleted
+                } as Factory)
+            }
+            thread.blockUntil.first
+            start {
+                limiter.download(new URI("https://repo.example.com/b.jar"), {
+                    instant.second
+                } as Factory)
+            }
+        }
+
+        then:
+        instant.second > instant.firstCompleted
+    }
+
+    def "downloads from different hosts run concurrently"() {
+        def limiter = new ConcurrentDownloadLimiter(1)
+
+        expect:
+        async {
+            start {
+                limiter.download(new URI("https://repo.example.com/a.jar"), {
+                    instant.first
+                    thread.blockUntil.second
+                } as Factory)
+            }
+            start {
+                limiter.download(new URI("https://mirror.example.com/a.jar"), {
+                    instant.second
+                    thread.blockUntil.first
+                } as Factory)
+            }
+        }
+    }
+
+    def "downloads from the same host run concurrently up to the limit"() {
+        def limiter = new ConcurrentDownloadLimiter(2)
+
+        expect:
+        async {
+            start {
+                limiter.download(new URI("https://repo.example.com/a.jar"), {
+                    instant.first
+                    thread.blockUntil.second
+                } as Factory)
+            }
+            start {
+                limiter.download(new URI("https://repo.example.com/b.jar"), {
+                    instant.second
+                    thread.blockUntil.first
+                } as Factory)
+            }
+        }
+    }
+
+    def "releases the permit when the download fails"() {
+        def limiter = new ConcurrentDownloadLimiter(1)
+        def location = new URI("https://repo.example.com/a.jar")
+        def failure = new RuntimeException("broken")
+
+        when:
+        limiter.download(location, { throw failure } as Factory)
+
+        then:
+        def e = thrown(RuntimeException)
+        e.is(failure)
+
+        and:
+        limiter.download(location, { "result" } as Factory) == "result"
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.internal.resource.transport.file
+
+import org.gradle.api.internal.file.TestFiles
+import org.gradle.internal.resource.ExternalResourceName
+import org.gradle.internal.resource.local.ByteArrayReadableContent
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+class FileRepositoryIndexTest extends Specification {
+    @Rule
+    TestNameTestDirectoryProvider tmpDir = new TestNameTestDirectoryProvider()
+
+    def index = new FileRepositoryIndex(true)
+
+    def "lists each directory once"() {
+        def dir = tmpDir.createDir("org/test/module")
+        dir.createDir("1.0")
+        dir.createDir("1.1")
+
+        expect:
+        index.list(dir) as Set == ["1.0", "1.1"] as Set
+
+        when:
+        dir.createDir("1.2")
+
+        then:
+        index.list(dir) as Set == ["1.0", "1.1"] as Set
+    }
+
+    def "answers existence from the listing of the directory"() {
+        def dir = tmpDir.createDir("org/test/module/1.0")
+        def pom = dir.createFile("module-1.0.pom")
+
+        expect:
+        index.exists(pom)
+        !index.exists(dir.file("module-1.0.jar"))
+        !index.exists(tmpDir.file("org/test/missing/1.0/missing-1.0.pom"))
+        index.list(tmpDir.file("org/test/missing")) == null
+        index.list(pom) == null
+    }
+
+    def "asks the file system when the listing only contains the name with a different case"() {
+        def dir = tmpDir.createDir("org/test/module/1.0")
+        def pom = dir.createFile("module-1.0.pom")
+        def otherCase = dir.file("Module-1.0.pom")
+
+        expect:
+        index.exists(otherCase) == otherCase.exists()
+        index.exists(pom)
+    }
+
+    def "sees files written to the repository and the directories created for them"() {
+        def root = tmpDir.createDir("repo")
+
+        expect:
+        index.list(root) == []
+        index.list(root.file("org/test/module")) == null
+
+        when:
+        def pom = root.file("org/test/module/1.0/module-1.0.pom").createFile()
+        index.written(pom)
+
+        then:
+        index.list(root) == ["org"]
+        index.list(root.file("org/test/module")) == ["1.0"]
+        index.exists(pom)
+    }
+
+    def "disabled index reads the file system each time"() {
+        def index = FileRepositoryIndex.NONE
+        def dir = tmpDir.createDir("org/test/module")
+
+        expect:
+        index.list(dir) == []
+
+        when:
+        def pom = dir.createFile("module-1.0.pom")
+
+        then:
+        index.list(dir) == ["module-1.0.pom"]
+        index.exists(pom)
+    }
+
+    def "file transport uses the index to list the resources of the repository"() {
+        def transport = new FileTransport("repo", TestFiles.fileRepository(), null, null, null, null, null, index)
+        def repository = transport.repository
+        def root = tmpDir.createDir("repo")
+        def moduleDir = new ExternalResourceName(root.file("org/test/module").toURI())
+        def pom = new ExternalResourceName(root.file("org/test/module/1.0/module-1.0.pom").toURI())
+
+        expect:
+        repository.resource(moduleDir).list() == null
+        repository.resource(pom).metaData == null
+
+        when:
+        repository.withProgressLogging().resource(pom).put(new ByteArrayReadableContent("<project/>".bytes))
+
+        then:
+        repository.resource(moduleDir).list() == ["1.0"]
+        repository.resource(pom).metaData.contentLength == 10
+        transport.resourceAccessor.getResource(pom, null, null, null).file == root.file("org/test/module/1.0/module-1.0.pom")
+    }
+}
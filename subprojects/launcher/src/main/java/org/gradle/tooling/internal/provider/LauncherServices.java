@@ -17,6 +17,7 @@
 package org.gradle.tooling.internal.provider;
 
 import org.gradle.api.execution.internal.TaskInputsListener;
+import org.gradle.cache.internal.CacheFactory;
 import org.gradle.internal.classpath.CachedClasspathTransformer;
 import org.gradle.internal.concurrent.ExecutorFactory;
 import org.gradle.internal.concurrent.ParallelismConfigurationManager;
@@ -67,7 +68,8 @@ public class LauncherServices extends AbstractPluginServiceRegistry {
                                           LoggingManagerInternal loggingManager,
                                           GradleUserHomeScopeServiceRegistry userHomeServiceRegistry,
                                           FileSystemChangeWaiterFactory fileSystemChangeWaiterFactory,
-                                          ParallelismConfigurationManager parallelismConfigurationManager
+                                          ParallelismConfigurationManager parallelismConfigurationManager,
+                                          CacheFactory cacheFactory
         ) {
             return new SetupLoggingActionExecuter(
                 new SessionFailureReportingActionExecuter(
@@ -90,7 +92,8 @@ public class LauncherServices extends AbstractPluginServiceRegistry {
                                         inputsListener,
                                         styledTextOutputFactory,
                                         executorFactory),
-                                    userHomeServiceRegistry)),
+                                    userHomeServiceRegistry,
+                                    cacheFactory)),
                             parallelismConfigurationManager)),
                     styledTextOutputFactory,
                     Time.clock()),
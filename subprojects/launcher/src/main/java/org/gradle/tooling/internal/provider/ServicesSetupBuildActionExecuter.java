@@ -17,6 +17,7 @@
 package org.gradle.tooling.internal.provider;
 
 import org.gradle.StartParameter;
+import org.gradle.cache.internal.CacheFactory;
 import org.gradle.initialization.BuildRequestContext;
 import org.gradle.initialization.SessionLifecycleListener;
 import org.gradle.internal.concurrent.CompositeStoppable;
@@ -34,10 +35,12 @@ import org.gradle.launcher.exec.BuildExecuter;
 public class ServicesSetupBuildActionExecuter implements BuildExecuter {
     private final BuildActionExecuter<BuildActionParameters> delegate;
     private final GradleUserHomeScopeServiceRegistry userHomeServiceRegistry;
+    private final CacheFactory cacheFactory;
 
-    public ServicesSetupBuildActionExecuter(BuildActionExecuter<BuildActionParameters> delegate, GradleUserHomeScopeServiceRegistry userHomeServiceRegistry) {
+    public ServicesSetupBuildActionExecuter(BuildActionExecuter<BuildActionParameters> delegate, GradleUserHomeScopeServiceRegistry userHomeServiceRegistry, CacheFactory cacheFactory) {
         this.delegate = delegate;
         this.userHomeServiceRegistry = userHomeServiceRegistry;
+        this.cacheFactory = cacheFactory;
     }
 
     @Override
@@ -71,7 +74,12 @@ public class ServicesSetupBuildActionExecuter implements BuildExecuter {
                 public void stop() {
                     userHomeServiceRegistry.release(userHomeServices);
                 }
-            }, crossBuildSessionScopeServices).stop();
+            }, crossBuildSessionScopeServices, new Stoppable() {
+                @Override
+                public void stop() {
+                    cacheFactory.buildFinished();
+                }
+            }).stop();
         }
     }
 }
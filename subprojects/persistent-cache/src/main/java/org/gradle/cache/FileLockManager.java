@@ -56,6 +56,11 @@ public interface FileLockManager {
      */
     FileLock lock(File target, LockOptions options, String targetDisplayName, String operationDisplayName, @Nullable Runnable whenContended) throws LockTimeoutException;
 
+    /**
+     * Returns the number of acquisitions of each lock and the time this process spent waiting for them.
+     */
+    FileLockWaitStatistics getWaitStatistics();
+
     enum LockMode {
         /**
          * No synchronisation is done.
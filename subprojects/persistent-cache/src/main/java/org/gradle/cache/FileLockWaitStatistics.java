@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.cache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts how often each lock was acquired, how often another process held it at the time, and how long this process waited for it.
+ *
+ * <p>The counters are kept until they are {@link #drain() drained}, which is expected to happen once per build. At most {@value #MAX_LOCKS}
+ * locks are counted between two drains.</p>
+ */
+public class FileLockWaitStatistics {
+    private static final int MAX_LOCKS = 1000;
+
+    private final ConcurrentMap<String, Counters> locks = Maps.newConcurrentMap();
+
+    public void recordAcquired(String lockDisplayName, boolean contended, long waitMillis) {
+        Counters counters = locks.get(lockDisplayName);
+        if (counters == null) {
+            if (locks.size() >= MAX_LOCKS) {
+                return;
+            }
+            Counters newCounters = new Counters();
+            counters = locks.putIfAbsent(lockDisplayName, newCounters);
+            if (counters == null) {
+                counters = newCounters;
+            }
+        }
+        counters.acquisitions.incrementAndGet();
+        if (contended) {
+            counters.contendedAcquisitions.incrementAndGet();
+        }
+        counters.waitMillis.addAndGet(waitMillis);
+    }
+
+    /**
+     * Returns the counters of each lock acquired since the last drain, and forgets them.
+     */
+    public List<LockWaits> drain() {
+        ImmutableList.Builder<LockWaits> builder = ImmutableList.builder();
+        for (String lockDisplayName : locks.keySet()) {
+            Counters counters = locks.remove(lockDisplayName);
+            if (counters != null) {
+                builder.add(new LockWaits(lockDisplayName, counters.acquisitions.get(), counters.contendedAcquisitions.get(), counters.waitMillis.get()));
+            }
+        }
+        return builder.build();
+    }
+
+    public static class LockWaits {
+        private final String lockDisplayName;
+        private final long acquisitions;
+        private final long contendedAcquisitions;
+        private final long waitTimeMillis;
+
+        LockWaits(String lockDisplayName, long acquisitions, long contendedAcquisitions, long waitTimeMillis) {
+            this.lockDisplayName = lockDisplayName;
+            this.acquisitions = acquisitions;
+            this.contendedAcquisitions = contendedAcquisitions;
+            this.waitTimeMillis = waitTimeMillis;
+        }
+
+        public String getLockDisplayName() {
+            return lockDisplayName;
+        }
+
+        public long getAcquisitions() {
+            return acquisitions;
+        }
+
+        /**
+         * Returns how many acquisitions of the lock found it held by another process.
+         */
+        public long getContendedAcquisitions() {
+            return contendedAcquisitions;
+        }
+
+        /**
+         * Returns the total time spent waiting to acquire the lock.
+         */
+        public long getWaitTimeMillis() {
+            return waitTimeMillis;
+        }
+    }
+
+    private static class Counters {
+        private final AtomicLong acquisitions = new AtomicLong();
+        private final AtomicLong contendedAcquisitions = new AtomicLong();
+        private final AtomicLong waitMillis = new AtomicLong();
+    }
+}
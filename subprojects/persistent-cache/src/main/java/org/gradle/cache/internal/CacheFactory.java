@@ -32,4 +32,9 @@ public interface CacheFactory {
      * Opens a cache with the given options. The caller must close the cache when finished with it.
      */
     PersistentCache open(File cacheDir, String displayName, @Nullable CacheValidator cacheValidator, Map<String, ?> properties, CacheBuilder.LockTarget lockTarget, LockOptions lockOptions, @Nullable Action<? super PersistentCache> initializer, @Nullable CleanupAction cleanup) throws CacheOpenException;
+
+    /**
+     * Called when a build has finished. Waits for the caches that were closed during the build to finish flushing their pending updates, unless these are allowed to complete in the background.
+     */
+    void buildFinished();
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.cache.internal;
+
+import org.gradle.api.UncheckedIOException;
+import org.gradle.util.GFileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An append-only journal of the time each entry of a cache directory was last used.
+ *
+ * <p>Every use of an entry is recorded in memory and appended to the journal in one go when the cache is closed, or when
+ * too many records are pending. Cleanup replays the journal to find the entries to delete,
+ * and then compacts it so that it contains a single record per entry. This way cleanup does not need to stat every
+ * file of the cache. Entries that are not recorded in the journal (for example, because they were added by an older
+ * Gradle version) are picked up by a full scan of the cache directory, which is done when the journal is missing or
+ * when the last full scan is older than {@link #FULL_SCAN_INTERVAL_DAYS} days. A journal created by {@link #createIfMissing()}
+ * has never been scanned, so the first cleanup after its creation always scans.</p>
+ *
+ * <p>Callers are responsible for holding the cross-process lock of the cache while using the journal.</p>
+ */
+public class CacheUsageJournal {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheUsageJournal.class);
+    private static final int JOURNAL_VERSION = 1;
+    private static final int MAX_PENDING_RECORDS = 10000;
+    public static final long FULL_SCAN_INTERVAL_DAYS = 7;
+
+    private final File journalFile;
+    private final Map<String, Long> pendingRecords = new HashMap<String, Long>();
+
+    public CacheUsageJournal(File journalFile) {
+        this.journalFile = journalFile;
+    }
+
+    public File getJournalFile() {
+        return journalFile;
+    }
+
+    /**
+     * Creates the journal, if it does not exist yet.
+     */
+    public synchronized void createIfMissing() {
+        if (!journalFile.isFile()) {
+            compact(new State(0, new HashMap<String, Long>()));
+        }
+    }
+
+    /**
+     * Records that the given cache entry was used at the given time. The record is only written to the journal by {@link #flush()}.
+     */
+    public synchronized void recordUsage(String entryName, long timestamp) {
+        Long previous = pendingRecords.get(entryName);
+        if (previous == null || previous < timestamp) {
+            pendingRecords.put(entryName, timestamp);
+        }
+        if (pendingRecords.size() >= MAX_PENDING_RECORDS) {
+            flush();
+        }
+    }
+
+    /**
+     * Appends the pending records to the journal.
+     */
+    public synchronized void flush() {
+        if (pendingRecords.isEmpty()) {
+            return;
+        }
+        try {
+            boolean exists = journalFile.isFile();
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(journalFile, true)));
+            try {
+                if (!exists) {
+                    // The journal was removed while the cache was in use
+                    writeHeader(output, 0);
+                }
+                for (Map.Entry<String, Long> record : pendingRecords.entrySet()) {
+                    output.writeUTF(record.getKey());
+                    output.writeLong(record.getValue());
+                }
+            } finally {
+                output.close();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Could not record usage of cache entries in {}.", journalFile, e);
+        } finally {
+            pendingRecords.clear();
+        }
+    }
+
+    /**
+     * Replays the journal.
+     *
+     * @return the last use of each recorded entry, or null if the journal does not exist or could not be read.
+     */
+    @Nullable
+    public synchronized State read() {
+        flush();
+        if (!journalFile.isFile()) {
+            return null;
+        }
+        try {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(journalFile)));
+            try {
+                if (input.readInt() != JOURNAL_VERSION) {
+                    return null;
+                }
+                long lastFullScan = input.readLong();
+                Map<String, Long> lastUsed = new HashMap<String, Long>();
+                while (true) {
+                    String entryName;
+                    long timestamp;
+                    try {
+                        entryName = input.readUTF();
+                        timestamp = input.readLong();
+                    } catch (EOFException e) {
+                        // End of journal, or a record that was only partially written
+                        break;
+                    }
+                    Long previous = lastUsed.get(entryName);
+                    if (previous == null || previous < timestamp) {
+                        lastUsed.put(entryName, timestamp);
+                    }
+                }
+                return new State(lastFullScan, lastUsed);
+            } finally {
+                input.close();
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Could not read cache usage journal {}.", journalFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the journal with a single record per entry.
+     */
+    public synchronized void compact(State state) {
+        File tempFile = new File(journalFile.getParentFile(), journalFile.getName() + ".tmp");
+        try {
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            try {
+                writeHeader(output, state.getLastFullScan());
+                for (Map.Entry<String, Long> entry : state.getLastUsed().entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeLong(entry.getValue());
+                }
+            } finally {
+                output.close();
+            }
+            // Replace the journal in one step, so that a crash leaves either the old or the new journal
+            Files.move(tempFile.toPath(), journalFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            GFileUtils.deleteQuietly(tempFile);
+            throw new UncheckedIOException("Could not compact cache usage journal " + journalFile, e);
+        }
+    }
+
+    private static void writeHeader(DataOutputStream output, long lastFullScan) throws IOException {
+        output.writeInt(JOURNAL_VERSION);
+        output.writeLong(lastFullScan);
+    }
+
+    public static class State {
+        private final long lastFullScan;
+        private final Map<String, Long> lastUsed;
+
+        public State(long lastFullScan, Map<String, Long> lastUsed) {
+            this.lastFullScan = lastFullScan;
+            this.lastUsed = lastUsed;
+        }
+
+        public long getLastFullScan() {
+            return lastFullScan;
+        }
+
+        /**
+         * The last use of each entry, keyed by the name of the entry. The map is mutable.
+         */
+        public Map<String, Long> getLastUsed() {
+            return lastUsed;
+        }
+
+        public boolean isFullScanDue(long now) {
+            return now - lastFullScan > TimeUnit.DAYS.toMillis(FULL_SCAN_INTERVAL_DAYS);
+        }
+    }
+}
@@ -27,9 +27,15 @@ import org.gradle.cache.PersistentIndexedCache;
 import org.gradle.cache.PersistentIndexedCacheParameters;
 import org.gradle.internal.Factory;
 import org.gradle.internal.FileUtils;
+import org.gradle.internal.UncheckedException;
 import org.gradle.internal.concurrent.CompositeStoppable;
 import org.gradle.internal.concurrent.ExecutorFactory;
+import org.gradle.internal.concurrent.ManagedExecutor;
 import org.gradle.internal.serialize.Serializer;
+import org.gradle.internal.time.Time;
+import org.gradle.internal.time.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 import java.io.Closeable;
@@ -39,18 +45,36 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Caches are closed asynchronously, so that the pending updates of independent caches are flushed in parallel. The factory waits for these closes to complete
+ * at the end of the build or, when {@value #CLOSE_IN_BACKGROUND_PROPERTY} is set, lets them complete in the background. A cache that is still being closed is
+ * waited for before it is opened again.
+ */
 public class DefaultCacheFactory implements CacheFactory, Closeable {
+    public static final String CLOSE_IN_BACKGROUND_PROPERTY = "org.gradle.internal.cache.close.background";
+    private static final Logger LOGGER = LoggerFactory.getLogger(DefaultCacheFactory.class);
+
     private final Map<File, DirCacheReference> dirCaches = new HashMap<File, DirCacheReference>();
+    private final Map<File, Future<?>> closingCaches = new HashMap<File, Future<?>>();
     private final FileLockManager lockManager;
     private final ExecutorFactory executorFactory;
+    private final boolean closeInBackground;
     private final Lock lock = new ReentrantLock();
+    private ManagedExecutor closeExecutor;
 
     public DefaultCacheFactory(FileLockManager fileLockManager, ExecutorFactory executorFactory) {
+        this(fileLockManager, executorFactory, Boolean.getBoolean(CLOSE_IN_BACKGROUND_PROPERTY));
+    }
+
+    public DefaultCacheFactory(FileLockManager fileLockManager, ExecutorFactory executorFactory, boolean closeInBackground) {
         this.lockManager = fileLockManager;
         this.executorFactory = executorFactory;
+        this.closeInBackground = closeInBackground;
     }
 
     void onOpen(Object cache) {
@@ -69,6 +93,13 @@ public class DefaultCacheFactory implements CacheFactory, Closeable {
         }
     }
 
+    @Override
+    public void buildFinished() {
+        if (!closeInBackground) {
+            awaitClosingCaches();
+        }
+    }
+
     public void close() {
         lock.lock();
         try {
@@ -77,10 +108,78 @@ public class DefaultCacheFactory implements CacheFactory, Closeable {
             dirCaches.clear();
             lock.unlock();
         }
+        try {
+            awaitClosingCaches();
+        } finally {
+            lock.lock();
+            try {
+                if (closeExecutor != null) {
+                    closeExecutor.stop();
+                    closeExecutor = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void awaitClosingCaches() {
+        Map<File, Future<?>> pending;
+        lock.lock();
+        try {
+            pending = new HashMap<File, Future<?>>(closingCaches);
+        } finally {
+            lock.unlock();
+        }
+        Throwable failure = null;
+        for (Map.Entry<File, Future<?>> closing : pending.entrySet()) {
+            try {
+                awaitClose(closing.getValue());
+            } catch (Throwable throwable) {
+                if (failure == null) {
+                    failure = throwable;
+                }
+            } finally {
+                // Keep the cache marked as closing until it has been closed, so that it is not opened again in the meantime
+                lock.lock();
+                try {
+                    closed(closing.getKey(), closing.getValue());
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        if (failure != null) {
+            throw UncheckedException.throwAsUncheckedException(failure);
+        }
+    }
+
+    private void closed(File cacheDir, Future<?> closing) {
+        if (closingCaches.get(cacheDir) == closing) {
+            closingCaches.remove(cacheDir);
+        }
+    }
+
+    private static void awaitClose(Future<?> closing) {
+        try {
+            closing.get();
+        } catch (ExecutionException e) {
+            throw UncheckedException.throwAsUncheckedException(e.getCause());
+        } catch (InterruptedException e) {
+            throw UncheckedException.throwAsUncheckedException(e);
+        }
     }
 
     private PersistentCache doOpen(File cacheDir, String displayName, @Nullable CacheValidator validator, Map<String, ?> properties, CacheBuilder.LockTarget lockTarget, LockOptions lockOptions, @Nullable Action<? super PersistentCache> initializer, @Nullable CleanupAction cleanup) {
         File canonicalDir = FileUtils.canonicalize(cacheDir);
+        Future<?> closing = closingCaches.get(canonicalDir);
+        if (closing != null) {
+            try {
+                awaitClose(closing);
+            } finally {
+                closed(canonicalDir, closing);
+            }
+        }
         DirCacheReference dirCacheReference = dirCaches.get(canonicalDir);
         if (dirCacheReference == null) {
             ReferencablePersistentCache cache;
@@ -140,7 +239,25 @@ public class DefaultCacheFactory implements CacheFactory, Closeable {
             onClose(cache);
             dirCaches.values().remove(this);
             references.clear();
+            if (closeExecutor == null) {
+                closeExecutor = executorFactory.create("Close caches");
+            }
+            closingCaches.put(cache.getBaseDir(), closeExecutor.submit(new CloseCacheAction(cache)));
+        }
+    }
+
+    private static class CloseCacheAction implements Runnable {
+        private final ReferencablePersistentCache cache;
+
+        CloseCacheAction(ReferencablePersistentCache cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public void run() {
+            Timer timer = Time.startTimer();
             cache.close();
+            LOGGER.debug("Closed {} in {} ms.", cache, timer.getElapsedMillis());
         }
     }
 
@@ -18,6 +18,7 @@ package org.gradle.cache.internal;
 import org.gradle.cache.FileIntegrityViolationException;
 import org.gradle.cache.FileLock;
 import org.gradle.cache.FileLockManager;
+import org.gradle.cache.FileLockWaitStatistics;
 import org.gradle.cache.InsufficientLockModeException;
 import org.gradle.cache.LockOptions;
 import org.gradle.cache.LockTimeoutException;
@@ -37,6 +38,7 @@ import org.gradle.internal.id.IdGenerator;
 import org.gradle.internal.id.RandomLongIdGenerator;
 import org.gradle.internal.time.CountdownTimer;
 import org.gradle.internal.time.Time;
+import org.gradle.internal.time.Timer;
 import org.gradle.util.GFileUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -62,6 +64,7 @@ public class DefaultFileLockManager implements FileLockManager {
     private final IdGenerator<Long> generator;
     private final FileLockContentionHandler fileLockContentionHandler;
     private final int shortTimeoutMs = 10000;
+    private final FileLockWaitStatistics waitStatistics = new FileLockWaitStatistics();
 
     public DefaultFileLockManager(ProcessMetaDataProvider metaDataProvider, FileLockContentionHandler fileLockContentionHandler) {
         this(metaDataProvider, DEFAULT_LOCK_TIMEOUT, fileLockContentionHandler);
@@ -79,6 +82,10 @@ public class DefaultFileLockManager implements FileLockManager {
         this.generator = generator;
     }
 
+    public FileLockWaitStatistics getWaitStatistics() {
+        return waitStatistics;
+    }
+
     public FileLock lock(File target, LockOptions options, String targetDisplayName) throws LockTimeoutException {
         return lock(target, options, targetDisplayName, "");
     }
@@ -123,6 +130,7 @@ public class DefaultFileLockManager implements FileLockManager {
         private LockState lockState;
         private int port;
         private final long lockId;
+        private boolean contended;
 
         public DefaultFileLock(File target, LockOptions options, String displayName, String operationDisplayName, int port, Runnable whenContended) throws Throwable {
             this.port = port;
@@ -267,6 +275,11 @@ public class DefaultFileLockManager implements FileLockManager {
                     lockedFiles.remove(target);
                 }
             });
+            stoppable.add(new Stoppable() {
+                public void stop() {
+                    fileLockContentionHandler.released(lockId);
+                }
+            });
             stoppable.stop();
         }
 
@@ -276,6 +289,8 @@ public class DefaultFileLockManager implements FileLockManager {
 
         private LockState lock(LockMode lockMode) throws Throwable {
             LOGGER.debug("Waiting to acquire {} lock on {}.", lockMode.toString().toLowerCase(), displayName);
+            Timer waitTimer = Time.startTimer();
+            contended = false;
 
             // Lock the state region, with the requested mode
             java.nio.channels.FileLock stateRegionLock = lockStateRegion(lockMode);
@@ -307,7 +322,9 @@ public class DefaultFileLockManager implements FileLockManager {
                     // Just read the state region
                     lockState = lockFileAccess.readLockState();
                 }
-                LOGGER.debug("Lock acquired on {}.", displayName);
+                long waitMillis = waitTimer.getElapsedMillis();
+                waitStatistics.recordAcquired(displayName, contended, waitMillis);
+                LOGGER.debug("Lock acquired on {} after waiting {} ms.", displayName, waitMillis);
                 lock = stateRegionLock;
                 return lockState;
             } catch (Throwable t) {
@@ -333,7 +350,7 @@ public class DefaultFileLockManager implements FileLockManager {
         }
 
         private java.nio.channels.FileLock lockStateRegion(final LockMode lockMode) throws IOException, InterruptedException {
-            final ExponentialBackoff backoff = new ExponentialBackoff(lockTimeoutMs);
+            final ContendedLockBackoff backoff = new ContendedLockBackoff(lockTimeoutMs);
             return backoff.retryUntil(new IOQuery<java.nio.channels.FileLock>() {
                 private long lastPingTime;
                 private int lastLockHolderPort;
@@ -344,6 +361,7 @@ public class DefaultFileLockManager implements FileLockManager {
                     if (fileLock != null) {
                         return fileLock;
                     }
+                    contended = true;
                     if (port != -1) { //we don't like the assumption about the port very much
                         LockInfo lockInfo = readInformationRegion(backoff);
                         if (lockInfo.port != -1) {
@@ -356,6 +374,7 @@ public class DefaultFileLockManager implements FileLockManager {
                                 lastPingTime = backoff.timer.getElapsedMillis();
                                 LOGGER.debug("The file lock is held by a different Gradle process (pid: {}, lockId: {}). Pinged owner at port {}", lockInfo.pid, lockInfo.lockId, lockInfo.port);
                             }
+                            backoff.awaitReleaseOf(lockInfo.lockId);
                         } else {
                             LOGGER.debug("The file lock is held by a different Gradle process. I was unable to read on which port the owner listens for lock access requests.");
                         }
@@ -375,6 +394,32 @@ public class DefaultFileLockManager implements FileLockManager {
         }
     }
 
+    /**
+     * Backs off like {@link ExponentialBackoff}, but wakes up as soon as the owner of the contended lock signals that it released the lock.
+     */
+    private class ContendedLockBackoff extends ExponentialBackoff {
+        private boolean ownerKnown;
+        private long ownerLockId;
+
+        private ContendedLockBackoff(int timeoutMs) {
+            super(timeoutMs);
+        }
+
+        void awaitReleaseOf(long lockId) {
+            ownerKnown = true;
+            ownerLockId = lockId;
+        }
+
+        @Override
+        void pause(long periodMs) throws InterruptedException {
+            if (ownerKnown) {
+                fileLockContentionHandler.awaitRelease(ownerLockId, periodMs);
+            } else {
+                super.pause(periodMs);
+            }
+        }
+    }
+
     private interface IOQuery<T> {
         T run() throws IOException, InterruptedException;
     }
@@ -406,11 +451,15 @@ public class DefaultFileLockManager implements FileLockManager {
                 if (timer.hasExpired()) {
                     break;
                 }
-                Thread.sleep(backoffPeriodFor(++iteration));
+                pause(backoffPeriodFor(++iteration));
             }
             return result;
         }
 
+        void pause(long periodMs) throws InterruptedException {
+            Thread.sleep(periodMs);
+        }
+
         long backoffPeriodFor(int iteration) {
             return random.nextInt(Math.min(iteration, CAP_FACTOR)) * SLOT_TIME;
         }
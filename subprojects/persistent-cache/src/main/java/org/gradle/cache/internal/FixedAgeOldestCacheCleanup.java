@@ -21,21 +21,98 @@ import org.gradle.cache.PersistentCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.annotation.Nullable;
 import java.io.File;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Deletes any cache entries older than a given age.
+ *
+ * <p>When a {@link CacheUsageJournal} is provided, the age of the entries is taken from the journal, so that the cache directory only needs to be scanned occasionally.
+ * The cache can be shared with Gradle versions that do not write the journal but update the modification time of the entries they use, so an entry is only
+ * deleted when both its journal record and its modification time are older than the given age.</p>
  */
 public class FixedAgeOldestCacheCleanup extends AbstractCacheCleanup {
     private static final Logger LOGGER = LoggerFactory.getLogger(FixedAgeOldestCacheCleanup.class);
 
     private final long minimumTimestamp;
+    private final CacheUsageJournal journal;
 
     public FixedAgeOldestCacheCleanup(long ageInDays) {
+        this(ageInDays, null);
+    }
+
+    public FixedAgeOldestCacheCleanup(long ageInDays, @Nullable CacheUsageJournal journal) {
         this.minimumTimestamp = Math.max(0, System.currentTimeMillis() - TimeUnit.DAYS.toMillis(ageInDays));
+        this.journal = journal;
+    }
+
+    @Override
+    public void clean(PersistentCache persistentCache) {
+        if (journal == null) {
+            super.clean(persistentCache);
+        } else {
+            cleanUsingJournal(persistentCache);
+        }
+    }
+
+    private void cleanUsingJournal(PersistentCache persistentCache) {
+        long now = System.currentTimeMillis();
+        CacheUsageJournal.State state = journal.read();
+        if (state == null || state.isFullScanDue(now)) {
+            LOGGER.debug("{} scanning cache directory to update usage journal.", persistentCache);
+            state = new CacheUsageJournal.State(now, scan(persistentCache, state));
+        }
+
+        LOGGER.info("{} remove files older than {}.", persistentCache, new Date(minimumTimestamp));
+        List<File> filesForDeletion = Lists.newArrayList();
+        Iterator<Map.Entry<String, Long>> entries = state.getLastUsed().entrySet().iterator();
+        while (entries.hasNext()) {
+            Map.Entry<String, Long> entry = entries.next();
+            if (entry.getValue() >= minimumTimestamp) {
+                continue;
+            }
+            File file = new File(persistentCache.getBaseDir(), entry.getKey());
+            long lastModified = file.lastModified();
+            if (lastModified >= minimumTimestamp) {
+                // Used by a version that does not write the journal
+                entry.setValue(lastModified);
+            } else {
+                filesForDeletion.add(file);
+                entries.remove();
+            }
+        }
+        if (!filesForDeletion.isEmpty()) {
+            cleanupFiles(persistentCache, filesForDeletion);
+        }
+        journal.compact(state);
+    }
+
+    private Map<String, Long> scan(PersistentCache persistentCache, @Nullable CacheUsageJournal.State previousState) {
+        Map<String, Long> lastUsed = new HashMap<String, Long>();
+        File[] files = persistentCache.getBaseDir().listFiles();
+        if (files == null) {
+            return lastUsed;
+        }
+        for (File file : files) {
+            if (isReserved(persistentCache, file) || isJournal(file)) {
+                continue;
+            }
+            long timestamp = file.lastModified();
+            Long recorded = previousState == null ? null : previousState.getLastUsed().get(file.getName());
+            lastUsed.put(file.getName(), recorded == null ? timestamp : Math.max(recorded, timestamp));
+        }
+        return lastUsed;
+    }
+
+    private boolean isJournal(File file) {
+        // Also matches the temporary file used while compacting
+        return file.getName().startsWith(journal.getJournalFile().getName());
     }
 
     @Override
@@ -24,8 +24,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.DatagramPacket;
+import java.net.SocketAddress;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -63,15 +69,25 @@ import java.util.concurrent.locks.ReentrantLock;
  * <p>
  * As Lock Requester, the state of the request is always stored per lock (lockId) and Lock Holder (port). The Lock Holder
  * for a lock might change without acquiring the lock if several Lock Requester compete for the same lock.
+ * <p>
+ * Once the Lock Holder has released a contended lock (see {@link #released(long)}), it sends a release message to every
+ * Lock Requester that asked for the release. The Lock Requester then wakes up any thread blocked in {@link #awaitRelease(long, long)},
+ * so that it does not have to wait for its next poll to acquire the lock. Older Gradle versions read the release message
+ * as a repeated confirmation, so the protocol stays compatible. A release signal is discarded when the owner is pinged again, so that
+ * a signal that nobody waited for does not end a later wait early. Receiving a release signal forgets the previous ping, so the next wait
+ * for the same lock always pings the owner again.
  */
 public class DefaultFileLockContentionHandler implements FileLockContentionHandler, Stoppable {
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultFileLockContentionHandler.class);
     private static final int PING_DELAY = 1000;
     private final Lock lock = new ReentrantLock();
+    private final Condition releaseSignalled = lock.newCondition();
 
     private final Map<Long, ContendedAction> contendedActions = new HashMap<Long, ContendedAction>();
     private final Map<Long, Integer> unlocksRequestedFrom = new HashMap<Long, Integer>();
     private final Map<Long, Integer> unlocksConfirmedFrom = new HashMap<Long, Integer>();
+    private final Set<Long> releasesSignalled = new HashSet<Long>();
+    private final Map<Long, Set<SocketAddress>> releaseNotificationsPending = new HashMap<Long, Set<SocketAddress>>();
 
     private final ExecutorFactory executorFactory;
     private final InetAddressFactory addressFactory;
@@ -104,21 +120,26 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
                 while (true) {
                     DatagramPacket packet;
                     long lockId;
+                    boolean released;
                     try {
                         packet = communicator.receive();
                         lockId = communicator.decodeLockId(packet);
+                        released = communicator.decodeLockReleased(packet);
                     } catch (GracefullyStoppedException e) {
                         return;
                     }
 
                     lock.lock();
                     ContendedAction contendedAction = contendedActions.get(lockId);
-                    if (contendedAction == null) {
+                    if (released) {
+                        acceptReleaseAsLockRequester(lockId, packet.getPort());
+                    } else if (contendedAction == null) {
                         acceptConfirmationAsLockRequester(lockId, packet.getPort());
                     } else {
                         if (!contendedAction.running) {
                             startLockReleaseAsLockHolder(contendedAction);
                         }
+                        contendedAction.requesters.add(packet.getSocketAddress());
                         communicator.confirmUnlockRequest(packet);
                     }
                     lock.unlock();
@@ -137,6 +158,14 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
         LOGGER.debug("Gradle process at port {} confirmed unlock request for lock with id {}.", port, lockId);
     }
 
+    private void acceptReleaseAsLockRequester(long lockId, int port) {
+        unlocksConfirmedFrom.remove(lockId);
+        unlocksRequestedFrom.remove(lockId);
+        releasesSignalled.add(lockId);
+        releaseSignalled.signalAll();
+        LOGGER.debug("Gradle process at port {} released lock with id {}.", port, lockId);
+    }
+
     public void start(long lockId, Runnable whenContended) {
         lock.lock();
         unlocksRequestedFrom.remove(lockId);
@@ -172,6 +201,11 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
             return false;
         }
 
+        // Only a release signalled after this ping tells that the owner released the lock
+        lock.lock();
+        releasesSignalled.remove(lockId);
+        lock.unlock();
+
         boolean pingSentSuccessfully = getCommunicator().pingOwner(port, lockId, displayName);
         if (pingSentSuccessfully) {
             lock.lock();
@@ -181,6 +215,23 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
         return pingSentSuccessfully;
     }
 
+    public boolean awaitRelease(long lockId, long timeoutMs) throws InterruptedException {
+        long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        lock.lock();
+        try {
+            while (!releasesSignalled.contains(lockId)) {
+                if (remainingNanos <= 0) {
+                    return false;
+                }
+                remainingNanos = releaseSignalled.awaitNanos(remainingNanos);
+            }
+            releasesSignalled.remove(lockId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     private void assertNotStopped() {
         if (stopped) {
             throw new IllegalStateException(
@@ -191,17 +242,45 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
     public void stop(long lockId) {
         lock.lock();
         try {
-            contendedActions.remove(lockId);
+            ContendedAction contendedAction = contendedActions.remove(lockId);
+            if (contendedAction != null && !contendedAction.requesters.isEmpty()) {
+                releaseNotificationsPending.put(lockId, contendedAction.requesters);
+            }
         } finally {
             lock.unlock();
         }
     }
 
+    public void released(long lockId) {
+        Set<SocketAddress> requesters;
+        lock.lock();
+        try {
+            requesters = releaseNotificationsPending.remove(lockId);
+            if (requesters == null || stopped) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        for (SocketAddress requester : requesters) {
+            try {
+                communicator.confirmLockRelease(requester, lockId);
+            } catch (GracefullyStoppedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // The requester will notice the release on its next poll
+                LOGGER.debug("Failed to notify {} about the release of lock with id {}.", requester, lockId, e);
+            }
+        }
+    }
+
     public void stop() {
         lock.lock();
         try {
             stopped = true;
             contendedActions.clear();
+            releaseNotificationsPending.clear();
+            releaseSignalled.signalAll();
             if (communicator != null) {
                 communicator.stop();
             }
@@ -235,6 +314,7 @@ public class DefaultFileLockContentionHandler implements FileLockContentionHandl
 
     private static class ContendedAction {
         private final Runnable action;
+        private final Set<SocketAddress> requesters = new LinkedHashSet<SocketAddress>();
         private boolean running;
 
         private ContendedAction(Runnable action) {
@@ -28,6 +28,7 @@ import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.net.SocketAddress;
 import java.net.SocketException;
 
 import static org.gradle.internal.UncheckedException.throwAsUncheckedException;
@@ -37,6 +38,8 @@ public class FileLockCommunicator {
     private static final String SOCKET_OPERATION_NOT_PERMITTED_ERROR_MESSAGE = "Operation not permitted";
 
     private static final byte PROTOCOL_VERSION = 1;
+    // Older versions receive 9 bytes only, so they read a release message as a plain confirmation
+    private static final byte LOCK_RELEASED = 1;
     private final DatagramSocket socket;
     private final InetAddressFactory addressFactory;
     private boolean stopped;
@@ -74,7 +77,7 @@ public class FileLockCommunicator {
 
     public DatagramPacket receive() throws GracefullyStoppedException {
         try {
-            byte[] bytes = new byte[9];
+            byte[] bytes = new byte[10];
             DatagramPacket packet = new DatagramPacket(bytes, bytes.length);
             socket.receive(packet);
             return packet;
@@ -97,10 +100,14 @@ public class FileLockCommunicator {
         }
     }
 
+    public boolean decodeLockReleased(DatagramPacket receivedPacket) {
+        return receivedPacket.getLength() > 9 && receivedPacket.getData()[9] == LOCK_RELEASED;
+    }
+
     public void confirmUnlockRequest(DatagramPacket receivedPacket) {
         try {
             byte[] bytes = receivedPacket.getData();
-            DatagramPacket confirmPacket = new DatagramPacket(bytes, bytes.length, receivedPacket.getAddress(), receivedPacket.getPort());
+            DatagramPacket confirmPacket = new DatagramPacket(bytes, 9, receivedPacket.getAddress(), receivedPacket.getPort());
             socket.send(confirmPacket);
         } catch (IOException e) {
             if (!stopped) {
@@ -110,6 +117,18 @@ public class FileLockCommunicator {
         }
     }
 
+    public void confirmLockRelease(SocketAddress requesterAddress, long lockId) {
+        try {
+            byte[] bytes = encode(lockId, LOCK_RELEASED);
+            socket.send(new DatagramPacket(bytes, bytes.length, requesterAddress));
+        } catch (IOException e) {
+            if (!stopped) {
+                throw new RuntimeException(e);
+            }
+            throw new GracefullyStoppedException();
+        }
+    }
+
     public void stop() {
         stopped = true;
         socket.close();
@@ -124,6 +143,14 @@ public class FileLockCommunicator {
         return packet.toByteArray();
     }
 
+    private static byte[] encode(long lockId, byte type) throws IOException {
+        byte[] lockIdBytes = encode(lockId);
+        byte[] bytes = new byte[lockIdBytes.length + 1];
+        System.arraycopy(lockIdBytes, 0, bytes, 0, lockIdBytes.length);
+        bytes[lockIdBytes.length] = type;
+        return bytes;
+    }
+
     private static long decode(byte[] bytes) throws IOException {
         DataInputStream dataInput = new DataInputStream(new ByteArrayInputStream(bytes));
         byte version = dataInput.readByte();
@@ -21,6 +21,13 @@ public interface FileLockContentionHandler {
 
     void stop(long lockId);
 
+    /**
+     * Notifies the processes that requested the release of the given lock that the lock has been released,
+     * so that they can try to acquire it right away instead of waiting for their next poll.
+     * Must be called after the underlying file lock was released.
+     */
+    void released(long lockId);
+
     int reservePort();
 
     /**
@@ -32,4 +39,11 @@ public interface FileLockContentionHandler {
      * @return true if the owner was pinged in this call
      */
     boolean maybePingOwner(int port, long lockId, String displayName, long timeElapsed);
+
+    /**
+     * Waits until the owner of the given lock signals that it has released the lock, or the timeout expires.
+     *
+     * @return true if the owner signalled the release of the lock
+     */
+    boolean awaitRelease(long lockId, long timeoutMs) throws InterruptedException;
 }
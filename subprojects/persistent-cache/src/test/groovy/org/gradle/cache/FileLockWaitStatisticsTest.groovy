@@ -0,0 +1,48 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.cache
+
+import spock.lang.Specification
+
+class FileLockWaitStatisticsTest extends Specification {
+    def statistics = new FileLockWaitStatistics()
+
+    def "sums the acquisitions of each lock until drained"() {
+        when:
+        statistics.recordAcquired("a", false, 0)
+        statistics.recordAcquired("a", true, 10)
+        statistics.recordAcquired("b", true, 5)
+        def lockWaits = statistics.drain().collectEntries { [it.lockDisplayName, [it.acquisitions, it.contendedAcquisitions, it.waitTimeMillis]] }
+
+        then:
+        lockWaits == [a: [2L, 1L, 10L], b: [1L, 1L, 5L]]
+
+        and:
+        statistics.drain().empty
+    }
+
+    def "stops counting new locks once too many are counted"() {
+        when:
+        1100.times { statistics.recordAcquired("lock $it", false, 0) }
+        statistics.recordAcquired("lock 0", false, 0)
+        def lockWaits = statistics.drain()
+
+        then:
+        lockWaits.size() == 1000
+        lockWaits.find { it.lockDisplayName == "lock 0" }.acquisitions == 2
+    }
+}
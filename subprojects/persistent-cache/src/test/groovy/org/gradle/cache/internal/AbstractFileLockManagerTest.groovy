@@ -125,6 +125,22 @@ abstract class AbstractFileLockManagerTest extends Specification {
         lockMode << [Exclusive, Shared]
     }
 
+    def "records the acquisitions of each lock"() {
+        when:
+        createLock(Exclusive).close()
+        createLock(Shared).close()
+
+        then:
+        def lockWaits = manager.waitStatistics.drain()
+        lockWaits.size() == 1
+        lockWaits[0].lockDisplayName == "foo"
+        lockWaits[0].acquisitions == 2
+        lockWaits[0].contendedAcquisitions == 0
+
+        and:
+        manager.waitStatistics.drain().empty
+    }
+
     def "can lock a directory"() {
         when:
         def lock = createLock(lockMode, testDir)
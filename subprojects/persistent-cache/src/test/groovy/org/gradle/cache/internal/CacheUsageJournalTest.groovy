@@ -0,0 +1,141 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.cache.internal
+
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.junit.Rule
+import spock.lang.Specification
+
+import java.util.concurrent.TimeUnit
+
+class CacheUsageJournalTest extends Specification {
+    @Rule TestNameTestDirectoryProvider temporaryFolder = new TestNameTestDirectoryProvider()
+    def journalFile = temporaryFolder.file("usage.journal")
+    def journal = new CacheUsageJournal(journalFile)
+
+    def "reads nothing when journal does not exist"() {
+        expect:
+        journal.read() == null
+    }
+
+    def "created journal is due for a full scan"() {
+        when:
+        journal.createIfMissing()
+        def state = journal.read()
+
+        then:
+        state.lastFullScan == 0
+        state.lastUsed.isEmpty()
+        state.isFullScanDue(System.currentTimeMillis())
+    }
+
+    def "does not replace existing journal when creating it"() {
+        given:
+        journal.compact(new CacheUsageJournal.State(100, [a: 1L]))
+
+        when:
+        journal.createIfMissing()
+
+        then:
+        journal.read().lastFullScan == 100
+        journal.read().lastUsed == [a: 1L]
+    }
+
+    def "writes recorded usages only when flushed"() {
+        given:
+        journal.createIfMissing()
+        def sizeBeforeUse = journalFile.length()
+
+        when:
+        journal.recordUsage("a", 1)
+        journal.recordUsage("a", 2)
+
+        then:
+        journalFile.length() == sizeBeforeUse
+
+        when:
+        journal.flush()
+
+        then:
+        journalFile.length() > sizeBeforeUse
+        new CacheUsageJournal(journalFile).read().lastUsed == [a: 2L]
+    }
+
+    def "recreates journal when flushing after it was removed"() {
+        given:
+        journal.createIfMissing()
+        journalFile.delete()
+
+        when:
+        journal.recordUsage("a", 1)
+        journal.flush()
+        def state = journal.read()
+
+        then:
+        state.lastFullScan == 0
+        state.lastUsed == [a: 1L]
+    }
+
+    def "replays recorded usages after compaction"() {
+        given:
+        journal.compact(new CacheUsageJournal.State(100, [a: 1L, b: 2L]))
+
+        when:
+        journal.recordUsage("a", 5)
+        journal.recordUsage("c", 3)
+        journal.recordUsage("a", 4)
+        def state = journal.read()
+
+        then:
+        state.lastFullScan == 100
+        state.lastUsed == [a: 5L, b: 2L, c: 3L]
+    }
+
+    def "compaction keeps a single record per entry"() {
+        given:
+        journal.compact(new CacheUsageJournal.State(100, [a: 1L]))
+        10.times {
+            journal.recordUsage("a", it)
+            journal.flush()
+        }
+        def sizeBeforeCompaction = journalFile.length()
+
+        when:
+        journal.compact(journal.read())
+
+        then:
+        journalFile.length() < sizeBeforeCompaction
+        journal.read().lastUsed == [a: 9L]
+    }
+
+    def "ignores partially written record at the end of the journal"() {
+        given:
+        journal.compact(new CacheUsageJournal.State(100, [a: 1L]))
+        journalFile << ([0, 5, 98] as byte[])
+
+        expect:
+        journal.read().lastUsed == [a: 1L]
+    }
+
+    def "full scan is due after scan interval"() {
+        def now = System.currentTimeMillis()
+
+        expect:
+        !new CacheUsageJournal.State(now, [:]).isFullScanDue(now)
+        new CacheUsageJournal.State(now - TimeUnit.DAYS.toMillis(CacheUsageJournal.FULL_SCAN_INTERVAL_DAYS + 1), [:]).isFullScanDue(now)
+    }
+}
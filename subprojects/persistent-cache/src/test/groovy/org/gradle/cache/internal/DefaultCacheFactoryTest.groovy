@@ -18,12 +18,19 @@ package org.gradle.cache.internal
 import org.gradle.api.Action
 import org.gradle.cache.CacheBuilder
 import org.gradle.cache.CacheValidator
+import org.gradle.cache.PersistentCache
 import org.gradle.cache.internal.locklistener.NoOpFileLockContentionHandler
+import org.gradle.internal.concurrent.DefaultExecutorFactory
 import org.gradle.internal.concurrent.ExecutorFactory
+import org.gradle.internal.concurrent.ManagedExecutor
 import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
 import org.junit.Rule
 import spock.lang.Specification
 
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicReference
+
 import static org.gradle.cache.FileLockManager.LockMode.Exclusive
 import static org.gradle.cache.FileLockManager.LockMode.Shared
 import static org.gradle.cache.internal.filelock.LockOptionsBuilder.mode
@@ -34,7 +41,8 @@ class DefaultCacheFactoryTest extends Specification {
     final Action<?> opened = Mock()
     final Action<?> closed = Mock()
     final ProcessMetaDataProvider metaDataProvider = Mock()
-    private final DefaultCacheFactory factory = new DefaultCacheFactory(new DefaultFileLockManager(metaDataProvider, new NoOpFileLockContentionHandler()), Mock(ExecutorFactory)) {
+    final DefaultExecutorFactory executorFactory = new DefaultExecutorFactory()
+    private final DefaultCacheFactory factory = new DefaultCacheFactory(new DefaultFileLockManager(metaDataProvider, new NoOpFileLockContentionHandler()), executorFactory, false) {
         @Override
         void onOpen(Object cache) {
             opened.execute(cache)
@@ -51,6 +59,10 @@ class DefaultCacheFactoryTest extends Specification {
         _ * metaDataProvider.processDisplayName >> 'process'
     }
 
+    def cleanup() {
+        executorFactory.stop()
+    }
+
     void "creates directory backed cache instance"() {
         when:
         def cache = factory.open(tmpDir.testDirectory, "<display>", null, [prop: 'value'], CacheBuilder.LockTarget.DefaultTarget, mode(Shared), null, null)
@@ -220,4 +232,101 @@ class DefaultCacheFactoryTest extends Specification {
         cleanup:
         factory.close()
     }
+
+    void "waits for closing caches when build finishes"() {
+        def implementation
+
+        when:
+        def cache = factory.open(tmpDir.testDirectory, null, null, [prop: 'value'], CacheBuilder.LockTarget.DefaultTarget, mode(Exclusive), null, null)
+        cache.close()
+        factory.buildFinished()
+
+        then:
+        1 * opened.execute(_) >> { DefaultPersistentDirectoryStore s -> implementation = s }
+        implementation.cacheAccess == null
+
+        cleanup:
+        factory.close()
+    }
+
+    void "waits for cache to finish closing before opening it again"() {
+        def backgroundFactory = new DefaultCacheFactory(new DefaultFileLockManager(metaDataProvider, new NoOpFileLockContentionHandler()), executorFactory, true)
+
+        when:
+        def cache1 = backgroundFactory.open(tmpDir.testDirectory, null, null, [prop: 'value'], CacheBuilder.LockTarget.DefaultTarget, mode(Exclusive), null, null)
+        cache1.close()
+        backgroundFactory.buildFinished()
+        def cache2 = backgroundFactory.open(tmpDir.testDirectory, null, null, [prop: 'value'], CacheBuilder.LockTarget.DefaultTarget, mode(Exclusive), null, null)
+
+        then:
+        cache1.reference.cache.cacheAccess == null
+        !cache1.reference.cache.is(cache2.reference.cache)
+
+        cleanup:
+        backgroundFactory.close()
+    }
+
+    void "waits for closing caches when factory is closed"() {
+        def backgroundFactory = new DefaultCacheFactory(new DefaultFileLockManager(metaDataProvider, new NoOpFileLockContentionHandler()), executorFactory, true)
+
+        when:
+        def cache1 = backgroundFactory.open(tmpDir.file("cache1"), null, null, [prop: 'value'], CacheBuilder.LockTarget.DefaultTarget, mode(Exclusive), null, null)
+        def cache2 = backgroundFactory.open(tmpDir.file("cache2"), null, null, [prop: 'value'], CacheBuilder.LockTarget.DefaultTarget, mode(Exclusive), null, null)
+        cache1.close()
+        backgroundFactory.close()
+
+        then:
+        cache1.reference.cache.cacheAccess == null
+        cache2.reference.cache.cacheAccess == null
+    }
+
+    void "does not open cache again while build finished waits for it to close"() {
+        def closeStarted = new CountDownLatch(1)
+        def releaseClose = new CountDownLatch(1)
+        def closeExecutor = Executors.newSingleThreadExecutor()
+        def blockingClose = [
+            submit: { Runnable action ->
+                closeExecutor.submit({
+                    closeStarted.countDown()
+                    releaseClose.await()
+                    action.run()
+                } as Runnable)
+            },
+            stop: { closeExecutor.shutdown() }
+        ] as ManagedExecutor
+        def blockingExecutorFactory = Stub(ExecutorFactory) {
+            create("Close caches") >> blockingClose
+            create(_) >> { String displayName -> executorFactory.create(displayName) }
+        }
+        def blockingFactory = new DefaultCacheFactory(new DefaultFileLockManager(metaDataProvider, new NoOpFileLockContentionHandler()), blockingExecutorFactory, false)
+        def cache2 = new AtomicReference<PersistentCache>()
+
+        when:
+        def cache1 = blockingFactory.open(tmpDir.testDirectory, null, null, [prop: 'value'], CacheBuilder.LockTarget.DefaultTarget, mode(Exclusive), null, null)
+        cache1.close()
+        closeStarted.await()
+        def finishing = Thread.start { blockingFactory.buildFinished() }
+        finishing.join(200)
+        def opening = Thread.start {
+            cache2.set(blockingFactory.open(tmpDir.testDirectory, null, null, [prop: 'value'], CacheBuilder.LockTarget.DefaultTarget, mode(Exclusive), null, null))
+        }
+        opening.join(200)
+
+        then:
+        finishing.alive
+        opening.alive
+
+        when:
+        releaseClose.countDown()
+        finishing.join()
+        opening.join()
+
+        then:
+        cache1.reference.cache.cacheAccess == null
+        !cache1.reference.cache.is(cache2.get().reference.cache)
+
+        cleanup:
+        releaseClose.countDown()
+        blockingFactory.close()
+    }
 }
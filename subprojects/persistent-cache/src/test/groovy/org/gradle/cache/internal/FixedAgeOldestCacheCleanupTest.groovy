@@ -59,6 +59,63 @@ class FixedAgeOldestCacheCleanupTest extends Specification {
         filesToDelete.size() == 0
     }
 
+    def "uses journal to find files to delete"() {
+        given:
+        long now = System.currentTimeMillis()
+        def journal = new CacheUsageJournal(cacheDir.file("usage.journal"))
+        def journalCleanupAction = new FixedAgeOldestCacheCleanup(1, journal)
+        def oldEntry = createCacheEntry(1024, now - TimeUnit.DAYS.toMillis(5))
+        def newEntry = createCacheEntry(1024, now)
+        journal.compact(new CacheUsageJournal.State(now, [(oldEntry.name): now - TimeUnit.DAYS.toMillis(5), (newEntry.name): now]))
+        persistentCache.getBaseDir() >> cacheDir
+        persistentCache.getReservedCacheFiles() >> []
+
+        when:
+        journalCleanupAction.clean(persistentCache)
+
+        then:
+        !oldEntry.exists()
+        newEntry.exists()
+        journal.read().lastUsed.keySet() == [newEntry.name] as Set
+    }
+
+    def "keeps entries that are old in the journal but were recently modified"() {
+        given:
+        long now = System.currentTimeMillis()
+        def journal = new CacheUsageJournal(cacheDir.file("usage.journal"))
+        def journalCleanupAction = new FixedAgeOldestCacheCleanup(1, journal)
+        def entryUsedByOlderVersion = createCacheEntry(1024, now)
+        journal.compact(new CacheUsageJournal.State(now, [(entryUsedByOlderVersion.name): now - TimeUnit.DAYS.toMillis(5)]))
+        persistentCache.getBaseDir() >> cacheDir
+        persistentCache.getReservedCacheFiles() >> []
+
+        when:
+        journalCleanupAction.clean(persistentCache)
+
+        then:
+        entryUsedByOlderVersion.exists()
+        journal.read().lastUsed == [(entryUsedByOlderVersion.name): entryUsedByOlderVersion.lastModified()]
+    }
+
+    def "scans cache directory when journal does not exist"() {
+        given:
+        long now = System.currentTimeMillis()
+        def journal = new CacheUsageJournal(cacheDir.file("usage.journal"))
+        def journalCleanupAction = new FixedAgeOldestCacheCleanup(1, journal)
+        def oldEntry = createCacheEntry(1024, now - TimeUnit.DAYS.toMillis(5))
+        def newEntry = createCacheEntry(1024, now)
+        persistentCache.getBaseDir() >> cacheDir
+        persistentCache.getReservedCacheFiles() >> []
+
+        when:
+        journalCleanupAction.clean(persistentCache)
+
+        then:
+        !oldEntry.exists()
+        newEntry.exists()
+        journal.read().lastUsed.keySet() == [newEntry.name] as Set
+    }
+
     private Random r = new Random()
     def createCacheEntry(int size=1024, long timestamp=0) {
         def cacheEntry = cacheDir.file(String.format("%032x", r.nextInt()))
@@ -53,6 +53,61 @@ class DefaultFileLockContentionHandlerTest extends ConcurrentSpecification {
         }
     }
 
+    def "notifies lock requester when the contended lock was released"() {
+        def action = new AtomicBoolean()
+        def released = new AtomicBoolean()
+
+        when:
+        int port = handler.reservePort()
+        handler.start(10, { action.set(true) })
+        client.reservePort()
+        client.start(20, {} as Runnable)
+
+        client.maybePingOwner(port, 10, "lock 1", 50000)
+        poll {
+            assert action.get()
+        }
+
+        start {
+            released.set(client.awaitRelease(10, 5000))
+        }
+        handler.stop(10)
+        handler.released(10)
+
+        then:
+        finished()
+        released.get()
+    }
+
+    def "release signalled while nobody waits does not end a later wait"() {
+        def action = new AtomicBoolean()
+
+        when:
+        int port = handler.reservePort()
+        handler.start(10, { action.set(true) })
+        client.reservePort()
+        client.start(20, {} as Runnable)
+
+        client.maybePingOwner(port, 10, "lock 1", 50000)
+        poll {
+            assert action.get()
+        }
+        handler.stop(10)
+        handler.released(10)
+
+        then:
+        // The owner is only pinged again once the release was received, which discards the release
+        poll {
+            assert client.maybePingOwner(port, 10, "lock 1", 0)
+        }
+        !client.awaitRelease(10, 50)
+    }
+
+    def "waiting for release times out when the owner does not release the lock"() {
+        expect:
+        !client.awaitRelease(10, 50)
+    }
+
     def "there are only two executors: one lock request listener and one release lock action executor"() {
         def factory = Mock(ExecutorFactory)
         handler = new DefaultFileLockContentionHandler(factory, addressFactory)
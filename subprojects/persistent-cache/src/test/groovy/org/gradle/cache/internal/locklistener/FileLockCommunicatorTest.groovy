@@ -24,7 +24,8 @@ import static org.gradle.test.fixtures.ConcurrentTestUtil.poll
 
 class FileLockCommunicatorTest extends ConcurrentSpecification {
 
-    def communicator = new FileLockCommunicator(new InetAddressFactory())
+    def addressFactory = new InetAddressFactory()
+    def communicator = new FileLockCommunicator(addressFactory)
     Long receivedId
 
     def cleanup() {
@@ -63,6 +64,44 @@ class FileLockCommunicatorTest extends ConcurrentSpecification {
         }
     }
 
+    def "can receive lock release notification"() {
+        def released = null
+        start {
+            def packet = communicator.receive()
+            receivedId = communicator.decodeLockId(packet)
+            released = communicator.decodeLockReleased(packet)
+        }
+
+        poll {
+            assert communicator.getPort() != -1 && receivedId == null
+        }
+
+        when:
+        communicator.confirmLockRelease(new InetSocketAddress(addressFactory.communicationAddresses.first(), communicator.getPort()), 155)
+
+        then:
+        poll {
+            assert receivedId == 155
+            assert released
+        }
+    }
+
+    def "ping is not a lock release notification"() {
+        def released = null
+        start {
+            def packet = communicator.receive()
+            released = communicator.decodeLockReleased(packet)
+        }
+
+        when:
+        communicator.pingOwner(communicator.getPort(), 155, "lock")
+
+        then:
+        poll {
+            assert released == false
+        }
+    }
+
     def "may not receive after the stop"() {
         communicator.stop()
         when:
@@ -17,6 +17,7 @@
 package org.gradle.internal.resource.metadata;
 
 import org.gradle.internal.Factory;
+import org.gradle.internal.hash.HashValue;
 
 import javax.annotation.Nullable;
 import java.util.Date;
@@ -27,15 +28,16 @@ public abstract class ExternalResourceMetaDataCompare {
             return false;
         }
 
+        HashValue localSha1 = local.getSha1();
         String localEtag = local.getEtag();
 
         Date localLastModified = local.getLastModified();
-        if (localEtag == null && localLastModified == null) {
+        if (localSha1 == null && localEtag == null && localLastModified == null) {
             return false;
         }
 
         long localContentLength = local.getContentLength();
-        if (localEtag == null && localContentLength < 1) {
+        if (localSha1 == null && localEtag == null && localContentLength < 1) {
             return false;
         }
 
@@ -45,13 +47,19 @@ public abstract class ExternalResourceMetaDataCompare {
             return false;
         }
 
+        // A checksum published by the server, for example by Artifactory or Nexus, identifies the content
+        HashValue remoteSha1 = remote.getSha1();
+        if (localSha1 != null && remoteSha1 != null) {
+            return localSha1.equals(remoteSha1);
+        }
+
         String remoteEtag = remote.getEtag();
         if (localEtag != null && remoteEtag != null) {
             return localEtag.equals(remoteEtag);
         }
 
         Date remoteLastModified = remote.getLastModified();
-        if (remoteLastModified == null) {
+        if (localLastModified == null || remoteLastModified == null) {
             return false;
         }
 
@@ -17,6 +17,7 @@
 package org.gradle.internal.resource.metadata
 
 import org.gradle.internal.Factory
+import org.gradle.internal.hash.HashValue
 import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Unroll
@@ -139,6 +140,47 @@ class ExternalResourceMetaDataCompareTest extends Specification {
         !unchanged
     }
 
+    def "matching sha1s are enough to be considered equal"() {
+        given:
+        local.getSha1() >> HashValue.parse("1234")
+        remote.getSha1() >> HashValue.parse("1234")
+
+        when:
+        compare(local, remote)
+
+        then:
+        unchanged
+        0 * remote.getEtag()
+        0 * remote.getLastModified()
+    }
+
+    def "non matching sha1s do not match, even with matching etags"() {
+        given:
+        local.getSha1() >> HashValue.parse("1234")
+        local.getEtag() >> "abc"
+        remote.getSha1() >> HashValue.parse("5678")
+        remote.getEtag() >> "abc"
+
+        when:
+        compare(local, remote)
+
+        then:
+        !unchanged
+    }
+
+    def "falls back to etags when the remote has no sha1"() {
+        given:
+        local.getSha1() >> HashValue.parse("1234")
+        configureMetadata(local, "abc", null, -1)
+        configureMetadataForEtagMatch(remote, "abc")
+
+        when:
+        compare(local, remote)
+
+        then:
+        unchanged
+    }
+
     def configureMetadata(ExternalResourceMetaData metaData, String etag = "abc", Date lastModified = now, long contentLength = 100) {
         interaction {
             1 * metaData.getEtag() >> etag
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.cache
+
+import org.gradle.integtests.fixtures.executer.GradleDistribution
+import org.gradle.integtests.fixtures.executer.GradleExecuter
+import org.gradle.integtests.fixtures.executer.IntegrationTestBuildContext
+import org.gradle.integtests.fixtures.executer.UnderDevelopmentGradleDistribution
+import org.gradle.soak.categories.SoakTest
+import org.gradle.test.fixtures.ConcurrentTestUtil
+import org.gradle.test.fixtures.file.TestFile
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.util.Requires
+import org.gradle.util.TestPrecondition
+import org.junit.Rule
+import org.junit.experimental.categories.Category
+import spock.lang.Specification
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicLong
+import java.util.regex.Pattern
+
+@Category(SoakTest)
+@Requires(TestPrecondition.NOT_WINDOWS)
+class FileHashCacheContentionSoakTest extends Specification {
+    private static final int CONCURRENT_BUILDS = 4
+    private static final int BUILDS_PER_THREAD = 5
+    private static final Pattern LOCK_ACQUIRED = ~/Lock acquired on (file hash cache(?: shard-\d+)?) \(.* after waiting (\d+) ms\./
+
+    @Rule TestNameTestDirectoryProvider workspace = new TestNameTestDirectoryProvider()
+    GradleDistribution distribution = new UnderDevelopmentGradleDistribution()
+    @Rule ConcurrentTestUtil concurrent = new ConcurrentTestUtil()
+
+    def setup() {
+        concurrent.shortTimeout = 600000
+    }
+
+    def "concurrent builds sharing a user home spread the file hashes over the shards"() {
+        given:
+        def sharedInputs = workspace.file("shared-inputs")
+        500.times { sharedInputs.file("dir${it % 10}/file${it}.txt") << "content $it" }
+
+        when:
+        def unsharded = runConcurrentBuilds("unsharded", sharedInputs, 1)
+        def sharded = runConcurrentBuilds("sharded", sharedInputs, 8)
+        println "Waited ${unsharded.waitTime} ms for the file hash cache locks without sharding and ${sharded.waitTime} ms with 8 shards"
+
+        then:
+        unsharded.locks == ["file hash cache"] as Set
+        sharded.locks == ["file hash cache"] + (1..7).collect { "file hash cache shard-$it" as String } as Set
+    }
+
+    private LockUsage runConcurrentBuilds(String name, TestFile sharedInputs, int shards) {
+        def userHome = workspace.file(name, "user-home")
+        def usage = new LockUsage()
+        CONCURRENT_BUILDS.times { count ->
+            concurrent.start {
+                def buildDir = workspace.file(name, "build-$count")
+                10.times { script ->
+                    buildDir.file("gradle/script${script}.gradle") << "ext.script${script} = ${script}"
+                }
+                buildDir.file("build.gradle") << """
+                    10.times { apply from: "gradle/script\${it}.gradle" }
+
+                    task hashInputs {
+                        inputs.dir '${sharedInputs.absolutePath}'
+                        outputs.file 'build/hashed.txt'
+                        doLast {
+                            file('build/hashed.txt').text = String.valueOf(inputs.files.files.size())
+                        }
+                    }
+                """
+
+                GradleExecuter executer = distribution.executer(workspace, IntegrationTestBuildContext.INSTANCE)
+                    .requireGradleDistribution()
+                    .withGradleUserHomeDir(userHome)
+                BUILDS_PER_THREAD.times {
+                    def result = executer.inDirectory(buildDir)
+                        .withArguments("-d", "-Dorg.gradle.internal.filehashes.shards=${shards}", "--rerun-tasks")
+                        .withTasks("hashInputs")
+                        .run()
+                    (result.output =~ LOCK_ACQUIRED).each { match ->
+                        usage.locks.add(match[1] as String)
+                        usage.waitTime.addAndGet(match[2] as long)
+                    }
+                }
+            }
+        }
+        concurrent.finished()
+        return usage
+    }
+
+    private static class LockUsage {
+        final Set<String> locks = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>())
+        final AtomicLong waitTime = new AtomicLong()
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.gradle.resolve
+
+import org.gradle.integtests.fixtures.executer.GradleDistribution
+import org.gradle.integtests.fixtures.executer.GradleExecuter
+import org.gradle.integtests.fixtures.executer.IntegrationTestBuildContext
+import org.gradle.integtests.fixtures.executer.UnderDevelopmentGradleDistribution
+import org.gradle.soak.categories.SoakTest
+import org.gradle.test.fixtures.file.TestNameTestDirectoryProvider
+import org.gradle.test.fixtures.maven.MavenFileRepository
+import org.gradle.util.Requires
+import org.gradle.util.TestPrecondition
+import org.junit.Rule
+import org.junit.experimental.categories.Category
+import spock.lang.Specification
+
+import java.util.regex.Pattern
+
+@Category(SoakTest)
+@Requires(TestPrecondition.NOT_WINDOWS)
+class LargeDependencyGraphResolutionSoakTest extends Specification {
+    private static final int LEVELS = 6
+    private static final int MODULES_PER_LEVEL = 500
+    private static final int DEPENDENCIES_PER_MODULE = 5
+    private static final int BUILDS = 5
+    private static final Pattern RESOLUTION_TIME = ~/Resolved (\d+) components in (\d+) ms/
+
+    @Rule TestNameTestDirectoryProvider workspace = new TestNameTestDirectoryProvider()
+    GradleDistribution distribution = new UnderDevelopmentGradleDistribution()
+
+    def "resolves a large graph from a local repository with metadata resolved ahead of the traversal"() {
+        given:
+        def repo = new MavenFileRepository(workspace.file("repo"))
+        def random = new Random(42)
+        (LEVELS - 1).downTo(0) { level ->
+            MODULES_PER_LEVEL.times { index ->
+                def module = repo.module("org.test", "lib-${level}-${index}", "1.0")
+                if (level < LEVELS - 1) {
+                    DEPENDENCIES_PER_MODULE.times {
+                        module.dependsOn("org.test", "lib-${level + 1}-${random.nextInt(MODULES_PER_LEVEL)}", "1.0")
+                    }
+                }
+                module.publish()
+            }
+        }
+        workspace.file("build.gradle") << """
+            repositories {
+                maven { url '${repo.uri}' }
+            }
+            configurations {
+                conf
+            }
+            dependencies {
+                ${(0..<MODULES_PER_LEVEL).collect { "conf 'org.test:lib-0-${it}:1.0'" }.join("\n")}
+            }
+            task resolve {
+                doLast {
+                    def start = System.nanoTime()
+                    def components = configurations.conf.incoming.resolutionResult.allComponents.size()
+                    println "Resolved \${components} components in \${(System.nanoTime() - start).intdiv(1000000)} ms"
+                }
+            }
+        """
+
+        when:
+        def serialTime = resolve(false)
+        def aheadTime = resolve(true)
+
+        then:
+        println "Average resolution time with serial metadata resolution: ${serialTime} ms"
+        println "Average resolution time with metadata resolved ahead of the traversal: ${aheadTime} ms"
+    }
+
+    private long resolve(boolean resolveMetadataAhead) {
+        GradleExecuter executer = distribution.executer(workspace, IntegrationTestBuildContext.INSTANCE)
+            .requireGradleDistribution()
+            .withGradleUserHomeDir(workspace.file("user-home"))
+        long totalTime = 0
+        BUILDS.times {
+            def result = executer.inDirectory(workspace.testDirectory)
+                .withArguments("-Dorg.gradle.internal.resolution.metadata.ahead=${resolveMetadataAhead}", "--max-workers=8")
+                .withTasks("resolve")
+                .run()
+            def match = result.output =~ RESOLUTION_TIME
+            assert match.find()
+            totalTime += match.group(2) as long
+        }
+        return totalTime.intdiv(BUILDS)
+    }
+}